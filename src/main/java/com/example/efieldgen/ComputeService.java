@@ -0,0 +1,254 @@
+package com.example.efieldgen;
+
+import javafx.application.Platform;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * ComputeService class that runs the calculations behind the FieldGen scenes on background threads and delivers
+ * their results on the JavaFX application thread, so the window stays responsive however long a calculation takes.
+ *
+ * Requests are submitted under a key, such as "calculator" or "preview". A new request supersedes the one pending or
+ * running under the same key: the older one is cancelled, its thread interrupted, and its result never delivered.
+ * A request may wait a delay before it starts; edits arriving within the delay supersede it before it runs, so a
+ * burst of keystrokes is coalesced into a single calculation of the latest input. Progress reported by a running
+ * calculation is marshalled to the application thread, keeping only the latest value when the thread falls behind.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class ComputeService {
+
+    /**
+     * Computation interface for the work of a request, run on a background thread.
+     * @param <T> type of the result.
+     */
+    public interface Computation<T> {
+
+        /**
+         * Method that performs the calculation.
+         * @param progress Progress to report completion to and to poll for cancellation.
+         * @return T representing the result.
+         * @throws Exception if the calculation fails; the service's error handler is told on the application thread.
+         */
+        T compute(Progress progress) throws Exception;
+    }
+
+    /**
+     * Listener interface for the outcome of a request, always called on the JavaFX application thread.
+     * @param <T> type of the result.
+     */
+    public interface Listener<T> {
+
+        /**
+         * Method that receives the result of a request that was not superseded.
+         * @param result T representing the result of the calculation.
+         */
+        void done(T result);
+
+        /**
+         * Method that receives the latest progress of a running request.
+         * @param fraction double representing the completed fraction between 0 and 1.
+         */
+        default void progress(double fraction) {
+        }
+    }
+
+    private final ScheduledExecutorService worker;
+    private final Executor ui;
+    private final Consumer<Exception> errorHandler;
+    private final Map<String, Request<?>> current = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor that runs calculations on daemon threads and delivers results with Platform.runLater.
+     * @param errorHandler Consumer of Exception told on the application thread when a calculation fails.
+     */
+    public ComputeService(Consumer<Exception> errorHandler) {
+        this(defaultWorker(), Platform::runLater, errorHandler);
+    }
+
+    /**
+     * Constructor that runs calculations and delivers results on specific executors.
+     * @param worker ScheduledExecutorService whose threads run the calculations.
+     * @param ui Executor that runs callbacks on the application thread.
+     * @param errorHandler Consumer of Exception told on the application thread when a calculation fails.
+     */
+    public ComputeService(ScheduledExecutorService worker, Executor ui, Consumer<Exception> errorHandler) {
+        if (worker == null || ui == null || errorHandler == null) {
+            throw new IllegalArgumentException("Executors and error handler must not be null.");
+        }
+        this.worker = worker;
+        this.ui = ui;
+        this.errorHandler = errorHandler;
+    }
+
+    private static ScheduledExecutorService defaultWorker() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                Math.max(2, Runtime.getRuntime().availableProcessors() - 1), r -> {
+                    Thread thread = new Thread(r, "FieldGen compute");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Method that submits a request, superseding any request pending or running under the same key.
+     * @param key String naming the slot of the request.
+     * @param delayMillis long representing how long to wait for newer input before starting, 0 to start at once.
+     * @param computation Computation performing the work.
+     * @param listener Listener receiving the result and progress.
+     * @param <T> type of the result.
+     */
+    public <T> void submit(String key, long delayMillis, Computation<T> computation, Listener<T> listener) {
+        Request<T> request = new Request<>(key, computation, listener);
+        Request<?> previous = current.put(key, request);
+        if (previous != null) {
+            previous.cancel();
+        }
+        request.start(worker.schedule(request::run, Math.max(0, delayMillis), TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Method that cancels the request pending or running under a key, if there is one.
+     * @param key String naming the slot of the request.
+     */
+    public void cancel(String key) {
+        Request<?> previous = current.remove(key);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * Method that cancels every request and stops the worker threads.
+     */
+    public void shutdown() {
+        for (String key : current.keySet()) {
+            cancel(key);
+        }
+        worker.shutdownNow();
+    }
+
+    /**
+     * Progress class handed to a running computation for reporting completion and checking cancellation.
+     */
+    public static final class Progress {
+
+        private static final long NONE = Double.doubleToRawLongBits(Double.NaN);
+
+        private final Executor ui;
+        private final Listener<?> listener;
+        private final AtomicLong pending = new AtomicLong(NONE);
+        private volatile boolean cancelled;
+
+        private Progress(Executor ui, Listener<?> listener) {
+            this.ui = ui;
+            this.listener = listener;
+        }
+
+        /**
+         * Method that tells whether the request was superseded or cancelled; long computations poll it.
+         * @return boolean representing whether the result will be discarded.
+         */
+        public boolean isCancelled() {
+            return cancelled || Thread.currentThread().isInterrupted();
+        }
+
+        /**
+         * Method that stops a computation whose request was superseded or cancelled.
+         * @throws CancellationException if the result will be discarded.
+         */
+        public void checkCancelled() {
+            if (isCancelled()) {
+                throw new CancellationException();
+            }
+        }
+
+        /**
+         * Method that reports the completed fraction of the computation to the listener.
+         * @param fraction double representing the completed fraction between 0 and 1.
+         */
+        public void update(double fraction) {
+            if (cancelled) {
+                return;
+            }
+            long previous = pending.getAndSet(Double.doubleToRawLongBits(Math.max(0, Math.min(1, fraction))));
+            if (previous == NONE) {
+                ui.execute(this::deliver);
+            }
+        }
+
+        private void deliver() {
+            long bits = pending.getAndSet(NONE);
+            if (bits != NONE && !cancelled) {
+                listener.progress(Double.longBitsToDouble(bits));
+            }
+        }
+    }
+
+    /**
+     * Request class holding one submission from scheduling to delivery.
+     */
+    private final class Request<T> {
+        private final String key;
+        private final Computation<T> computation;
+        private final Listener<T> listener;
+        private final Progress progress;
+        private volatile Future<?> future;
+
+        Request(String key, Computation<T> computation, Listener<T> listener) {
+            this.key = key;
+            this.computation = computation;
+            this.listener = listener;
+            this.progress = new Progress(ui, listener);
+        }
+
+        void start(Future<?> scheduled) {
+            future = scheduled;
+            if (progress.cancelled) {
+                scheduled.cancel(true); // superseded before its future was known
+            }
+        }
+
+        void cancel() {
+            progress.cancelled = true;
+            Future<?> scheduled = future;
+            if (scheduled != null) {
+                scheduled.cancel(true);
+            }
+        }
+
+        void run() {
+            if (progress.cancelled) {
+                return;
+            }
+            try {
+                T result = computation.compute(progress);
+                ui.execute(() -> {
+                    if (!progress.cancelled && current.remove(key, this)) {
+                        listener.done(result);
+                    }
+                });
+            } catch (CancellationException | InterruptedException e) {
+                // superseded; the newer request reports instead
+            } catch (Exception e) {
+                ui.execute(() -> {
+                    if (!progress.cancelled && current.remove(key, this)) {
+                        errorHandler.accept(e);
+                    }
+                });
+            }
+        }
+    }
+}
@@ -1,5 +1,16 @@
 package com.example.efieldgen;
 
+import com.example.efieldgen.batch.BatchCli;
+import com.example.efieldgen.problem.Problem;
+import com.example.efieldgen.problem.ProblemCli;
+import com.example.efieldgen.problem.ProblemSpace;
+import com.example.efieldgen.server.GradingServer;
+import com.example.efieldgen.session.AttemptLog;
+import com.example.efieldgen.session.Session;
+import com.example.efieldgen.session.SessionStore;
+import com.example.efieldgen.solver.BatchFieldSolver;
+import com.example.efieldgen.solver.FieldSolver;
+import com.example.efieldgen.solver.FieldSource;
 import javafx.application.Application;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -11,6 +22,16 @@ import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Supplier;
+
 /**
  * FieldGen class that constructs a GUI for calculating the electric field at different paints in space based
  * on different charge configurations. Users can either generate practice problems of their own or input data
@@ -24,78 +45,174 @@ import javafx.stage.Stage;
 public class FieldGen extends Application {
 
     /**
-     * Main method for launching FieldGen GUI program.
-     * @param args String arguments that are run for GUI launch.
+     * Main method for launching FieldGen GUI program, the headless batch mode when the first argument is
+     * {@code --batch}, the bulk problem generator when it is {@code --generate}, or the grading service when it is
+     * {@code --serve}.
+     * @param args String arguments that are run for GUI launch, or {@code --batch} followed by BatchCli arguments,
+     * {@code --generate} followed by ProblemCli arguments, or {@code --serve} followed by GradingServer arguments.
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchCli.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--generate")) {
+            ProblemCli.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--serve")) {
+            GradingServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         launch(args);
     }
 
     /**
-     * Integers below are defined for problem generation. Only integers are given to simplify
-     * the questions the user is tasked with answering.
+     * Practice sessions by id. This window uses one session, which deals problems the user has not seen yet and
+     * keeps the problem posed and the score; the inputs and answers of each scene stay local to the scene.
      */
-    private int charge;
-    private int radius;
-    private int xCoord;
-    private int yCoord;
-    private int thickness;
+    private final SessionStore sessions = new SessionStore(16, Duration.ofDays(1));
+    private final String sessionId = UUID.randomUUID().toString();
+    private final SplittableRandom random = new SplittableRandom();
+    private AttemptLog attemptLog; // graded answers of this user, or null when the log cannot be opened
 
     /**
-     * Scenes defined for GUI. genProblemScene and calculatorInputScene are multi-use and defined in different
-     * ways depending on the charge configuration chosen by the user.
+     * Calculations run on background threads so the window never waits for them. Each calculator submits its
+     * answer under "calculator" and its live preview under "preview", so a newer input supersedes an older one.
      */
-    private Scene openingScene; // welcome scene
-    private Scene solveOrGenerateScene; // choose to solve or generate
-    private Scene chooseChargeScene; // choose configuration
-    private Scene genProblemScene; // randomly generate problem for a configuration
-    private Scene correctScene; // correct screen -- prompt to return to scene 2
-    private Scene calculatorInputScene; // configuration charge calculator
-    private Scene solutionScene; // solution scene for pt charge
-    private Scene slabSolutionScene; // solution scene for slab calculator
+    private static final long PREVIEW_DELAY_MILLIS = 150; // pause in typing before the preview is recomputed
+    private final ComputeService compute = new ComputeService(e -> AlertBox.display("Calculation error!",
+            "The electric field could not be computed: " + e.getMessage()));
 
     /**
-     * Double variables below are defined for calculating answers based on user inputs. Users are allowed to
-     * input doubles and receive double answers.
+     * Scenes defined for GUI, each built the first time it is shown and reused afterwards: the opening, solve or
+     * generate and correct scenes, a configuration chooser for each choice, and a calculator and a problem scene per
+     * configuration. Problem scenes and the solution scene are rebound to the problem or answer they show.
      */
-    private double answer;
-    private double xValue;
-    private double yValue;
-    private double thickValue;
-    private double radiusValue;
-    private double chargeValue;
+    private final Map<String, Scene> scenes = new HashMap<>();
+    private final Map<ChargeType, ProblemView> problemViews = new EnumMap<>(ChargeType.class);
+    private Text solutionText; // answer shown by the solution scene
+    private FieldSource solutionSource; // configuration of the answer shown by the solution scene
+    private double solutionExtent; // distance from the origin to the edge of its field map
+    private Scene fieldMapScene; // heatmap of the field for the last calculator input
+    private FieldMapView fieldMapView; // renders fieldMapScene, disposed when replaced
+    private NavigationProfiler profiler; // reports time to frame when started with --profile, otherwise null
 
     /**
-     * Supplementary variables for mapping out which scene to invoke using user input.
+     * ProblemView class holding the nodes of a problem scene that change with the problem posed.
      */
-    private boolean createProblem;
-    private ChargeType chargeType;
+    private static final class ProblemView {
+        private final Text text;
+        private final TextField answerField;
+        private Problem problem;
+
+        ProblemView(Text text, TextField answerField) {
+            this.text = text;
+            this.answerField = answerField;
+        }
+    }
 
     @Override
     public void start(Stage primaryStage) {
-        // Create opening scene
-        createOpeningScene(primaryStage);
-
-        // Choose to solve or generate problem
-        createSolveOrGenerateScene(primaryStage);
+        if (getParameters().getRaw().contains("--profile")) {
+            profiler = new NavigationProfiler(System.out);
+        }
 
-        // Choose charge config.
-        createChooseConfigScene(primaryStage);
+        // Keep the graded answers of this user
+        openAttemptLog();
 
-        // Create scene 5 for correct answer
-        createCorrectScene(primaryStage);
-
-        // Set initial scene and show the stage
-        primaryStage.setScene(openingScene);
+        // Show the opening scene; every other scene is built when it is first shown
+        showOpening(primaryStage);
         primaryStage.setTitle("FieldGen");
         primaryStage.show();
     }
 
+    /**
+     * Method that shows a scene, building it the first time it is shown and reusing it afterwards.
+     * @param primaryStage Stage object that defines the program window.
+     * @param name String naming the scene in the cache and in profiling reports.
+     * @param build Supplier that builds the scene.
+     */
+    private void show(Stage primaryStage, String name, Supplier<Scene> build) {
+        long start = System.nanoTime();
+        Scene scene = scenes.get(name);
+        boolean built = scene == null;
+        if (built) {
+            scene = build.get();
+            scenes.put(name, scene);
+        }
+        primaryStage.setScene(scene);
+        if (profiler != null) {
+            profiler.navigated(name, scene, start, built);
+        }
+    }
+
+    private void showOpening(Stage primaryStage) {
+        show(primaryStage, "opening", () -> createOpeningScene(primaryStage));
+    }
+
+    private void showSolveOrGenerate(Stage primaryStage) {
+        show(primaryStage, "solveOrGenerate", () -> createSolveOrGenerateScene(primaryStage));
+    }
+
+    private void showCorrect(Stage primaryStage) {
+        show(primaryStage, "correct", () -> createCorrectScene(primaryStage));
+    }
+
+    /**
+     * Method that shows the configuration chooser for generating problems or for the calculators.
+     * @param primaryStage Stage object that defines the program window.
+     * @param createProblem boolean representing whether to generate a problem or open a calculator.
+     */
+    private void showChooser(Stage primaryStage, boolean createProblem) {
+        show(primaryStage, createProblem ? "choose.problem" : "choose.calculator",
+                () -> createChooseConfigScene(primaryStage, createProblem));
+    }
+
+    /**
+     * Method that shows the calculator of a configuration.
+     * @param primaryStage Stage object that defines the program window.
+     * @param type ChargeType of the configuration.
+     */
+    private void showCalculator(Stage primaryStage, ChargeType type) {
+        show(primaryStage, "calculator." + type, () -> {
+            switch (type) {
+                case POINTCHARGE:
+                    return createPtCalculatorInputScene(primaryStage);
+                case HOLLOWSPHERE:
+                    return createHollowSphereCalculatorInputScene(primaryStage);
+                case SOLIDSPHERE:
+                    return createSolidSphereCalculatorInputScene(primaryStage);
+                case INFINITELINE:
+                    return createInfiniteLineCalculatorInputScene(primaryStage);
+                case INFINITESLAB:
+                    return createInfiniteSlabCalculatorInputScene(primaryStage);
+                default:
+                    throw new IllegalArgumentException("Unsupported charge type: " + type);
+            }
+        });
+    }
+
+    /**
+     * Method that deals a new problem of a configuration and shows it in the configuration's problem scene.
+     * @param primaryStage Stage object that defines the program window.
+     * @param type ChargeType of the configuration to practice.
+     */
+    private void showProblem(Stage primaryStage, ChargeType type) {
+        Problem problem = nextProblem(type);
+        show(primaryStage, "problem." + type, () -> createProblemScene(primaryStage, type));
+        ProblemView view = problemViews.get(type);
+        view.problem = problem;
+        view.text.setText(describe(problem));
+        view.answerField.clear();
+    }
+
     /**
      * Method that prompts the user to choose which electric configuration to examine the resulting E-field of.
      * @param primaryStage Stage object that defines the program window.
+     * @param createProblem boolean representing whether to generate a problem or open a calculator.
      */
-    private void createChooseConfigScene(Stage primaryStage) {
+    private Scene createChooseConfigScene(Stage primaryStage, boolean createProblem) {
         Text chooseConfig = new Text("What type of source charge configuration would you like to examine?");
         chooseConfig.setTextAlignment(TextAlignment.CENTER);
         chooseConfig.setWrappingWidth(250);
@@ -103,83 +220,68 @@ public class FieldGen extends Application {
         //POINT CHARGE is selected!
         Button pointChargeButton = new Button("Point Charge");
         pointChargeButton.setOnAction(e -> {
-            chargeType = ChargeType.POINTCHARGE;
             if (createProblem) {
-                createPtChargeProblem(primaryStage);
-                primaryStage.setScene(genProblemScene);
+                showProblem(primaryStage, ChargeType.POINTCHARGE);
             } else {
-                createPtCalculatorInputScene(primaryStage);
-                primaryStage.setScene(calculatorInputScene);
+                showCalculator(primaryStage, ChargeType.POINTCHARGE);
             }
         });
 
         //HOLLOW SPHERE is selected!
         Button hollowSphereButton = new Button("Charged Hollow Sphere");
         hollowSphereButton.setOnAction(e -> {
-            chargeType = ChargeType.HOLLOWSPHERE;
             if (createProblem) {
-                createHollowSphereProblem(primaryStage);
-                primaryStage.setScene(genProblemScene);
+                showProblem(primaryStage, ChargeType.HOLLOWSPHERE);
             } else {
-                createHollowSphereCalculatorInputScene(primaryStage);
-                primaryStage.setScene(calculatorInputScene);
+                showCalculator(primaryStage, ChargeType.HOLLOWSPHERE);
             }
         });
 
         //SOLID SPHERE is selected!
         Button solidSphereButton = new Button("Charged Solid Sphere");
         solidSphereButton.setOnAction(e -> {
-            chargeType = ChargeType.SOLIDSPHERE;
             if (createProblem) {
-                createSolidSphereProblem(primaryStage);
-                primaryStage.setScene(genProblemScene);
+                showProblem(primaryStage, ChargeType.SOLIDSPHERE);
             } else {
-                createSolidSphereCalculatorInputScene(primaryStage);
-                primaryStage.setScene(calculatorInputScene);
+                showCalculator(primaryStage, ChargeType.SOLIDSPHERE);
             }
         });
 
         //INFINITE LINE is selected!
         Button infiniteLineButton = new Button("Infinite Line of Charge");
         infiniteLineButton.setOnAction(e -> {
-            chargeType = ChargeType.INFINITELINE;
             if (createProblem) {
-                createInfiniteLineProblem(primaryStage);
-                primaryStage.setScene(genProblemScene);
+                showProblem(primaryStage, ChargeType.INFINITELINE);
             } else {
-                createInfiniteLineCalculatorInputScene(primaryStage);
-                primaryStage.setScene(calculatorInputScene);
+                showCalculator(primaryStage, ChargeType.INFINITELINE);
             }
         });
 
         //INFINITE SLAB is selected!
         Button infiniteSlabButton = new Button("Infinite Slab of Charge");
         infiniteSlabButton.setOnAction(e -> {
-            chargeType = ChargeType.INFINITESLAB;
             if (createProblem) {
-                createInfiniteSlabProblem(primaryStage);
-                primaryStage.setScene(genProblemScene);
+                showProblem(primaryStage, ChargeType.INFINITESLAB);
             } else {
-                createInfiniteSlabCalculatorInputScene(primaryStage);
-                primaryStage.setScene(calculatorInputScene);
+                showCalculator(primaryStage, ChargeType.INFINITESLAB);
             }
         });
 
         Button backButton = new Button("Back");
-        backButton.setOnAction(e -> primaryStage.setScene(solveOrGenerateScene));
+        backButton.setOnAction(e -> showSolveOrGenerate(primaryStage));
 
         VBox layout3 = new VBox(10);
         layout3.setAlignment(Pos.CENTER);
         layout3.getChildren().addAll(chooseConfig, pointChargeButton, hollowSphereButton, solidSphereButton,
                 infiniteLineButton, infiniteSlabButton, backButton);
-        chooseChargeScene = new Scene(layout3, 300, 300);
+        return new Scene(layout3, 300, 300);
     }
 
     /**
      * Method that creates a calculator scene for the INFINITE SLAB configuration.
      * @param primaryStage Stage object that defines the program window.
      */
-    private void createInfiniteSlabCalculatorInputScene(Stage primaryStage) {
+    private Scene createInfiniteSlabCalculatorInputScene(Stage primaryStage) {
         Text ptCalcText = new Text("Assume that the infinite slab is spread across the x and z-axis and has a"
                 + "uniform surface charge density. Please input the uniform surface charge density in nC/m^2, the"
                 + "thickness of the slab, and the perpendicular distance away from the slab at which the electric"
@@ -202,30 +304,32 @@ public class FieldGen extends Application {
         TextField xValueField = new TextField();
         xValueField.setMaxWidth(150);
 
+        Label previewLabel = new Label();
+        Supplier<ComputeService.Computation<Double>> field = () -> {
+            double xValue = Double.parseDouble(xValueField.getText());
+            double chargeValue = Double.parseDouble(chargeValueField.getText());
+            double thickValue = Double.parseDouble(thickValueField.getText());
+            return progress -> FieldSolver.infiniteSlab(xValue, chargeValue, thickValue);
+        };
+        livePreview(previewLabel, field, xValueField, chargeValueField, thickValueField);
+
         Button submitButton = new Button("Submit");
 
         Button backButton = new Button("Back");
-        backButton.setOnAction(e -> primaryStage.setScene(chooseChargeScene));
+        backButton.setOnAction(e -> showChooser(primaryStage, false));
 
         submitButton.setOnAction(e -> {
             try {
-                xValue = Double.parseDouble(xValueField.getText());
-                chargeValue = Double.parseDouble(chargeValueField.getText());
-                thickValue = Double.parseDouble(thickValueField.getText());
-
-                if (thickValue / 2 <= xValue) {
-                    answer = chargeValue * Math.pow(10, -9) / (2 * 8.854187817 * Math.pow(10, -12));
-                } else {
-                    answer = chargeValue * Math.pow(10, -9) / (2 * 8.854187817 * Math.pow(10, -12)) * (xValue
-                            / (thickValue / 2));
-                }
-
-                xValueField.clear();
-                chargeValueField.clear();
-                thickValueField.clear();
-                createSlabSolutionScene(primaryStage);
-                primaryStage.setScene(slabSolutionScene);
-
+                double xValue = Double.parseDouble(xValueField.getText());
+                double chargeValue = Double.parseDouble(chargeValueField.getText());
+                double thickValue = Double.parseDouble(thickValueField.getText());
+                solve(field.get(), answer -> {
+                    xValueField.clear();
+                    chargeValueField.clear();
+                    thickValueField.clear();
+                    createSlabSolutionScene(primaryStage, xValue, chargeValue, thickValue, answer);
+                    primaryStage.setScene(slabSolutionScene);
+                });
             } catch (NumberFormatException n) {
                 AlertBox.display("Number parsing error!", "Inputs must be a number. Please try again.");
             }
@@ -233,9 +337,9 @@ public class FieldGen extends Application {
 
         VBox layout6 = new VBox(10);
         layout6.getChildren().addAll(ptCalcText, label1, chargeValueField, label2, thickValueField, label3,
-                xValueField, submitButton, backButton);
+                xValueField, previewLabel, submitButton, backButton);
         layout6.setAlignment(Pos.CENTER);
-        calculatorInputScene = new Scene(layout6, 300, 400);
+        return new Scene(layout6, 300, 400);
     }
 
     /**
@@ -243,14 +347,12 @@ public class FieldGen extends Application {
      * @param primaryStage Stage object that defines the program window.
      */
     private void createInfiniteSlabProblem(Stage primaryStage) {
-        thickness = (int) (Math.random() * 11) + 1;
-        charge = (int) (Math.random() * 21 - 10);
-        xCoord = (int) (Math.random() * 21 - 10);
+        Problem problem = nextProblem(ChargeType.INFINITESLAB);
         // Create scene 4 to generate random problem for point charge
         Text probText = new Text(String.format("There is an infinite slab of charge with thickness %dm on the x and "
                 + "z-axis with a surface charge density of η = %d nC/m^2. Find the electric field due to this slab of "
                 + "charge at a point in space %d meter(s) away perpendicular to the line of charge. \nPlease input "
-                + "your answer in coulombs to two decimals.", thickness, charge, xCoord));
+                + "your answer in coulombs to two decimals.", problem.getSize(), problem.getCharge(), problem.getX()));
         probText.setTextAlignment(TextAlignment.CENTER);
         probText.setWrappingWidth(250);
 
@@ -262,16 +364,7 @@ public class FieldGen extends Application {
             double userAnswer;
             try {
                 userAnswer = Double.parseDouble(answerField.getText());
-                double answer1;
-                if ((double) thickness / 2 <= xValue) {
-                    answer1 = charge * Math.pow(10, -9) / (2 * 8.854187817 * Math.pow(10, -12));
-                } else {
-                    answer1 = charge * Math.pow(10, -9) / (2 * 8.854187817 * Math.pow(10, -12))
-                            * (xCoord / ((double) thickness / 2));
-                }
-                answer1 = Math.round(answer1 * 100.0) / 100.0;
-                System.out.println(answer1);
-                boolean isAnswerCorrect = Math.abs(userAnswer - answer1) <= .1;
+                boolean isAnswerCorrect = gradeAnswer(problem, userAnswer);
                 if (isAnswerCorrect) {
                     primaryStage.setScene(correctScene);
                     answerField.clear();
@@ -282,7 +375,7 @@ public class FieldGen extends Application {
         });
 
         Button backButton = new Button("Back");
-        backButton.setOnAction(e -> primaryStage.setScene(chooseChargeScene));
+        backButton.setOnAction(e -> showChooser(primaryStage, false));
 
         VBox layout4 = new VBox(10);
         layout4.setAlignment(Pos.CENTER);
@@ -294,7 +387,7 @@ public class FieldGen extends Application {
      * Method that creates a calculator scene for the INFINITE LINE configuration.
      * @param primaryStage Stage object that defines the program window.
      */
-    private void createInfiniteLineCalculatorInputScene(Stage primaryStage) {
+    private Scene createInfiniteLineCalculatorInputScene(Stage primaryStage) {
         Text ptCalcText = new Text("Assume that the infinite line of charge is running across the x-axis of "
                 + "a coordinate system. Please input the linear charge density in nC/m and the perpendicular distance"
                 + "between the infinite line of charge and the point at which you desire to find the electric field "
@@ -312,43 +405,49 @@ public class FieldGen extends Application {
         TextField chargeValueField = new TextField();
         chargeValueField.setMaxWidth(150);
 
+        Label previewLabel = new Label();
+        Supplier<ComputeService.Computation<Double>> field = () -> {
+            double xValue = Double.parseDouble(xValueField.getText());
+            double chargeValue = Double.parseDouble(chargeValueField.getText());
+            return progress -> FieldSolver.round(FieldSolver.infiniteLine(xValue, chargeValue));
+        };
+        livePreview(previewLabel, field, xValueField, chargeValueField);
+
         Button submitButton = new Button("Submit");
 
         submitButton.setOnAction(e -> {
             try {
-                xValue = Double.parseDouble(xValueField.getText());
-                chargeValue = Double.parseDouble(chargeValueField.getText());
-
-                answer = (2 * 8.99 * chargeValue / xValue);
-                answer = Math.round(answer * 100.0) / 100.0;
-                System.out.println(answer);
-
-                xValueField.clear();
-                chargeValueField.clear();
-                createLineSolutionScene(primaryStage);
-
-                primaryStage.setScene(solutionScene);
-
+                double xValue = Double.parseDouble(xValueField.getText());
+                double chargeValue = Double.parseDouble(chargeValueField.getText());
+                solve(field.get(), answer -> {
+                    xValueField.clear();
+                    chargeValueField.clear();
+                    createLineSolutionScene(primaryStage, xValue, chargeValue, answer);
+                    primaryStage.setScene(solutionScene);
+                });
             } catch (NumberFormatException n) {
                 AlertBox.display("Number parsing error!", "Inputs must be a number. Please try again.");
             }
         });
 
         Button backButton = new Button("Back");
-        backButton.setOnAction(e -> primaryStage.setScene(chooseChargeScene));
+        backButton.setOnAction(e -> showChooser(primaryStage, false));
 
         VBox layout6 = new VBox(10);
-        layout6.getChildren().addAll(ptCalcText, label1, xValueField, label2, chargeValueField, submitButton,
-                backButton);
+        layout6.getChildren().addAll(ptCalcText, label1, xValueField, label2, chargeValueField, previewLabel,
+                submitButton, backButton);
         layout6.setAlignment(Pos.CENTER);
-        calculatorInputScene = new Scene(layout6, 300, 350);
+        return new Scene(layout6, 300, 350);
     }
 
     /**
      * Method that creates a solution scene for the INFINITE LINE calculator.
      * @param primaryStage Stage object that defines the program window.
+     * @param xValue double representing the perpendicular distance from the line.
+     * @param chargeValue double representing the linear charge density.
+     * @param answer double representing the computed field.
      */
-    private void createLineSolutionScene(Stage primaryStage) {
+    private void createLineSolutionScene(Stage primaryStage, double xValue, double chargeValue, double answer) {
         Text answerMessage = new Text(String.format("The electric field induced at a perpendicular distance %.3f "
                         + "away from an infinite line of charge with a linear charge density of %.3f is %.4f.", xValue,
                 chargeValue, answer));
@@ -356,9 +455,15 @@ public class FieldGen extends Application {
         answerMessage.setTextAlignment(TextAlignment.CENTER);
         Button returnButton = new Button("Return to the start!");
         returnButton.setOnAction(n -> primaryStage.setScene(openingScene));
+        Button visualizeButton = new Button("Visualize field");
+        visualizeButton.setOnAction(n -> {
+            createFieldMapScene(primaryStage, new BatchFieldSolver(ChargeType.INFINITELINE, chargeValue, 0),
+                    Math.max(1, 1.5 * Math.abs(xValue)), solutionScene);
+            primaryStage.setScene(fieldMapScene);
+        });
         VBox layout7 = new VBox(10);
 
-        layout7.getChildren().addAll(answerMessage, returnButton);
+        layout7.getChildren().addAll(answerMessage, visualizeButton, returnButton);
         layout7.setAlignment(Pos.CENTER);
         solutionScene = new Scene(layout7, 300, 250);
     }
@@ -366,8 +471,13 @@ public class FieldGen extends Application {
     /**
      * Method that creates a solution scene for the INFINITE SLAB calculator.
      * @param primaryStage Stage object that defines the program window.
+     * @param xValue double representing the perpendicular distance from the slab.
+     * @param chargeValue double representing the surface charge density.
+     * @param thickValue double representing the thickness of the slab.
+     * @param answer double representing the computed field.
      */
-    private void createSlabSolutionScene(Stage primaryStage) {
+    private void createSlabSolutionScene(Stage primaryStage, double xValue, double chargeValue, double thickValue,
+            double answer) {
         Text answerMessage = new Text(String.format("The electric field induced at a perpendicular distance %.3f "
                 + "meters away from an infinite slab of charge with a thickness of %.2f m and a surface charge "
                 + "density of %.3f nC/m^3 is %.4f.", xValue, thickValue, chargeValue, answer));
@@ -375,8 +485,14 @@ public class FieldGen extends Application {
         answerMessage.setTextAlignment(TextAlignment.CENTER);
         Button returnButton = new Button("Return to the start!");
         returnButton.setOnAction(n -> primaryStage.setScene(openingScene));
+        Button visualizeButton = new Button("Visualize field");
+        visualizeButton.setOnAction(n -> {
+            createFieldMapScene(primaryStage, new BatchFieldSolver(ChargeType.INFINITESLAB, chargeValue, thickValue),
+                    Math.max(1, 1.5 * Math.max(Math.abs(xValue), thickValue)), slabSolutionScene);
+            primaryStage.setScene(fieldMapScene);
+        });
         VBox layout7 = new VBox(10);
-        layout7.getChildren().addAll(answerMessage, returnButton);
+        layout7.getChildren().addAll(answerMessage, visualizeButton, returnButton);
         layout7.setAlignment(Pos.CENTER);
         slabSolutionScene = new Scene(layout7, 300, 250);
     }
@@ -386,13 +502,12 @@ public class FieldGen extends Application {
      * @param primaryStage Stage object that defines the program window.
      */
     private void createInfiniteLineProblem(Stage primaryStage) {
-        radius = (int) (Math.random() * 11) + 1;
-        charge = (int) (Math.random() * 21 - 10);
+        Problem problem = nextProblem(ChargeType.INFINITELINE);
         // Create scene 4 to generate random problem for point charge
         Text probText = new Text(String.format("There is an infinite line of charge on the x-axis with a linear "
                 + "charge density of λ = %d nC/m. Find the electric field due to this line of charge at a point in "
                 + "space %d meter(s) away perpendicular to the line of charge. \nPlease input your answer in coulombs "
-                + "to two decimals.", charge, radius));
+                + "to two decimals.", problem.getCharge(), problem.getX()));
         probText.setTextAlignment(TextAlignment.CENTER);
         probText.setWrappingWidth(250);
 
@@ -400,17 +515,14 @@ public class FieldGen extends Application {
         answerField.setMaxWidth(150);
 
         Button backButton = new Button("Back");
-        backButton.setOnAction(e -> primaryStage.setScene(chooseChargeScene));
+        backButton.setOnAction(e -> showChooser(primaryStage, false));
 
         Button submitAns = new Button("Submit");
         submitAns.setOnAction(e1 -> {
             double userAnswer;
             try {
                 userAnswer = Double.parseDouble(answerField.getText());
-                double answer1 = (2 * 8.99 * charge / radius);
-                answer1 = Math.round(answer1 * 100.0) / 100.0;
-                System.out.println(answer1);
-                boolean isAnswerCorrect = Math.abs(userAnswer - answer1) <= .1;
+                boolean isAnswerCorrect = gradeAnswer(problem, userAnswer);
                 if (isAnswerCorrect) {
                     primaryStage.setScene(correctScene);
                     answerField.clear();
@@ -430,7 +542,7 @@ public class FieldGen extends Application {
      * Method that creates a calculator scene for the SOLID SPHERE configuration.
      * @param primaryStage Stage object that defines the program window.
      */
-    private void createSolidSphereCalculatorInputScene(Stage primaryStage) {
+    private Scene createSolidSphereCalculatorInputScene(Stage primaryStage) {
         Text ptCalcText = new Text("Assume that the charged solid sphere is centered at the origin of your "
                 + "coordinate system. Please define your x value and y value for the point in space you'd like to "
                 + "determine the E-field for. Also provide the uniform total charge of the charged sphere in "
@@ -459,42 +571,47 @@ public class FieldGen extends Application {
         TextField radiusValueField = new TextField();
         radiusValueField.setMaxWidth(150);
 
+        Label previewLabel = new Label();
+        Supplier<ComputeService.Computation<Double>> field = () -> {
+            double xValue = Double.parseDouble(xValueField.getText());
+            double yValue = Double.parseDouble(yValueField.getText());
+            double chargeValue = Double.parseDouble(chargeValueField.getText());
+            double radiusValue = Double.parseDouble(radiusValueField.getText());
+            return progress -> FieldSolver.round(FieldSolver.solidSphere(
+                    FieldSolver.distanceFormula(xValue, yValue), chargeValue, radiusValue));
+        };
+        livePreview(previewLabel, field, xValueField, yValueField, chargeValueField, radiusValueField);
+
         Button submitButton = new Button("Submit");
 
         submitButton.setOnAction(e -> {
             try {
-                xValue = Double.parseDouble(xValueField.getText());
-                yValue = Double.parseDouble(yValueField.getText());
-                chargeValue = Double.parseDouble(chargeValueField.getText());
-                radiusValue = Double.parseDouble(radiusValueField.getText());
-                if (distanceFormula(xValue, yValue) >= radiusValue) {
-                    answer = pointFieldSolver(distanceFormula(xValue, yValue), chargeValue);
-                } else {
-                    answer = (8.99 * Math.pow(10, 9)) * charge * distanceFormula(xCoord, yCoord)
-                            / (Math.pow(radius, 3));
-                    answer = (double) Math.round(answer * 1000.0) / 1000;
-                }
-                xValueField.clear();
-                yValueField.clear();
-                chargeValueField.clear();
-                radiusValueField.clear();
-                createSolutionScene(primaryStage);
-
-                primaryStage.setScene(solutionScene);
-
+                double xValue = Double.parseDouble(xValueField.getText());
+                double yValue = Double.parseDouble(yValueField.getText());
+                double chargeValue = Double.parseDouble(chargeValueField.getText());
+                double radiusValue = Double.parseDouble(radiusValueField.getText());
+                solve(field.get(), answer -> {
+                    xValueField.clear();
+                    yValueField.clear();
+                    chargeValueField.clear();
+                    radiusValueField.clear();
+                    createSolutionScene(primaryStage, ChargeType.SOLIDSPHERE, xValue, yValue, chargeValue, radiusValue,
+                            answer);
+                    primaryStage.setScene(solutionScene);
+                });
             } catch (NumberFormatException n) {
                 AlertBox.display("Number parsing error!", "Inputs must be a number. Please try again.");
             }
         });
 
         Button backButton = new Button("Back");
-        backButton.setOnAction(e -> primaryStage.setScene(chooseChargeScene));
+        backButton.setOnAction(e -> showChooser(primaryStage, false));
 
         VBox layout6 = new VBox(10);
         layout6.getChildren().addAll(ptCalcText, label1, xValueField, label2, yValueField, label3, chargeValueField,
-                label4, radiusValueField, submitButton, backButton);
+                label4, radiusValueField, previewLabel, submitButton, backButton);
         layout6.setAlignment(Pos.CENTER);
-        calculatorInputScene = new Scene(layout6, 300, 500);
+        return new Scene(layout6, 300, 500);
     }
 
     /**
@@ -502,14 +619,12 @@ public class FieldGen extends Application {
      * @param primaryStage Stage object that defines the program window.
      */
     private void createPtChargeProblem(Stage primaryStage) {
-        xCoord = (int) (Math.random() * 21 - 10);
-        yCoord = (int) (Math.random() * 21 - 10);
-        charge = (int) (Math.random() * 21 - 10);
+        Problem problem = nextProblem(ChargeType.POINTCHARGE);
         // Create scene 4 to generate random problem for point charge
         Text probText = new Text(String.format("Assume the point charge is located at the origin of a "
                 + "coordinate system with a charge of %d nC. Find the resulting electric field due to "
                 + "this point charge at the point (%d, %d).\nPlease input your answer in coulombs to two "
-                + "decimals.", charge, xCoord, yCoord));
+                + "decimals.", problem.getCharge(), problem.getX(), problem.getY()));
         probText.setTextAlignment(TextAlignment.CENTER);
         probText.setWrappingWidth(250);
 
@@ -521,9 +636,7 @@ public class FieldGen extends Application {
             double userAnswer;
             try {
                 userAnswer = Double.parseDouble(answerField.getText());
-                double answer1 = pointFieldSolver(distanceFormula(xCoord, yCoord), charge);
-                System.out.println(answer1);
-                boolean isAnswerCorrect = Math.abs(userAnswer - answer1) <= .1;
+                boolean isAnswerCorrect = gradeAnswer(problem, userAnswer);
                 if (isAnswerCorrect) {
                     primaryStage.setScene(correctScene);
                     answerField.clear();
@@ -534,7 +647,7 @@ public class FieldGen extends Application {
         });
 
         Button backButton = new Button("Back");
-        backButton.setOnAction(e -> primaryStage.setScene(chooseChargeScene));
+        backButton.setOnAction(e -> showChooser(primaryStage, false));
 
         VBox layout4 = new VBox(10);
         layout4.setAlignment(Pos.CENTER);
@@ -547,16 +660,13 @@ public class FieldGen extends Application {
      * @param primaryStage Stage object that defines the program window.
      */
     private void createHollowSphereProblem(Stage primaryStage) {
-        xCoord = (int) (Math.random() * 21 - 10);
-        yCoord = (int) (Math.random() * 21 - 10);
-        radius = (int) (Math.random() * 5 + 1);
-        charge = (int) (Math.random() * 21 - 10);
+        Problem problem = nextProblem(ChargeType.HOLLOWSPHERE);
         // Create scene8 to generate random problem for hollow spherical charge
         Text probText = new Text(String.format("Assume a hollow spherical charge with a radius of %d is located at "
                 + "the origin of a coordinate system with a charge of %d nC. The charge is uniformly distributed "
                 + "amongst the thin spherical shell. Find the resulting electric field due to this infinitely thin "
                 + "spherical shell at the point (%d, %d).\nPlease input your answer in coulombs to two decimals.",
-                radius, charge, xCoord, yCoord));
+                problem.getSize(), problem.getCharge(), problem.getX(), problem.getY()));
         probText.setTextAlignment(TextAlignment.CENTER);
         probText.setWrappingWidth(250);
 
@@ -568,13 +678,7 @@ public class FieldGen extends Application {
             double userAnswer;
             try {
                 userAnswer = Double.parseDouble(answerField.getText());
-                if (distanceFormula(xCoord, yCoord) >= radius) {
-                    answer = pointFieldSolver(distanceFormula(xCoord, yCoord), charge);
-                } else {
-                    answer = 0;
-                }
-                System.out.println(answer);
-                boolean isAnswerCorrect = Math.abs(userAnswer - answer) <= .1;
+                boolean isAnswerCorrect = gradeAnswer(problem, userAnswer);
                 if (isAnswerCorrect) {
                     primaryStage.setScene(correctScene);
                     answerField.clear();
@@ -585,7 +689,7 @@ public class FieldGen extends Application {
         });
 
         Button backButton = new Button("Back");
-        backButton.setOnAction(e -> primaryStage.setScene(chooseChargeScene));
+        backButton.setOnAction(e -> showChooser(primaryStage, false));
 
         VBox layout4 = new VBox(10);
         layout4.setAlignment(Pos.CENTER);
@@ -598,16 +702,13 @@ public class FieldGen extends Application {
      * @param primaryStage Stage object that defines the program window.
      */
     private void createSolidSphereProblem(Stage primaryStage) {
-        xCoord = (int) (Math.random() * 21 - 10);
-        yCoord = (int) (Math.random() * 21 - 10);
-        radius = (int) (Math.random() * 5 + 1);
-        charge = (int) (Math.random() * 21 - 10);
+        Problem problem = nextProblem(ChargeType.SOLIDSPHERE);
 
         Text probText = new Text(String.format("Assume a solid spherical charge with a radius of %d is "
                 + "located at the origin of a coordinate system with a charge of %d nC. The sphere carries a "
                 + "uniform volume charge density. Find the resulting electric field due to this infinitely "
                 + "thin spherical shell at the point (%d, %d).\nPlease input your answer in coulombs to two "
-                + "decimals.", radius, charge, xCoord, yCoord));
+                + "decimals.", problem.getSize(), problem.getCharge(), problem.getX(), problem.getY()));
         probText.setTextAlignment(TextAlignment.CENTER);
         probText.setWrappingWidth(250);
 
@@ -619,15 +720,7 @@ public class FieldGen extends Application {
             double userAnswer;
             try {
                 userAnswer = Double.parseDouble(answerField.getText());
-                if (distanceFormula(xCoord, yCoord) >= radius) {
-                    answer = pointFieldSolver(distanceFormula(xCoord, yCoord), charge);
-                } else {
-                    answer = (8.99 * Math.pow(10, 9)) * charge * distanceFormula(xCoord, yCoord)
-                            / (Math.pow(radius, 3));
-                    answer = (double) Math.round(answer * 1000.0) / 1000;
-                }
-                System.out.println(answer);
-                boolean isAnswerCorrect = Math.abs(userAnswer - answer) <= .1;
+                boolean isAnswerCorrect = gradeAnswer(problem, userAnswer);
                 if (isAnswerCorrect) {
                     primaryStage.setScene(correctScene);
                     answerField.clear();
@@ -639,7 +732,7 @@ public class FieldGen extends Application {
         });
 
         Button backButton = new Button("Back");
-        backButton.setOnAction(e -> primaryStage.setScene(chooseChargeScene));
+        backButton.setOnAction(e -> showChooser(primaryStage, false));
 
         VBox layout4 = new VBox(10);
         layout4.setAlignment(Pos.CENTER);
@@ -647,18 +740,104 @@ public class FieldGen extends Application {
         genProblemScene = new Scene(layout4, 300, 250);
     }
 
+    /**
+     * Method that deals this window's session a problem it has not seen yet and records it as the one posed.
+     * @param type ChargeType of the configuration to practice.
+     * @return Problem to pose to the user.
+     */
+    private Problem nextProblem(ChargeType type) {
+        Session session = sessions.getOrCreate(sessionId);
+        Problem problem = ProblemSpace.problem(type, session.getSampler().next(type, random));
+        sessions.update(sessionId, current -> current.withProblem(problem));
+        return problem;
+    }
+
+    /**
+     * Method that grades an answer to a generated problem and records the attempt in this window's session.
+     * @param problem Problem the user answered.
+     * @param userAnswer double representing the answer given.
+     * @return boolean representing whether the answer is correct.
+     */
+    private boolean gradeAnswer(Problem problem, double userAnswer) {
+        boolean correct = problem.isCorrect(userAnswer);
+        sessions.getOrCreate(sessionId);
+        Session session = sessions.update(sessionId, current -> current.withAttempt(correct));
+        if (attemptLog != null) {
+            long latency = problem.equals(session.getProblem()) ? System.nanoTime() - session.getPostedNanos() : 0;
+            try {
+                attemptLog.append(System.getProperty("user.name"), problem, userAnswer, correct, latency);
+            } catch (IOException e) {
+                attemptLog = null; // keep practicing without a log
+            }
+        }
+        return correct;
+    }
+
+    /**
+     * Method that opens the attempt log in the user's home directory, leaving it off if that is not possible.
+     */
+    private void openAttemptLog() {
+        try {
+            Path directory = Paths.get(System.getProperty("user.home"), ".fieldgen");
+            Files.createDirectories(directory);
+            attemptLog = new AttemptLog(directory.resolve("attempts.efa"));
+        } catch (IOException | RuntimeException e) {
+            attemptLog = null;
+        }
+    }
+
+    /**
+     * Method that computes a calculator's answer off the JavaFX thread, superseding any answer still being computed.
+     * @param field Computation of the field for the submitted inputs.
+     * @param show Listener that shows the answer on the JavaFX thread.
+     */
+    private void solve(ComputeService.Computation<Double> field, ComputeService.Listener<Double> show) {
+        compute.cancel("preview");
+        compute.submit("calculator", 0, field, show);
+    }
+
+    /**
+     * Method that keeps a preview of a calculator's answer up to date while the user types. Edits are coalesced:
+     * the field is recomputed off the JavaFX thread once typing pauses for {@value #PREVIEW_DELAY_MILLIS} ms, and
+     * inputs that are not numbers yet clear the preview.
+     * @param preview Label showing the previewed field.
+     * @param field Supplier that parses the inputs into the Computation of the field, on the JavaFX thread.
+     * @param inputs TextField array of the inputs to watch.
+     */
+    private void livePreview(Label preview, Supplier<ComputeService.Computation<Double>> field, TextField... inputs) {
+        for (TextField input : inputs) {
+            input.textProperty().addListener((observable, before, after) -> {
+                try {
+                    compute.submit("preview", PREVIEW_DELAY_MILLIS, field.get(),
+                            value -> preview.setText(String.format("E = %.4f N/C", value)));
+                } catch (NumberFormatException n) {
+                    compute.cancel("preview");
+                    preview.setText("");
+                }
+            });
+        }
+    }
+
+    @Override
+    public void stop() throws IOException {
+        compute.shutdown();
+        if (attemptLog != null) {
+            attemptLog.close();
+        }
+    }
+
     /**
      * Method that creates the OPENING SCENE that launches upon start.
      * @param primaryStage Stage object that defines the program window.
      */
-    private void createOpeningScene(Stage primaryStage) {
+    private Scene createOpeningScene(Stage primaryStage) {
         Text startText = new Text("Welcome to FieldGen, a student-created platform for practicing "
                 + "Electricity & Magnetism practice problems!");
         startText.setTextAlignment(TextAlignment.CENTER);
         startText.setWrappingWidth(250);
 
         Button continueButton = new Button("Continue");
-        continueButton.setOnAction(e -> primaryStage.setScene(solveOrGenerateScene));
+        continueButton.setOnAction(e -> showSolveOrGenerate(primaryStage));
 
         Text authorText = new Text("\n\nDeveloped by Maheen Khan.\nWIP to support variable charge densities and "
                 + "magnetic field calculations.");
@@ -669,7 +848,7 @@ public class FieldGen extends Application {
         layout1.setAlignment(Pos.CENTER);
         layout1.getChildren().addAll(startText, continueButton, authorText);
 
-        openingScene = new Scene(layout1, 300, 250);
+        return new Scene(layout1, 300, 250);
     }
 
     /**
@@ -677,32 +856,26 @@ public class FieldGen extends Application {
      * an E-field problem.
      * @param primaryStage Stage object that defines the program window.
      */
-    private void createSolveOrGenerateScene(Stage primaryStage) {
+    private Scene createSolveOrGenerateScene(Stage primaryStage) {
         Text chooseType = new Text("Please choose whether you'd like to generate an e-field problem "
                 + "or solve an existing problem.");
         chooseType.setTextAlignment(TextAlignment.CENTER);
         chooseType.setWrappingWidth(250);
 
         Button generateButton = new Button("Generate Problem");
-        generateButton.setOnAction(e -> {
-            createProblem = true;
-            primaryStage.setScene(chooseChargeScene);
-        });
+        generateButton.setOnAction(e -> showChooser(primaryStage, true));
 
         Button solveButton = new Button("Solve Existing Problem");
-        solveButton.setOnAction(e -> {
-            createProblem = false;
-            primaryStage.setScene(chooseChargeScene);
-        });
+        solveButton.setOnAction(e -> showChooser(primaryStage, false));
 
         Button backButton = new Button("Back");
-        backButton.setOnAction(e -> primaryStage.setScene(openingScene));
+        backButton.setOnAction(e -> showOpening(primaryStage));
 
         VBox layout2 = new VBox(10);
         layout2.setAlignment(Pos.CENTER);
         layout2.getChildren().addAll(chooseType, generateButton, solveButton, backButton);
 
-        solveOrGenerateScene = new Scene(layout2, 300, 250);
+        return new Scene(layout2, 300, 250);
     }
 
     /**
@@ -710,21 +883,21 @@ public class FieldGen extends Application {
      * randomly generated problem.
      * @param primaryStage Stage object that defines the program window.
      */
-    private void createCorrectScene(Stage primaryStage) {
+    private Scene createCorrectScene(Stage primaryStage) {
         Text correctText = new Text("Great work, you've got it!");
         Button keepPracticing = new Button("Keep practicing!");
-        keepPracticing.setOnAction(e -> primaryStage.setScene(solveOrGenerateScene));
+        keepPracticing.setOnAction(e -> showSolveOrGenerate(primaryStage));
         VBox layout5 = new VBox(10);
         layout5.setAlignment(Pos.CENTER);
         layout5.getChildren().addAll(correctText, keepPracticing);
-        correctScene = new Scene(layout5, 300, 250);
+        return new Scene(layout5, 300, 250);
     }
 
     /**
      * Method that creates a calculator scene for the POINT CHARGE configuration.
      * @param primaryStage Stage object that defines the program window.
      */
-    private void createPtCalculatorInputScene(Stage primaryStage) {
+    private Scene createPtCalculatorInputScene(Stage primaryStage) {
         Text ptCalcText = new Text("Assume that the point charge is centered at the origin of your coordinate "
                 + "system. Please define your x value and y value for the point in space you'd like to determine the"
                 + " E-field for. Also provide the charge of the point charge in nanocoulombs.");
@@ -745,41 +918,52 @@ public class FieldGen extends Application {
         label3.setTextAlignment(TextAlignment.CENTER);
         TextField chargeValueField = new TextField();
         chargeValueField.setMaxWidth(150);
+        Label previewLabel = new Label();
+        Supplier<ComputeService.Computation<Double>> field = () -> {
+            double xValue = Double.parseDouble(xValueField.getText());
+            double yValue = Double.parseDouble(yValueField.getText());
+            double chargeValue = Double.parseDouble(chargeValueField.getText());
+            return progress -> FieldSolver.round(FieldSolver.pointFieldSolver(
+                    FieldSolver.distanceFormula(xValue, yValue), chargeValue));
+        };
+        livePreview(previewLabel, field, xValueField, yValueField, chargeValueField);
+
         Button submitButton = new Button("Submit");
 
         submitButton.setOnAction(e -> {
             try {
-                xValue = Double.parseDouble(xValueField.getText());
-                yValue = Double.parseDouble(yValueField.getText());
-                chargeValue = Double.parseDouble(chargeValueField.getText());
-                answer = pointFieldSolver(distanceFormula(xValue, yValue), chargeValue);
-                xValueField.clear();
-                yValueField.clear();
-                chargeValueField.clear();
-                createSolutionScene(primaryStage);
-                // call scene 7 with answer
-                primaryStage.setScene(solutionScene);
-
+                double xValue = Double.parseDouble(xValueField.getText());
+                double yValue = Double.parseDouble(yValueField.getText());
+                double chargeValue = Double.parseDouble(chargeValueField.getText());
+                solve(field.get(), answer -> {
+                    xValueField.clear();
+                    yValueField.clear();
+                    chargeValueField.clear();
+                    createSolutionScene(primaryStage, ChargeType.POINTCHARGE, xValue, yValue, chargeValue, 0,
+                            answer);
+                    // call scene 7 with answer
+                    primaryStage.setScene(solutionScene);
+                });
             } catch (NumberFormatException n) {
                 AlertBox.display("Number parsing error!", "Inputs must be a number. Please try again.");
             }
         });
 
         Button backButton = new Button("Back");
-        backButton.setOnAction(e -> primaryStage.setScene(chooseChargeScene));
+        backButton.setOnAction(e -> showChooser(primaryStage, false));
 
         VBox layout6 = new VBox(10);
         layout6.getChildren().addAll(ptCalcText, label1, xValueField, label2, yValueField, label3, chargeValueField,
-                submitButton, backButton);
+                previewLabel, submitButton, backButton);
         layout6.setAlignment(Pos.CENTER);
-        calculatorInputScene = new Scene(layout6, 300, 400);
+        return new Scene(layout6, 300, 400);
     }
 
     /**
      * Method that creates a calculator scene for the HOLLOW SPHERE configuration.
      * @param primaryStage Stage object that defines the program window.
      */
-    private void createHollowSphereCalculatorInputScene(Stage primaryStage) {
+    private Scene createHollowSphereCalculatorInputScene(Stage primaryStage) {
         Text ptCalcText = new Text("Assume that the charged thin spherical shell is centered at the origin of your "
                 + "coordinate system. Please define your x value and y value for the point in space you'd like to "
                 + "determine the E-field for. Also provide the uniform total charge of the spherical shell in "
@@ -807,40 +991,47 @@ public class FieldGen extends Application {
         TextField radiusValueField = new TextField();
         radiusValueField.setMaxWidth(150);
 
+        Label previewLabel = new Label();
+        Supplier<ComputeService.Computation<Double>> field = () -> {
+            double xValue = Double.parseDouble(xValueField.getText());
+            double yValue = Double.parseDouble(yValueField.getText());
+            double chargeValue = Double.parseDouble(chargeValueField.getText());
+            double radiusValue = Double.parseDouble(radiusValueField.getText());
+            return progress -> FieldSolver.round(FieldSolver.hollowSphere(
+                    FieldSolver.distanceFormula(xValue, yValue), chargeValue, radiusValue));
+        };
+        livePreview(previewLabel, field, xValueField, yValueField, chargeValueField, radiusValueField);
+
         Button submitButton = new Button("Submit");
 
         submitButton.setOnAction(e -> {
             try {
-                xValue = Double.parseDouble(xValueField.getText());
-                yValue = Double.parseDouble(yValueField.getText());
-                chargeValue = Double.parseDouble(chargeValueField.getText());
-                radiusValue = Double.parseDouble(radiusValueField.getText());
-                if (distanceFormula(xValue, yValue) >= radiusValue) {
-                    answer = pointFieldSolver(distanceFormula(xValue, yValue), chargeValue);
-                } else {
-                    answer = 0;
-                }
-                xValueField.clear();
-                yValueField.clear();
-                chargeValueField.clear();
-                radiusValueField.clear();
-                createSolutionScene(primaryStage);
-
-                primaryStage.setScene(solutionScene);
-
+                double xValue = Double.parseDouble(xValueField.getText());
+                double yValue = Double.parseDouble(yValueField.getText());
+                double chargeValue = Double.parseDouble(chargeValueField.getText());
+                double radiusValue = Double.parseDouble(radiusValueField.getText());
+                solve(field.get(), answer -> {
+                    xValueField.clear();
+                    yValueField.clear();
+                    chargeValueField.clear();
+                    radiusValueField.clear();
+                    createSolutionScene(primaryStage, ChargeType.HOLLOWSPHERE, xValue, yValue, chargeValue, radiusValue,
+                            answer);
+                    primaryStage.setScene(solutionScene);
+                });
             } catch (NumberFormatException n) {
                 AlertBox.display("Number parsing error!", "Inputs must be a number. Please try again.");
             }
         });
 
         Button backButton = new Button("Back");
-        backButton.setOnAction(e -> primaryStage.setScene(chooseChargeScene));
+        backButton.setOnAction(e -> showChooser(primaryStage, false));
 
         VBox layout6 = new VBox(10);
         layout6.getChildren().addAll(ptCalcText, label1, xValueField, label2, yValueField, label3, chargeValueField,
-                label4, radiusValueField, submitButton, backButton);
+                label4, radiusValueField, previewLabel, submitButton, backButton);
         layout6.setAlignment(Pos.CENTER);
-        calculatorInputScene = new Scene(layout6, 300, 450);
+        return new Scene(layout6, 300, 450);
 
     }
 
@@ -848,41 +1039,62 @@ public class FieldGen extends Application {
      * Method that creates a solution scene upon submission of inputs into the POINT CHARGE, HOLLOW SPHERE,
      * and SOLID SPHERE calculators.
      * @param primaryStage Stage object that defines the program window.
+     * @param chargeType ChargeType of the configuration solved.
+     * @param xValue double representing the x-coordinate of the point.
+     * @param yValue double representing the y-coordinate of the point.
+     * @param chargeValue double representing the charge.
+     * @param radiusValue double representing the radius of the sphere, or 0 for a point charge.
+     * @param answer double representing the computed field.
      */
-    private void createSolutionScene(Stage primaryStage) {
+    private void createSolutionScene(Stage primaryStage, ChargeType chargeType, double xValue, double yValue,
+            double chargeValue, double radiusValue, double answer) {
         Text answerMessage = new Text(String.format("The electric field induced at the point (%.2f, %.2f) by a "
                 + "%.2f coulomb charge located at the origin is: %.4f V/m.", xValue, yValue, chargeValue, answer));
         answerMessage.setWrappingWidth(250);
         answerMessage.setTextAlignment(TextAlignment.CENTER);
         Button returnButton = new Button("Return to the start!");
         returnButton.setOnAction(n -> primaryStage.setScene(openingScene));
+        Button visualizeButton = new Button("Visualize field");
+        visualizeButton.setOnAction(n -> {
+            double extent = Math.max(1, 1.5 * Math.max(FieldSolver.distanceFormula(xValue, yValue), radiusValue));
+            createFieldMapScene(primaryStage, new BatchFieldSolver(chargeType, chargeValue, radiusValue), extent,
+                    solutionScene);
+            primaryStage.setScene(fieldMapScene);
+        });
         VBox layout7 = new VBox(10);
-        layout7.getChildren().addAll(answerMessage, returnButton);
+        layout7.getChildren().addAll(answerMessage, visualizeButton, returnButton);
         layout7.setAlignment(Pos.CENTER);
         solutionScene = new Scene(layout7, 300, 250);
     }
 
     /**
-     * Method that computes the distance from (0, 0) to a specified point in space.
-     * @param i x-coordinate for input into distance formula.
-     * @param j y-coordinate for input into distance formula.
-     * @return double representing computed distance.
+     * Method that creates a FIELD MAP scene showing the field of a configuration as a heatmap with arrows.
+     * @param primaryStage Stage object that defines the program window.
+     * @param source FieldSource describing the configuration to draw.
+     * @param extent double representing the distance in meters from the origin to the nearest edge of the map.
+     * @param returnScene Scene to go back to when leaving the map.
      */
-    private double distanceFormula(double i, double j) {
-        return Math.sqrt(i * i + j * j);
-    }
+    private void createFieldMapScene(Stage primaryStage, FieldSource source, double extent, Scene returnScene) {
+        if (fieldMapView != null) {
+            fieldMapView.dispose();
+        }
+        fieldMapView = new FieldMapView(source, 500, 400, extent);
 
-    /**
-     * Method that computes the electric field due to a point charge in space.
-     * @param distance double representing the distance between selected point in space and point charge at origin.
-     * @param ptCharge double representing the point charge in nanocoulombs.
-     * @return double representing the electric field generated by the point charge at the selected point in space.
-     */
-    private double pointFieldSolver(double distance, double ptCharge) {
-        ptCharge *= Math.pow(10, -9);
-        double k = 8.99 * Math.pow(10, 9);
-        double ptAnswer = k * ptCharge / (Math.pow(distance, 2));
-        return Math.round(ptAnswer * 100.0) / 100.0;
+        Text mapText = new Text("Colors show the strength of the electric field in the xy-plane on a log scale and "
+                + "arrows show its direction. Drag to pan and scroll to zoom.");
+        mapText.setWrappingWidth(450);
+        mapText.setTextAlignment(TextAlignment.CENTER);
+
+        Button backButton = new Button("Back");
+        backButton.setOnAction(e -> {
+            fieldMapView.dispose();
+            primaryStage.setScene(returnScene);
+        });
+
+        VBox layout8 = new VBox(10);
+        layout8.getChildren().addAll(mapText, fieldMapView, backButton);
+        layout8.setAlignment(Pos.CENTER);
+        fieldMapScene = new Scene(layout8, 550, 520);
     }
 
-}
\ No newline at end of file
+}
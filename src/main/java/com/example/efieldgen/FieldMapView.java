@@ -0,0 +1,336 @@
+package com.example.efieldgen;
+
+import com.example.efieldgen.solver.FieldSource;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * FieldMapView class that draws the electric field of a charge configuration in the z = 0 plane as a heatmap of
+ * |E| with arrow glyphs showing its direction. Users can pan by dragging and zoom with the scroll wheel.
+ *
+ * Pixels are computed on a background thread, never on the JavaFX application thread, and delivered through a
+ * WritableImage's PixelWriter. Every view change starts a new render that refines progressively from 8x8 pixel
+ * blocks down to single pixels; the coarse pass is cheap enough to keep up with pan and zoom at 60 fps, and any
+ * pass made stale by a newer view change is abandoned.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public class FieldMapView extends StackPane {
+
+    private static final int[] STEPS = {8, 4, 2, 1}; // block sizes of the progressive passes
+    private static final int BAND_ROWS = 16; // rows evaluated between checks for a newer view
+    private static final int ARROW_SPACING = 32; // pixels between arrow glyphs
+    private static final double ARROW_LENGTH = 12;
+    private static final double DECADES = 6; // orders of magnitude spanned by the color scale
+    private static final int[] PALETTE = palette();
+
+    private final FieldSource source;
+    private final int width;
+    private final int height;
+    private final WritableImage image;
+    private final Canvas arrows;
+    private final ExecutorService renderer;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<Frame> pending = new AtomicReference<>();
+    private final AtomicReference<Frame> spare = new AtomicReference<>();
+
+    /**
+     * View state, only touched on the JavaFX application thread.
+     */
+    private double centerX;
+    private double centerY;
+    private double metersPerPixel;
+    private double dragX;
+    private double dragY;
+
+    /**
+     * Sample buffers, only touched by the render thread.
+     */
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final double[] ex;
+    private final double[] ey;
+    private final double[] ez;
+
+    /**
+     * Constructor that creates a view of the given field centered on the origin.
+     * @param source FieldSource describing the charge configuration.
+     * @param width int representing the width of the view in pixels.
+     * @param height int representing the height of the view in pixels.
+     * @param extent double representing the distance in meters from the center to the nearest edge of the view.
+     */
+    public FieldMapView(FieldSource source, int width, int height, double extent) {
+        this.source = source;
+        this.width = width;
+        this.height = height;
+        this.metersPerPixel = extent / (Math.min(width, height) / 2.0);
+        this.image = new WritableImage(width, height);
+        this.arrows = new Canvas(width, height);
+        int samples = width * height;
+        x = new double[samples];
+        y = new double[samples];
+        z = new double[samples];
+        ex = new double[samples];
+        ey = new double[samples];
+        ez = new double[samples];
+        renderer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "FieldMapView renderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        getChildren().addAll(new ImageView(image), arrows);
+        setMinSize(width, height);
+        setMaxSize(width, height);
+
+        setOnMousePressed(e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        setOnMouseDragged(e -> {
+            centerX -= (e.getX() - dragX) * metersPerPixel;
+            centerY += (e.getY() - dragY) * metersPerPixel;
+            dragX = e.getX();
+            dragY = e.getY();
+            requestRender();
+        });
+        setOnScroll(e -> {
+            double factor = e.getDeltaY() > 0 ? 1 / 1.1 : 1.1;
+            double worldX = centerX + (e.getX() - width / 2.0) * metersPerPixel;
+            double worldY = centerY - (e.getY() - height / 2.0) * metersPerPixel;
+            metersPerPixel *= factor;
+            centerX = worldX - (e.getX() - width / 2.0) * metersPerPixel;
+            centerY = worldY + (e.getY() - height / 2.0) * metersPerPixel;
+            requestRender();
+        });
+        requestRender();
+    }
+
+    /**
+     * Method that stops the render thread. The view shows its last image but no longer reacts to pan and zoom.
+     */
+    public void dispose() {
+        generation.incrementAndGet();
+        renderer.shutdownNow();
+    }
+
+    /**
+     * Method that starts a render of the current view, superseding any render still in progress.
+     */
+    private void requestRender() {
+        if (renderer.isShutdown()) {
+            return;
+        }
+        long current = generation.incrementAndGet();
+        double cx = centerX;
+        double cy = centerY;
+        double scale = metersPerPixel;
+        renderer.execute(() -> render(current, cx, cy, scale));
+    }
+
+    /**
+     * Method that runs the progressive passes of one render on the render thread.
+     */
+    private void render(long current, double cx, double cy, double scale) {
+        Frame arrowsFrame = null;
+        for (int step : STEPS) {
+            if (generation.get() != current) {
+                return;
+            }
+            int cols = (width + step - 1) / step;
+            int rows = (height + step - 1) / step;
+            for (int r = 0; r < rows; r++) {
+                double py = cy - ((r * step + step / 2.0) - height / 2.0) * scale;
+                for (int c = 0; c < cols; c++) {
+                    int s = r * cols + c;
+                    x[s] = cx + ((c * step + step / 2.0) - width / 2.0) * scale;
+                    y[s] = py;
+                    z[s] = 0;
+                }
+            }
+            for (int r = 0; r < rows; r += BAND_ROWS) {
+                if (generation.get() != current) {
+                    return;
+                }
+                source.evaluate(x, y, z, ex, ey, ez, r * cols, Math.min(rows, r + BAND_ROWS) * cols);
+            }
+
+            Frame frame = obtainFrame();
+            double max = Double.NEGATIVE_INFINITY;
+            int samples = cols * rows;
+            for (int s = 0; s < samples; s++) {
+                double m = Math.sqrt(ex[s] * ex[s] + ey[s] * ey[s] + ez[s] * ez[s]);
+                // Zero fields take the bottom of the scale, singular points (NaN or infinite) the top.
+                double log = m == 0 ? Double.NEGATIVE_INFINITY : m < Double.POSITIVE_INFINITY ? Math.log10(m)
+                        : Double.NaN;
+                ex[s] = log;
+                if (log > max) {
+                    max = log;
+                }
+            }
+            double min = max - DECADES;
+            for (int r = 0; r < rows; r++) {
+                int rowEnd = Math.min(height, (r + 1) * step);
+                for (int c = 0; c < cols; c++) {
+                    double log = ex[r * cols + c];
+                    int color;
+                    if (Double.isNaN(log)) {
+                        color = PALETTE[PALETTE.length - 1];
+                    } else {
+                        double t = (log - min) / (max - min);
+                        color = PALETTE[(int) (Math.max(0, Math.min(1, t)) * (PALETTE.length - 1))];
+                    }
+                    int colEnd = Math.min(width, (c + 1) * step);
+                    for (int py = r * step; py < rowEnd; py++) {
+                        int base = py * width;
+                        for (int px = c * step; px < colEnd; px++) {
+                            frame.pixels[base + px] = color;
+                        }
+                    }
+                }
+            }
+            if (arrowsFrame == null) {
+                computeArrows(frame, cx, cy, scale);
+                arrowsFrame = frame;
+            } else {
+                frame.copyArrows(arrowsFrame);
+            }
+            publish(frame);
+        }
+    }
+
+    /**
+     * Method that computes the unit field direction at each arrow glyph of the view.
+     */
+    private void computeArrows(Frame frame, double cx, double cy, double scale) {
+        int cols = width / ARROW_SPACING;
+        int rows = height / ARROW_SPACING;
+        int n = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                frame.arrowX[n] = (c + 0.5) * ARROW_SPACING;
+                frame.arrowY[n] = (r + 0.5) * ARROW_SPACING;
+                x[n] = cx + (frame.arrowX[n] - width / 2.0) * scale;
+                y[n] = cy - (frame.arrowY[n] - height / 2.0) * scale;
+                z[n] = 0;
+                n++;
+            }
+        }
+        source.evaluate(x, y, z, ex, ey, ez, 0, n);
+        for (int i = 0; i < n; i++) {
+            double length = Math.hypot(ex[i], ey[i]);
+            boolean valid = length > 0 && length < Double.POSITIVE_INFINITY;
+            frame.arrowDx[i] = valid ? ex[i] / length : 0;
+            frame.arrowDy[i] = valid ? -ey[i] / length : 0;
+        }
+        frame.arrowCount = n;
+    }
+
+    private Frame obtainFrame() {
+        Frame frame = spare.getAndSet(null);
+        return frame != null ? frame : new Frame(width * height, (width / ARROW_SPACING) * (height / ARROW_SPACING));
+    }
+
+    /**
+     * Method that hands a finished frame to the JavaFX thread, replacing a frame that has not been shown yet.
+     */
+    private void publish(Frame frame) {
+        Frame unseen = pending.getAndSet(frame);
+        if (unseen == null) {
+            Platform.runLater(this::present);
+        } else {
+            spare.set(unseen);
+        }
+    }
+
+    /**
+     * Method that copies the latest frame into the image and redraws the arrows, on the JavaFX thread.
+     */
+    private void present() {
+        Frame frame = pending.getAndSet(null);
+        if (frame == null) {
+            return;
+        }
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), frame.pixels, 0,
+                width);
+        GraphicsContext gc = arrows.getGraphicsContext2D();
+        gc.clearRect(0, 0, width, height);
+        gc.setStroke(Color.WHITE);
+        gc.setLineWidth(1);
+        double half = ARROW_LENGTH / 2;
+        for (int i = 0; i < frame.arrowCount; i++) {
+            double dx = frame.arrowDx[i];
+            double dy = frame.arrowDy[i];
+            if (dx == 0 && dy == 0) {
+                continue;
+            }
+            double tipX = frame.arrowX[i] + dx * half;
+            double tipY = frame.arrowY[i] + dy * half;
+            gc.strokeLine(frame.arrowX[i] - dx * half, frame.arrowY[i] - dy * half, tipX, tipY);
+            gc.strokeLine(tipX, tipY, tipX - 4 * dx + 3 * dy, tipY - 4 * dy - 3 * dx);
+            gc.strokeLine(tipX, tipY, tipX - 4 * dx - 3 * dy, tipY - 4 * dy + 3 * dx);
+        }
+        spare.set(frame);
+    }
+
+    /**
+     * Method that builds a 256-entry dark blue to red color scale in ARGB form.
+     */
+    private static int[] palette() {
+        Color[] stops = {Color.rgb(10, 10, 60), Color.rgb(30, 90, 200), Color.rgb(40, 200, 200),
+                Color.rgb(250, 220, 60), Color.rgb(220, 40, 30)};
+        int[] palette = new int[256];
+        for (int i = 0; i < palette.length; i++) {
+            double t = (double) i / (palette.length - 1) * (stops.length - 1);
+            int s = Math.min(stops.length - 2, (int) t);
+            Color color = stops[s].interpolate(stops[s + 1], t - s);
+            palette[i] = 0xFF000000 | ((int) (color.getRed() * 255) << 16) | ((int) (color.getGreen() * 255) << 8)
+                    | (int) (color.getBlue() * 255);
+        }
+        return palette;
+    }
+
+    /**
+     * Pixels and arrow glyphs of one rendered pass.
+     */
+    private static final class Frame {
+        private final int[] pixels;
+        private final double[] arrowX;
+        private final double[] arrowY;
+        private final double[] arrowDx;
+        private final double[] arrowDy;
+        private int arrowCount;
+
+        Frame(int pixelCount, int arrowCapacity) {
+            pixels = new int[pixelCount];
+            arrowX = new double[arrowCapacity];
+            arrowY = new double[arrowCapacity];
+            arrowDx = new double[arrowCapacity];
+            arrowDy = new double[arrowCapacity];
+        }
+
+        void copyArrows(Frame other) {
+            if (other == this) {
+                return;
+            }
+            System.arraycopy(other.arrowX, 0, arrowX, 0, other.arrowCount);
+            System.arraycopy(other.arrowY, 0, arrowY, 0, other.arrowCount);
+            System.arraycopy(other.arrowDx, 0, arrowDx, 0, other.arrowCount);
+            System.arraycopy(other.arrowDy, 0, arrowDy, 0, other.arrowCount);
+            arrowCount = other.arrowCount;
+        }
+    }
+}
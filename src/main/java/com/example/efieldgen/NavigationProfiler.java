@@ -0,0 +1,85 @@
+package com.example.efieldgen;
+
+import javafx.scene.Scene;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * NavigationProfiler class that measures how quickly the FieldGen window responds, for tuning on slow lab machines:
+ * the time from JVM start, and from Application.start, to the first frame, and for every navigation the time from
+ * the click to the first frame of the new scene, split into the time spent building or rebinding the scene.
+ *
+ * A frame counts as shown when the JavaFX pulse that lays out the new scene finishes, just before it is rendered.
+ * Every navigation prints one line and {@link #report()} prints a summary per scene. Only the JavaFX application
+ * thread may call it.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class NavigationProfiler {
+
+    private final PrintStream out;
+    private final long startNanos;
+    private final Map<String, long[]> scenes = new TreeMap<>(); // name -> visits, builds, total nanos, max nanos
+    private boolean firstFrame = true;
+
+    /**
+     * Constructor that starts profiling; call it on entry to Application.start.
+     * @param out PrintStream receiving the measurements.
+     */
+    public NavigationProfiler(PrintStream out) {
+        this.out = out;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Method that records a navigation once the new scene has been set on the stage.
+     * @param name String naming the scene.
+     * @param scene Scene navigated to.
+     * @param clickNanos long representing the System.nanoTime() value when the navigation began.
+     * @param built boolean representing whether the scene was built rather than reused.
+     */
+    public void navigated(String name, Scene scene, long clickNanos, boolean built) {
+        long bound = System.nanoTime() - clickNanos;
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            frame(name, clickNanos, bound, built);
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    private void frame(String name, long clickNanos, long bound, boolean built) {
+        long now = System.nanoTime();
+        long latency = now - clickNanos;
+        if (firstFrame) {
+            firstFrame = false;
+            long sinceJvm = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            out.printf(Locale.ROOT, "first frame: %d ms after JVM start, %.1f ms after start()%n", sinceJvm,
+                    (now - startNanos) / 1e6);
+        }
+        long[] stats = scenes.computeIfAbsent(name, k -> new long[4]);
+        stats[0]++;
+        stats[1] += built ? 1 : 0;
+        stats[2] += latency;
+        stats[3] = Math.max(stats[3], latency);
+        out.printf(Locale.ROOT, "navigate %-24s %8.2f ms to frame (%s %.2f ms)%n", name, latency / 1e6,
+                built ? "built" : "reused", bound / 1e6);
+    }
+
+    /**
+     * Method that prints the visits, builds and mean and worst time to frame of every scene navigated to.
+     */
+    public void report() {
+        out.println("scene                    visits builds  mean ms   max ms");
+        for (Map.Entry<String, long[]> entry : scenes.entrySet()) {
+            long[] stats = entry.getValue();
+            out.printf(Locale.ROOT, "%-24s %6d %6d %8.2f %8.2f%n", entry.getKey(), stats[0], stats[1],
+                    stats[2] / 1e6 / stats[0], stats[3] / 1e6);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.efieldgen.batch;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * BatchCli class that is the headless entry point of FieldGen: it evaluates a file of configurations and points
+ * without starting JavaFX. The format of each file follows its extension, CSV for {@code .csv} and the binary
+ * formats of BinaryRecordReader and BinaryRecordWriter otherwise.
+ *
+ * Usage: {@code BatchCli <input> <output> [--threads n] [--chunk records]}, also reachable as
+ * {@code FieldGen --batch ...}.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class BatchCli {
+
+    private BatchCli() {
+    }
+
+    /**
+     * Main method for running a batch from the command line.
+     * @param args String arguments holding the input and output paths followed by options.
+     */
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IOException e) {
+            System.err.println("Batch failed: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(130);
+        }
+    }
+
+    /**
+     * Method that runs a batch and reports how long it took.
+     * @param args String arguments holding the input and output paths followed by options.
+     * @return int representing the exit status, 0 on success and 2 for a usage error.
+     * @throws IOException if the input cannot be read or the output cannot be written.
+     * @throws InterruptedException if the run is interrupted.
+     */
+    public static int run(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            return usage("Input and output files are required.");
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        int chunk = BatchPipeline.DEFAULT_CHUNK_SIZE;
+        for (int a = 2; a < args.length; a++) {
+            if (a + 1 >= args.length) {
+                return usage("Missing value for " + args[a] + ".");
+            }
+            try {
+                if (args[a].equals("--threads")) {
+                    threads = Integer.parseInt(args[++a]);
+                } else if (args[a].equals("--chunk")) {
+                    chunk = Integer.parseInt(args[++a]);
+                } else {
+                    return usage("Unknown option " + args[a] + ".");
+                }
+            } catch (NumberFormatException e) {
+                return usage("Option " + args[a - 1] + " needs a number.");
+            }
+        }
+        if (threads < 1 || chunk < 1) {
+            return usage("Threads and chunk size must be positive.");
+        }
+
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        long records;
+        try (RecordReader reader = isCsv(input) ? new CsvRecordReader(input) : new BinaryRecordReader(input);
+             RecordWriter writer = isCsv(output) ? new CsvRecordWriter(output) : new BinaryRecordWriter(output)) {
+            records = new BatchPipeline(pool, 2 * threads + 2, chunk).run(reader, writer);
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "%d records in %.3f s (%.0f records/s)%n", records, seconds,
+                records / Math.max(seconds, 1e-9));
+        return 0;
+    }
+
+    private static boolean isCsv(Path path) {
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
+    private static int usage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: BatchCli <input> <output> [--threads n] [--chunk records]");
+        System.err.println("Files ending in .csv are text (type,charge,size,x,y,z in, ex,ey,ez,magnitude out);");
+        System.err.println("any other file uses the binary batch formats.");
+        return 2;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.efieldgen.batch;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * BatchPipeline class that streams records from a RecordReader through the solver to a RecordWriter in three
+ * stages: a reader thread fills chunks, an executor computes them in parallel and the calling thread writes them
+ * back in input order. A fixed pool of chunks circulates between the stages, so memory stays bounded by
+ * chunks * chunkSize records however large the input is, and a slow stage simply makes the others wait for a free
+ * chunk.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class BatchPipeline {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final Executor executor;
+    private final int chunks;
+    private final int chunkSize;
+
+    /**
+     * Constructor that computes chunks on the common ForkJoinPool.
+     */
+    public BatchPipeline() {
+        this(ForkJoinPool.commonPool(), 2 * ForkJoinPool.getCommonPoolParallelism() + 2, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor that computes chunks on a specific worker pool.
+     * @param executor Executor whose threads compute the chunks.
+     * @param chunks int representing the number of chunk buffers, which bounds the records in flight.
+     * @param chunkSize int representing the number of records per chunk.
+     */
+    public BatchPipeline(Executor executor, int chunks, int chunkSize) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null.");
+        }
+        if (chunks < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("At least one chunk of at least one record is required.");
+        }
+        this.executor = executor;
+        this.chunks = chunks;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Method that processes every record of the input.
+     * @param reader RecordReader supplying the records.
+     * @param writer RecordWriter receiving the results in input order.
+     * @return long representing the number of records processed.
+     * @throws IOException if reading or writing fails; the pipeline stops after the chunks already in flight.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for chunks.
+     */
+    public long run(RecordReader reader, RecordWriter writer) throws IOException, InterruptedException {
+        BlockingQueue<RecordChunk> free = new ArrayBlockingQueue<>(chunks);
+        BlockingQueue<Result> done = new ArrayBlockingQueue<>(chunks + 1);
+        for (int c = 0; c < chunks; c++) {
+            free.add(new RecordChunk(chunkSize));
+        }
+        Thread readerThread = new Thread(() -> read(reader, free, done), "efieldgen-batch-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+
+        Result[] waiting = new Result[chunks];
+        long expected = 0;
+        long end = -1;
+        long records = 0;
+        Throwable failure = null;
+        try {
+            while (failure == null && (end < 0 || expected < end)) {
+                Result result = done.take();
+                if (result.chunk == null) {
+                    end = result.sequence;
+                    failure = result.error;
+                    continue;
+                }
+                if (result.error != null) {
+                    failure = result.error;
+                    continue;
+                }
+                // Chunks finish in any order; hold each until all earlier ones have been written.
+                waiting[(int) (result.sequence % chunks)] = result;
+                Result next;
+                while ((next = waiting[(int) (expected % chunks)]) != null && next.sequence == expected) {
+                    waiting[(int) (expected % chunks)] = null;
+                    writer.write(next.chunk);
+                    records += next.chunk.size();
+                    free.add(next.chunk);
+                    expected++;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+        } finally {
+            if (failure != null || Thread.currentThread().isInterrupted()) {
+                readerThread.interrupt();
+            }
+            readerThread.join();
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return records;
+    }
+
+    /**
+     * Method run by the reader thread: fills free chunks and hands them to the executor, then posts an end marker
+     * holding the number of chunks and any read error.
+     */
+    private void read(RecordReader reader, BlockingQueue<RecordChunk> free, BlockingQueue<Result> done) {
+        long sequence = 0;
+        long records = 0;
+        Throwable error = null;
+        try {
+            while (true) {
+                RecordChunk chunk = free.take();
+                chunk.reset(records);
+                int count = reader.read(chunk);
+                if (count == 0) {
+                    break;
+                }
+                records += count;
+                long position = sequence++;
+                executor.execute(() -> {
+                    Throwable computeError = null;
+                    try {
+                        chunk.compute();
+                    } catch (RuntimeException | Error e) {
+                        computeError = e;
+                    }
+                    done.add(new Result(position, chunk, computeError));
+                });
+            }
+        } catch (InterruptedException e) {
+            return; // the writer has given up
+        } catch (IOException | RuntimeException | Error e) {
+            error = e;
+        }
+        done.add(new Result(sequence, null, error));
+    }
+
+    /**
+     * A computed chunk with its position in the input, or the end marker when chunk is null.
+     */
+    private static final class Result {
+        private final long sequence;
+        private final RecordChunk chunk;
+        private final Throwable error;
+
+        Result(long sequence, RecordChunk chunk, Throwable error) {
+            this.sequence = sequence;
+            this.chunk = chunk;
+            this.error = error;
+        }
+    }
+}
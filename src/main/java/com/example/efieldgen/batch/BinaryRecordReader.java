@@ -0,0 +1,132 @@
+package com.example.efieldgen.batch;
+
+import com.example.efieldgen.ChargeType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * BinaryRecordReader class that reads batch records from the compact binary input format. The file starts with a
+ * {@value #HEADER_BYTES}-byte header (magic, record size, record count) followed by fixed records of
+ * {@value #RECORD_BYTES} bytes: the ChargeType ordinal as an int, four bytes of padding, then charge, size, x, y and
+ * z as doubles, all little-endian.
+ *
+ * The file is memory-mapped in windows of whole records and decoded in place.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class BinaryRecordReader implements RecordReader {
+
+    public static final int MAGIC = 0x45464231; // "EFB1"
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 8 + 5 * Double.BYTES;
+    static final int WINDOW_RECORDS = (64 << 20) / RECORD_BYTES;
+    private static final ChargeType[] TYPES = ChargeType.values();
+
+    private final FileChannel channel;
+    private final Path path;
+    private final long count;
+    private long next;
+    private ByteBuffer window;
+    private long windowFirst;
+
+    /**
+     * Constructor that opens a binary batch file and checks its header.
+     * @param path Path of the file.
+     * @throws IOException if the file cannot be opened or is not a binary batch file.
+     */
+    public BinaryRecordReader(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    break;
+                }
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != RECORD_BYTES) {
+                throw new IOException("Not a FieldGen binary batch file: " + path);
+            }
+            count = header.getLong();
+            if (count < 0 || channel.size() < HEADER_BYTES + count * RECORD_BYTES) {
+                throw new IOException("Binary batch file is truncated: " + path);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Method that encodes the header of a binary batch file at the current position of a buffer.
+     * @param buffer ByteBuffer with at least HEADER_BYTES remaining, in little-endian order.
+     * @param records long representing the number of records in the file.
+     */
+    public static void writeHeader(ByteBuffer buffer, long records) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(RECORD_BYTES);
+        buffer.putLong(records);
+    }
+
+    /**
+     * Method that encodes one record at the current position of a buffer.
+     * @param buffer ByteBuffer with at least RECORD_BYTES remaining, in little-endian order.
+     * @param type ChargeType of the source configuration.
+     * @param charge double representing the charge, or charge density, in nanocoulombs.
+     * @param size double representing the radius of a sphere or the thickness of a slab.
+     * @param x double representing the x-coordinate of the observation point in meters.
+     * @param y double representing the y-coordinate of the observation point in meters.
+     * @param z double representing the z-coordinate of the observation point in meters.
+     */
+    public static void writeRecord(ByteBuffer buffer, ChargeType type, double charge, double size, double x,
+                                   double y, double z) {
+        buffer.putInt(type.ordinal());
+        buffer.putInt(0);
+        buffer.putDouble(charge);
+        buffer.putDouble(size);
+        buffer.putDouble(x);
+        buffer.putDouble(y);
+        buffer.putDouble(z);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public int read(RecordChunk chunk) throws IOException {
+        int added = 0;
+        while (!chunk.isFull() && next < count) {
+            if (window == null || next >= windowFirst + WINDOW_RECORDS) {
+                windowFirst = next;
+                long records = Math.min(WINDOW_RECORDS, count - next);
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_BYTES + next * RECORD_BYTES, records * RECORD_BYTES);
+                window = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            }
+            int base = (int) (next - windowFirst) * RECORD_BYTES;
+            int ordinal = window.getInt(base);
+            if (ordinal < 0 || ordinal >= TYPES.length) {
+                throw new IOException("Record " + next + " of " + path + " has unknown charge type " + ordinal + ".");
+            }
+            chunk.add(TYPES[ordinal], window.getDouble(base + 8), window.getDouble(base + 16),
+                    window.getDouble(base + 24), window.getDouble(base + 32), window.getDouble(base + 40));
+            next++;
+            added++;
+        }
+        return added;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
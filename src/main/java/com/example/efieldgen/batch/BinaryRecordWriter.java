@@ -0,0 +1,80 @@
+package com.example.efieldgen.batch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * BinaryRecordWriter class that writes batch results in a compact binary format: a {@value #HEADER_BYTES}-byte
+ * header (magic, record size, record count) followed by one {@value #RECORD_BYTES}-byte record per input record in
+ * input order, holding Ex, Ey, Ez and |E| as little-endian doubles like GridFileWriter. The count is filled in when
+ * the writer is closed.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class BinaryRecordWriter implements RecordWriter {
+
+    public static final int MAGIC = 0x45465231; // "EFR1"
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 4 * Double.BYTES;
+    private static final int BUFFER_RECORDS = 32_768;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private long count;
+
+    /**
+     * Constructor that creates, or truncates, the output file.
+     * @param path Path of the file to write.
+     * @throws IOException if the file cannot be created.
+     */
+    public BinaryRecordWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        channel.position(HEADER_BYTES);
+    }
+
+    @Override
+    public void write(RecordChunk chunk) throws IOException {
+        for (int i = 0; i < chunk.size(); i++) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.putDouble(chunk.getEx(i));
+            buffer.putDouble(chunk.getEy(i));
+            buffer.putDouble(chunk.getEz(i));
+            buffer.putDouble(chunk.getMagnitude(i));
+        }
+        count += chunk.size();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(RECORD_BYTES);
+            header.putLong(count);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, HEADER_BYTES - header.remaining());
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
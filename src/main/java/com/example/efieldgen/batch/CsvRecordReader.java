@@ -0,0 +1,288 @@
+package com.example.efieldgen.batch;
+
+import com.example.efieldgen.ChargeType;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CsvRecordReader class that reads batch records from a text file with one record per line:
+ * {@code type,charge,size,x,y,z}. The type is a ChargeType name (in any case) or its ordinal, and size is the radius
+ * of a sphere or the thickness of a slab. Blank lines and lines starting with '#' are skipped, and a first line that
+ * does not start with a type is taken as a header.
+ *
+ * The file is memory-mapped in windows of {@value #WINDOW} bytes and parsed straight from the mapping, so no line
+ * or number is turned into a String; numbers with at most 15 significant digits and small exponents, which covers
+ * typical generated files, are converted exactly without Double.parseDouble.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class CsvRecordReader implements RecordReader {
+
+    static final int WINDOW = 64 << 20;
+    private static final ChargeType[] TYPES = ChargeType.values();
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final FileChannel channel;
+    private final long length;
+    private final Path path;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position;
+    private long line;
+    private final StringBuilder fallback = new StringBuilder();
+
+    /**
+     * Constructor that opens a CSV batch file.
+     * @param path Path of the file.
+     * @throws IOException if the file cannot be opened.
+     */
+    public CsvRecordReader(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.length = channel.size();
+        map(0);
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW, length - start));
+        position = 0;
+    }
+
+    @Override
+    public int read(RecordChunk chunk) throws IOException {
+        int added = 0;
+        while (!chunk.isFull()) {
+            if (!nextLine()) {
+                break;
+            }
+            if (parseLine(chunk)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Method that makes sure a whole line starts at the current position of the window, remapping it when the
+     * line would run past its end.
+     * @return boolean representing whether there is another line.
+     */
+    private boolean nextLine() throws IOException {
+        if (windowStart + position >= length) {
+            return false;
+        }
+        int limit = window.limit();
+        for (int i = position; i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return true;
+            }
+        }
+        if (windowStart + limit >= length) {
+            return true; // last line without a newline
+        }
+        if (position == 0) {
+            throw new IOException("Line " + (line + 1) + " of " + path + " is longer than " + WINDOW + " bytes.");
+        }
+        map(windowStart + position);
+        return true;
+    }
+
+    /**
+     * Method that parses the line at the current position and moves past it.
+     * @return boolean representing whether the line held a record.
+     */
+    private boolean parseLine(RecordChunk chunk) throws IOException {
+        line++;
+        skipSpaces();
+        int start = position;
+        if (atEndOfLine() || window.get(position) == '#') {
+            skipLine();
+            return false;
+        }
+        ChargeType type = parseType();
+        if (type == null) {
+            if (line == 1) {
+                skipLine();
+                return false;
+            }
+            position = start;
+            throw malformed("unknown charge type");
+        }
+        double charge = nextNumber();
+        double size = nextNumber();
+        double x = nextNumber();
+        double y = nextNumber();
+        double z = nextNumber();
+        skipSpaces();
+        if (!atEndOfLine()) {
+            throw malformed("expected 6 fields");
+        }
+        skipLine();
+        chunk.add(type, charge, size, x, y, z);
+        return true;
+    }
+
+    private ChargeType parseType() {
+        int start = position;
+        while (position < window.limit() && window.get(position) != ',' && !atEndOfLine()) {
+            position++;
+        }
+        int end = position;
+        while (end > start && window.get(end - 1) == ' ') {
+            end--;
+        }
+        if (end - start == 1 && window.get(start) >= '0' && window.get(start) < '0' + TYPES.length) {
+            return TYPES[window.get(start) - '0'];
+        }
+        for (ChargeType type : TYPES) {
+            String name = type.name();
+            if (name.length() != end - start) {
+                continue;
+            }
+            boolean match = true;
+            for (int i = 0; i < name.length() && match; i++) {
+                match = Character.toUpperCase((char) window.get(start + i)) == name.charAt(i);
+            }
+            if (match) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method that parses the number after the next comma.
+     */
+    private double nextNumber() throws IOException {
+        if (position >= window.limit() || window.get(position) != ',') {
+            throw malformed("expected 6 fields");
+        }
+        position++;
+        skipSpaces();
+        int start = position;
+        boolean negative = false;
+        if (position < window.limit() && (window.get(position) == '-' || window.get(position) == '+')) {
+            negative = window.get(position) == '-';
+            position++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        boolean point = false;
+        while (position < window.limit()) {
+            byte c = window.get(position);
+            if (c >= '0' && c <= '9') {
+                any = true;
+                if (digits < 18) {
+                    if (mantissa != 0 || c != '0') {
+                        digits++;
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (point) {
+                        exponent--;
+                    }
+                } else if (!point) {
+                    exponent++;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+            position++;
+        }
+        if (position < window.limit() && (window.get(position) == 'e' || window.get(position) == 'E')) {
+            position++;
+            boolean negativeExponent = false;
+            if (position < window.limit() && (window.get(position) == '-' || window.get(position) == '+')) {
+                negativeExponent = window.get(position) == '-';
+                position++;
+            }
+            int value = 0;
+            boolean expDigits = false;
+            while (position < window.limit() && window.get(position) >= '0' && window.get(position) <= '9') {
+                value = Math.min(100_000, value * 10 + (window.get(position) - '0'));
+                expDigits = true;
+                position++;
+            }
+            if (!expDigits) {
+                position = start;
+                throw malformed("malformed number");
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (!any) {
+            return slowNumber(start);
+        }
+        int end = position;
+        skipSpaces();
+        if (position < window.limit() && window.get(position) != ',' && !atEndOfLine()) {
+            position = start;
+            throw malformed("malformed number");
+        }
+        if (digits > 15 || exponent < -22 || exponent > 22) {
+            position = end;
+            return slowNumber(start);
+        }
+        // Both operands are exact doubles, so a single multiplication or division rounds correctly.
+        double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Method that hands a token the fast path cannot convert exactly, such as NaN or long mantissas, to
+     * Double.parseDouble.
+     */
+    private double slowNumber(int start) throws IOException {
+        position = start;
+        fallback.setLength(0);
+        while (position < window.limit() && window.get(position) != ',' && !atEndOfLine()) {
+            fallback.append((char) window.get(position));
+            position++;
+        }
+        try {
+            return Double.parseDouble(fallback.toString().trim());
+        } catch (NumberFormatException e) {
+            position = start;
+            throw malformed("malformed number");
+        }
+    }
+
+    private boolean atEndOfLine() {
+        return position >= window.limit() || window.get(position) == '\n' || window.get(position) == '\r';
+    }
+
+    private void skipSpaces() {
+        while (position < window.limit() && (window.get(position) == ' ' || window.get(position) == '\t')) {
+            position++;
+        }
+    }
+
+    private void skipLine() {
+        while (position < window.limit() && window.get(position) != '\n') {
+            position++;
+        }
+        if (position < window.limit()) {
+            position++;
+        }
+    }
+
+    private IOException malformed(String problem) {
+        return new IOException("Malformed record at line " + line + ", byte " + (windowStart + position) + " of "
+                + path + ": " + problem + ".");
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.efieldgen.batch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CsvRecordWriter class that writes batch results as text, one line {@code ex,ey,ez,magnitude} per input record in
+ * input order after a header line. Values are printed with Java's shortest round-tripping form, so reading them
+ * back gives the computed doubles exactly.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class CsvRecordWriter implements RecordWriter {
+
+    static final String HEADER = "ex,ey,ez,magnitude\n";
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final StringBuilder line = new StringBuilder(128);
+
+    /**
+     * Constructor that creates, or truncates, the output file and writes the header line.
+     * @param path Path of the file to write.
+     * @throws IOException if the file cannot be created.
+     */
+    public CsvRecordWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        line.append(HEADER);
+        put();
+    }
+
+    @Override
+    public void write(RecordChunk chunk) throws IOException {
+        for (int i = 0; i < chunk.size(); i++) {
+            line.setLength(0);
+            line.append(chunk.getEx(i)).append(',').append(chunk.getEy(i)).append(',').append(chunk.getEz(i))
+                    .append(',').append(chunk.getMagnitude(i)).append('\n');
+            put();
+        }
+    }
+
+    /**
+     * Method that copies the ASCII line into the output buffer, draining it to the file when it is full.
+     */
+    private void put() throws IOException {
+        if (buffer.remaining() < line.length()) {
+            drain();
+        }
+        for (int i = 0; i < line.length(); i++) {
+            buffer.put((byte) line.charAt(i));
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.efieldgen.batch;
+
+import com.example.efieldgen.ChargeType;
+import com.example.efieldgen.solver.FieldSolver;
+
+/**
+ * RecordChunk class holding a block of batch records in struct-of-arrays form: the configuration and observation
+ * point of each record as read from the input, and the field computed for it. Chunks are reused by BatchPipeline,
+ * so the number of chunks in flight bounds the memory a batch run needs.
+ *
+ * Geometry follows the FieldGen calculators: point charges and spheres are centered at the origin, the infinite
+ * line runs along the x-axis and the infinite slab is centered on the x-z plane.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class RecordChunk {
+
+    private static final ChargeType[] TYPES = ChargeType.values();
+
+    private final byte[] type;
+    private final double[] charge;
+    private final double[] size;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final double[] ex;
+    private final double[] ey;
+    private final double[] ez;
+    private final double[] magnitude;
+    private final double[] vector = new double[3];
+    private long first;
+    private int count;
+
+    /**
+     * Constructor that allocates a chunk.
+     * @param capacity int representing the most records the chunk can hold.
+     */
+    public RecordChunk(int capacity) {
+        type = new byte[capacity];
+        charge = new double[capacity];
+        size = new double[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        z = new double[capacity];
+        ex = new double[capacity];
+        ey = new double[capacity];
+        ez = new double[capacity];
+        magnitude = new double[capacity];
+    }
+
+    /**
+     * Method that empties the chunk before it is refilled.
+     * @param firstRecord long representing the position in the input of the first record that will be added.
+     */
+    public void reset(long firstRecord) {
+        first = firstRecord;
+        count = 0;
+    }
+
+    /**
+     * Method that appends a record.
+     * @param chargeType ChargeType of the source configuration.
+     * @param q double representing the charge, or charge density, in nanocoulombs.
+     * @param s double representing the radius of a sphere or the thickness of a slab; ignored otherwise.
+     * @param px double representing the x-coordinate of the observation point in meters.
+     * @param py double representing the y-coordinate of the observation point in meters.
+     * @param pz double representing the z-coordinate of the observation point in meters.
+     */
+    public void add(ChargeType chargeType, double q, double s, double px, double py, double pz) {
+        int i = count++;
+        type[i] = (byte) chargeType.ordinal();
+        charge[i] = q;
+        size[i] = s;
+        x[i] = px;
+        y[i] = py;
+        z[i] = pz;
+    }
+
+    /**
+     * Method that computes the field vector of every record with {@link FieldSolver#field}, which points away from
+     * the center for point charges and spheres, away from the axis for the line and away from the center plane for
+     * the slab, for a positive charge.
+     */
+    public void compute() {
+        for (int i = 0; i < count; i++) {
+            FieldSolver.field(TYPES[type[i]], charge[i], size[i], x[i], y[i], z[i], vector, 0);
+            ex[i] = vector[0];
+            ey[i] = vector[1];
+            ez[i] = vector[2];
+            magnitude[i] = Math.sqrt(ex[i] * ex[i] + ey[i] * ey[i] + ez[i] * ez[i]);
+        }
+    }
+
+    public int capacity() {
+        return type.length;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isFull() {
+        return count == type.length;
+    }
+
+    /**
+     * Method that gives the position of the first record of the chunk in the input.
+     * @return long representing the zero-based record number.
+     */
+    public long getFirst() {
+        return first;
+    }
+
+    public ChargeType getType(int i) {
+        return TYPES[type[i]];
+    }
+
+    public double getCharge(int i) {
+        return charge[i];
+    }
+
+    public double getSize(int i) {
+        return size[i];
+    }
+
+    public double getX(int i) {
+        return x[i];
+    }
+
+    public double getY(int i) {
+        return y[i];
+    }
+
+    public double getZ(int i) {
+        return z[i];
+    }
+
+    /**
+     * Methods below read the computed field of a record in N/C.
+     */
+    public double getEx(int i) {
+        return ex[i];
+    }
+
+    public double getEy(int i) {
+        return ey[i];
+    }
+
+    public double getEz(int i) {
+        return ez[i];
+    }
+
+    public double getMagnitude(int i) {
+        return magnitude[i];
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.efieldgen.batch;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * RecordReader interface for the inputs of a batch run. Readers are called from a single thread.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public interface RecordReader extends Closeable {
+
+    /**
+     * Method that appends the next records of the input to a chunk until it is full or the input ends.
+     * @param chunk RecordChunk to fill; it has already been reset.
+     * @return int representing the number of records added, zero once the input is exhausted.
+     * @throws IOException if the input cannot be read or is malformed.
+     */
+    int read(RecordChunk chunk) throws IOException;
+}
@@ -0,0 +1,20 @@
+package com.example.efieldgen.batch;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * RecordWriter interface for the outputs of a batch run. Chunks arrive in input order on a single thread.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public interface RecordWriter extends Closeable {
+
+    /**
+     * Method that writes the computed field of every record in a chunk.
+     * @param chunk RecordChunk whose results are written.
+     * @throws IOException if the output cannot be written.
+     */
+    void write(RecordChunk chunk) throws IOException;
+}
@@ -0,0 +1,131 @@
+package com.example.efieldgen.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * BenchmarkHarness class that measures the throughput and allocation of a workload in the manner of JMH, without the
+ * dependency: timed warm-up iterations let the JIT settle, then each measured iteration calls the workload in batches
+ * until its time is up and records operations per second. Allocation is read from the per-thread allocation counter
+ * of HotSpot where the JVM exposes it.
+ *
+ * Workloads return a value computed from their work, which the harness folds into a field so the JIT cannot remove
+ * the work as dead code.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class BenchmarkHarness {
+
+    /**
+     * Workload interface for code under measurement.
+     */
+    public interface Workload {
+
+        /**
+         * Method that performs a batch of operations.
+         * @param operations int representing the number of operations to perform.
+         * @return double representing a value derived from the results.
+         * @throws Exception if the code under measurement fails, which ends the benchmark.
+         */
+        double run(int operations) throws Exception;
+    }
+
+    private static final Method ALLOCATED_BYTES = allocatedBytesMethod();
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private volatile double sink;
+
+    /**
+     * Constructor that defines the measurement plan.
+     * @param warmupIterations int representing the number of unrecorded iterations.
+     * @param measurementIterations int representing the number of recorded iterations.
+     * @param iterationMillis long representing the length of each iteration in milliseconds.
+     */
+    public BenchmarkHarness(int warmupIterations, int measurementIterations, long iterationMillis) {
+        if (warmupIterations < 0 || measurementIterations < 1 || iterationMillis < 1) {
+            throw new IllegalArgumentException("At least one measured iteration of positive length is required.");
+        }
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000;
+    }
+
+    /**
+     * Method that measures a workload on the calling thread.
+     * @param name String naming the benchmark in the results.
+     * @param batch int representing the operations per call of the workload.
+     * @param workload Workload to measure.
+     * @return BenchmarkResult holding the throughput of every measured iteration and the allocation per operation.
+     * @throws Exception if the workload fails.
+     */
+    public BenchmarkResult measure(String name, int batch, Workload workload) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(batch, workload);
+        }
+        double[] throughput = new double[measurementIterations];
+        long allocatedBefore = allocatedBytes();
+        long operations = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            long[] done = iteration(batch, workload);
+            operations += done[0];
+            throughput[i] = done[0] * 1e9 / done[1];
+        }
+        long allocatedAfter = allocatedBytes();
+        double bytesPerOperation = allocatedBefore < 0 || allocatedAfter < 0 ? Double.NaN
+                : (double) (allocatedAfter - allocatedBefore) / operations;
+        return new BenchmarkResult(name, warmupIterations, iterationNanos / 1_000_000, throughput, bytesPerOperation);
+    }
+
+    private long[] iteration(int batch, Workload workload) throws Exception {
+        long operations = 0;
+        double result = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            result += workload.run(batch);
+            operations += batch;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        sink += result;
+        return new long[] {operations, elapsed};
+    }
+
+    /**
+     * Method that tells whether allocation can be measured on this JVM.
+     * @return boolean representing whether results carry allocation per operation.
+     */
+    public static boolean measuresAllocation() {
+        return allocatedBytes() >= 0;
+    }
+
+    private static long allocatedBytes() {
+        if (ALLOCATED_BYTES == null) {
+            return -1;
+        }
+        try {
+            return (long) ALLOCATED_BYTES.invoke(ManagementFactory.getThreadMXBean(), Thread.currentThread().getId());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static Method allocatedBytesMethod() {
+        // HotSpot's com.sun.management.ThreadMXBean extension, looked up so other JVMs simply report no allocation.
+        try {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            Method method = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes",
+                    long.class);
+            if (!method.getDeclaringClass().isInstance(threads)) {
+                return null;
+            }
+            method.invoke(threads, Thread.currentThread().getId());
+            return method;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.efieldgen.bench;
+
+import java.util.Locale;
+
+/**
+ * BenchmarkResult class holding the measurements of one benchmark and writing them in the JSON result format of JMH,
+ * so results of different releases can be compared with the same tools. Throughput is in operations per second; the
+ * score error is the half-width of the 99.9% confidence interval of the mean, as JMH reports it.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class BenchmarkResult {
+
+    // Two-sided 99.9% Student t quantiles for 1 to 30 degrees of freedom; the normal quantile beyond.
+    private static final double[] T_999 = {636.62, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587,
+            4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850, 3.819, 3.792, 3.768, 3.745, 3.725,
+            3.707, 3.690, 3.674, 3.659, 3.646};
+    private static final double Z_999 = 3.291;
+
+    private final String name;
+    private final int warmupIterations;
+    private final long iterationMillis;
+    private final double[] throughput;
+    private final double bytesPerOperation;
+
+    BenchmarkResult(String name, int warmupIterations, long iterationMillis, double[] throughput,
+                    double bytesPerOperation) {
+        this.name = name;
+        this.warmupIterations = warmupIterations;
+        this.iterationMillis = iterationMillis;
+        this.throughput = throughput.clone();
+        this.bytesPerOperation = bytesPerOperation;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Method that returns the mean throughput.
+     * @return double representing operations per second averaged over the measured iterations.
+     */
+    public double getScore() {
+        double sum = 0;
+        for (double value : throughput) {
+            sum += value;
+        }
+        return sum / throughput.length;
+    }
+
+    /**
+     * Method that returns the uncertainty of the mean throughput.
+     * @return double representing the half-width of the 99.9% confidence interval, or NaN for a single iteration.
+     */
+    public double getScoreError() {
+        int n = throughput.length;
+        if (n < 2) {
+            return Double.NaN;
+        }
+        double mean = getScore();
+        double squares = 0;
+        for (double value : throughput) {
+            squares += (value - mean) * (value - mean);
+        }
+        double t = n - 1 <= T_999.length ? T_999[n - 2] : Z_999;
+        return t * Math.sqrt(squares / (n - 1) / n);
+    }
+
+    /**
+     * Method that returns the bytes allocated per operation.
+     * @return double representing the normalized allocation, or NaN if the JVM does not report it.
+     */
+    public double getBytesPerOperation() {
+        return bytesPerOperation;
+    }
+
+    /**
+     * Method that writes the result as one element of a JMH JSON result array.
+     * @return String holding the JSON object.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"benchmark\":\"").append(name).append("\",\"mode\":\"thrpt\",\"threads\":1,\"forks\":0,")
+                .append("\"warmupIterations\":").append(warmupIterations)
+                .append(",\"warmupTime\":\"").append(iterationMillis).append(" ms\"")
+                .append(",\"measurementIterations\":").append(throughput.length)
+                .append(",\"measurementTime\":\"").append(iterationMillis).append(" ms\"")
+                .append(",\"primaryMetric\":{\"score\":").append(number(getScore()))
+                .append(",\"scoreError\":").append(number(getScoreError()))
+                .append(",\"scoreUnit\":\"ops/s\",\"rawData\":[[");
+        for (int i = 0; i < throughput.length; i++) {
+            json.append(i == 0 ? "" : ",").append(number(throughput[i]));
+        }
+        json.append("]]},\"secondaryMetrics\":{");
+        if (!Double.isNaN(bytesPerOperation)) {
+            json.append("\"gc.alloc.rate.norm\":{\"score\":").append(number(bytesPerOperation))
+                    .append(",\"scoreUnit\":\"B/op\"}");
+        }
+        return json.append("}}").toString();
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) ? "\"NaN\"" : String.format(Locale.ROOT, "%.6g", value);
+    }
+}
@@ -0,0 +1,569 @@
+package com.example.efieldgen.bench;
+
+import com.example.efieldgen.ChargeType;
+import com.example.efieldgen.batch.BatchPipeline;
+import com.example.efieldgen.batch.RecordChunk;
+import com.example.efieldgen.batch.RecordReader;
+import com.example.efieldgen.batch.RecordWriter;
+import com.example.efieldgen.problem.AnswerKeyTable;
+import com.example.efieldgen.problem.FreshProblemSampler;
+import com.example.efieldgen.problem.Problem;
+import com.example.efieldgen.problem.ProblemGenerator;
+import com.example.efieldgen.problem.ProblemSpace;
+import com.example.efieldgen.session.AttemptLog;
+import com.example.efieldgen.session.SessionStore;
+import com.example.efieldgen.solver.BatchFieldSolver;
+import com.example.efieldgen.solver.CoulombKernel;
+import com.example.efieldgen.solver.DirectSummation;
+import com.example.efieldgen.solver.FastMultipole;
+import com.example.efieldgen.solver.FieldSolver;
+import com.example.efieldgen.solver.PointChargeSet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * BenchmarkSuite class that measures the throughput and allocation of the hot paths of the application: the scalar
+ * solvers for every ChargeType, the batch and parallel field engines, problem generation and grading. It runs
+ * headless, prints a table and writes the results as a JMH-style JSON array, so results of two releases can be
+ * compared with JMH tooling or with {@code --baseline}.
+ *
+ * Usage: BenchmarkSuite [--filter regex] [--warmup n] [--iterations n] [--time ms] [--out file] [--baseline file].
+ * Every benchmark runs in this JVM one after another; run the suite on an otherwise idle machine and compare results
+ * taken with the same options.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class BenchmarkSuite {
+
+    static final int POINTS = 1024;
+    static final int CLOUD = 2000;
+    static final int KERNEL_SOURCES = 256; // kernel benchmarks count one operation per target-source pair
+    static final int PROBLEMS = 4 * ProblemGenerator.CHUNK_SIZE;
+    static final int LOG_RECORDS = 1 << 20; // attempt logs are replaced at this size to bound disk use
+    private static final Pattern BASELINE = Pattern.compile(
+            "\"benchmark\"\\s*:\\s*\"([^\"]+)\".*?\"primaryMetric\"\\s*:\\s*\\{\\s*\"score\"\\s*:\\s*([-0-9.eE+]+)",
+            Pattern.DOTALL);
+
+    /**
+     * Setup interface for benchmarks that build their state before they are measured.
+     */
+    private interface Setup {
+
+        /**
+         * Method that builds the state of a benchmark.
+         * @param resources List of Closeable to which resources released after the benchmark are added.
+         * @return Workload performing the operations.
+         * @throws Exception if the state cannot be built.
+         */
+        BenchmarkHarness.Workload create(List<Closeable> resources) throws Exception;
+    }
+
+    private static final class Case {
+
+        private final String name;
+        private final int batch;
+        private final Setup setup;
+
+        private Case(String name, int batch, Setup setup) {
+            this.name = name;
+            this.batch = batch;
+            this.setup = setup;
+        }
+    }
+
+    private BenchmarkSuite() {
+    }
+
+    /**
+     * Main method for running the suite from the command line.
+     * @param args String arguments holding the options.
+     */
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IOException e) {
+            System.err.println("Benchmark failed: " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Method that runs the selected benchmarks and reports them.
+     * @param args String arguments holding the options.
+     * @return int representing the exit status, 0 on success and 2 for a usage error.
+     * @throws Exception if a benchmark fails or the results cannot be written.
+     */
+    public static int run(String[] args) throws Exception {
+        Pattern filter = null;
+        int warmup = 3;
+        int iterations = 5;
+        long time = 1000;
+        Path out = Paths.get("fieldgen-bench.json");
+        Path baseline = null;
+        for (int a = 0; a < args.length; a++) {
+            if (a + 1 >= args.length) {
+                return usage("Missing value for " + args[a] + ".");
+            }
+            try {
+                if (args[a].equals("--filter")) {
+                    filter = Pattern.compile(args[++a]);
+                } else if (args[a].equals("--warmup")) {
+                    warmup = Integer.parseInt(args[++a]);
+                } else if (args[a].equals("--iterations")) {
+                    iterations = Integer.parseInt(args[++a]);
+                } else if (args[a].equals("--time")) {
+                    time = Long.parseLong(args[++a]);
+                } else if (args[a].equals("--out")) {
+                    out = Paths.get(args[++a]);
+                } else if (args[a].equals("--baseline")) {
+                    baseline = Paths.get(args[++a]);
+                } else {
+                    return usage("Unknown option " + args[a] + ".");
+                }
+            } catch (NumberFormatException e) {
+                return usage("Option " + args[a - 1] + " needs a number.");
+            } catch (PatternSyntaxException e) {
+                return usage("Filter is not a regular expression: " + e.getDescription() + ".");
+            }
+        }
+        if (warmup < 0 || iterations < 1 || time < 1) {
+            return usage("Iterations and time must be positive.");
+        }
+        Map<String, Double> previous = baseline == null ? null : readScores(baseline);
+
+        BenchmarkHarness harness = new BenchmarkHarness(warmup, iterations, time);
+        List<BenchmarkResult> results = new ArrayList<>();
+        System.out.printf(Locale.ROOT, "%-44s %14s %12s %10s%s%n", "Benchmark", "ops/s", "error", "B/op",
+                previous == null ? "" : "   vs base");
+        for (Case benchmark : cases()) {
+            if (filter != null && !filter.matcher(benchmark.name).find()) {
+                continue;
+            }
+            List<Closeable> resources = new ArrayList<>();
+            BenchmarkResult result;
+            try {
+                result = harness.measure(benchmark.name, benchmark.batch, benchmark.setup.create(resources));
+            } finally {
+                for (Closeable resource : resources) {
+                    resource.close();
+                }
+            }
+            results.add(result);
+            System.out.printf(Locale.ROOT, "%-44s %14.1f %12.1f %10.1f%s%n", result.getName(), result.getScore(),
+                    result.getScoreError(), result.getBytesPerOperation(), compare(previous, result));
+        }
+
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            json.append("  ").append(results.get(i).toJson()).append(i + 1 < results.size() ? ",\n" : "\n");
+        }
+        Files.write(out, json.append("]\n").toString().getBytes(StandardCharsets.UTF_8));
+        System.out.println(results.size() + " benchmarks written to " + out
+                + (BenchmarkHarness.measuresAllocation() ? "" : " (allocation is not measured on this JVM)"));
+        return 0;
+    }
+
+    private static List<Case> cases() {
+        List<Case> cases = new ArrayList<>();
+        cases.add(new Case("solver.distanceFormula", POINTS, resources -> {
+            double[][] points = points(1);
+            double[] x = points[0];
+            double[] y = points[1];
+            return operations -> {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    sum += FieldSolver.distanceFormula(x[i], y[i]);
+                }
+                return sum;
+            };
+        }));
+        cases.add(new Case("solver.pointFieldSolver", POINTS, resources -> {
+            double[] distance = points(2)[0];
+            return operations -> {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    sum += FieldSolver.pointFieldSolver(distance[i], i);
+                }
+                return sum;
+            };
+        }));
+        for (ChargeType type : ChargeType.values()) {
+            cases.add(new Case("solver.solve." + type, POINTS, resources -> {
+                double[] distance = points(3)[0];
+                return operations -> {
+                    double sum = 0;
+                    for (int i = 0; i < operations; i++) {
+                        sum += FieldSolver.solve(type, distance[i], 5, 4);
+                    }
+                    return sum;
+                };
+            }));
+        }
+        for (ChargeType type : ChargeType.values()) {
+            cases.add(new Case("solver.field." + type, POINTS, resources -> {
+                double[][] points = points(5);
+                double[] vector = new double[3];
+                return operations -> {
+                    for (int i = 0; i < operations; i++) {
+                        FieldSolver.addField(type, 5, 4, points[0][i], points[1][i], points[2][i], vector, 0);
+                    }
+                    return vector[0] + vector[1] + vector[2];
+                };
+            }));
+        }
+        for (ChargeType type : ChargeType.values()) {
+            cases.add(new Case("solver.BatchFieldSolver." + type, POINTS, resources -> {
+                BatchFieldSolver solver = new BatchFieldSolver(type, 5, 4);
+                double[][] points = points(4);
+                double[] ex = new double[POINTS];
+                double[] ey = new double[POINTS];
+                double[] ez = new double[POINTS];
+                return operations -> {
+                    solver.evaluate(points[0], points[1], points[2], ex, ey, ez, 0, operations);
+                    return ex[operations - 1];
+                };
+            }));
+        }
+        cases.add(new Case("solver.CoulombKernel.lanes", POINTS * KERNEL_SOURCES, resources -> kernelWorkload(false)));
+        cases.add(new Case("solver.CoulombKernel.scalar", POINTS * KERNEL_SOURCES, resources -> kernelWorkload(true)));
+        cases.add(new Case("solver.DirectSummation.parallel", POINTS, resources -> {
+            DirectSummation direct = new DirectSummation(cloud(), ForkJoinPool.commonPool());
+            return cloudWorkload(direct::evaluate);
+        }));
+        cases.add(new Case("solver.FastMultipole.parallel", POINTS, resources -> {
+            FastMultipole fmm = new FastMultipole(cloud(), 4, ForkJoinPool.commonPool());
+            return cloudWorkload(fmm::evaluate);
+        }));
+        cases.add(new Case("batch.RecordChunk.compute", BatchPipeline.DEFAULT_CHUNK_SIZE, resources -> {
+            RecordChunk chunk = new RecordChunk(BatchPipeline.DEFAULT_CHUNK_SIZE);
+            return operations -> {
+                fill(chunk, 0, operations);
+                chunk.compute();
+                return chunk.getMagnitude(operations - 1);
+            };
+        }));
+        cases.add(new Case("batch.BatchPipeline.run", PROBLEMS, resources -> {
+            BatchPipeline pipeline = new BatchPipeline();
+            return operations -> pipeline.run(new GeneratedReader(operations), new DiscardingWriter()) > 0 ? 1 : 0;
+        }));
+        cases.add(new Case("problem.ProblemGenerator.generate", PROBLEMS, resources -> {
+            ProblemGenerator generator = new ProblemGenerator();
+            ChargeType[] types = ChargeType.values();
+            double[] sum = new double[1];
+            return operations -> {
+                generator.generate(operations, operations, types, chunk -> sum[0] += chunk.getAnswer(0));
+                return sum[0];
+            };
+        }));
+        cases.add(new Case("problem.ProblemSpace.random", POINTS, resources -> {
+            SplittableRandom random = new SplittableRandom(5);
+            return operations -> {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    sum += ProblemSpace.random(ChargeType.POINTCHARGE, random).getAnswer();
+                }
+                return sum;
+            };
+        }));
+        cases.add(new Case("problem.FreshProblemSampler.next", POINTS, resources -> {
+            FreshProblemSampler sampler = new FreshProblemSampler();
+            SplittableRandom random = new SplittableRandom(6);
+            ChargeType[] types = ChargeType.values();
+            return operations -> {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    sum += sampler.next(types[i % types.length], random);
+                }
+                return sum;
+            };
+        }));
+        cases.add(new Case("grading.ProblemSpace.answer", POINTS, resources -> {
+            int[][] problems = problems(7);
+            ChargeType[] types = ChargeType.values();
+            return operations -> {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    Problem problem = ProblemSpace.problem(types[problems[0][i]], problems[1][i]);
+                    sum += problem.getAnswer();
+                }
+                return sum;
+            };
+        }));
+        cases.add(new Case("grading.AnswerKeyTable.answer", POINTS, resources -> {
+            AnswerKeyTable keys = AnswerKeyTable.compute();
+            int[][] problems = problems(7);
+            ChargeType[] types = ChargeType.values();
+            return operations -> {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    sum += keys.answer(types[problems[0][i]], problems[1][i]);
+                }
+                return sum;
+            };
+        }));
+        cases.add(new Case("grading.AnswerKeyTable.isCorrect", POINTS, resources -> {
+            AnswerKeyTable keys = AnswerKeyTable.compute();
+            int[][] problems = problems(8);
+            ChargeType[] types = ChargeType.values();
+            return operations -> {
+                int correct = 0;
+                for (int i = 0; i < operations; i++) {
+                    correct += keys.isCorrect(types[problems[0][i]], problems[1][i], i % 100) ? 1 : 0;
+                }
+                return correct;
+            };
+        }));
+        cases.add(new Case("session.SessionStore.update", POINTS, resources -> {
+            SessionStore sessions = new SessionStore(POINTS, Duration.ofHours(1));
+            String[] ids = new String[POINTS];
+            for (int i = 0; i < POINTS; i++) {
+                ids[i] = "student-" + i;
+                sessions.getOrCreate(ids[i]);
+            }
+            return operations -> {
+                double sum = 0;
+                for (int i = 0; i < operations; i++) {
+                    sum += sessions.update(ids[i], session -> session.withAttempt((session.getAttempts() & 1) == 0))
+                            .getCorrect();
+                }
+                return sum;
+            };
+        }));
+        cases.add(new Case("session.AttemptLog.append", POINTS, resources -> {
+            Path directory = Files.createTempDirectory("fieldgen-bench");
+            AttemptLogs logs = new AttemptLogs(directory);
+            resources.add(logs);
+            Problem[] problems = new Problem[POINTS];
+            String[] students = new String[POINTS];
+            SplittableRandom random = new SplittableRandom(9);
+            for (int i = 0; i < POINTS; i++) {
+                problems[i] = ProblemSpace.random(ChargeType.values()[i % ChargeType.values().length], random);
+                students[i] = "student-" + (i % 97);
+            }
+            return operations -> {
+                AttemptLog log = logs.current(operations);
+                long last = 0;
+                for (int i = 0; i < operations; i++) {
+                    last = log.append(students[i], problems[i], i, (i & 1) == 0, 1_000_000);
+                }
+                return last;
+            };
+        }));
+        return cases;
+    }
+
+    /**
+     * FieldEvaluation interface for the evaluate method shared by the field engines.
+     */
+    private interface FieldEvaluation {
+
+        /**
+         * Method that evaluates the field at a range of points.
+         * @param x double array of x coordinates.
+         * @param y double array of y coordinates.
+         * @param z double array of z coordinates.
+         * @param ex double array receiving the x components.
+         * @param ey double array receiving the y components.
+         * @param ez double array receiving the z components.
+         * @param from int representing the first point.
+         * @param to int representing the end of the range, exclusive.
+         */
+        void evaluate(double[] x, double[] y, double[] z, double[] ex, double[] ey, double[] ez, int from, int to);
+    }
+
+    private static BenchmarkHarness.Workload kernelWorkload(boolean scalar) {
+        double[][] targets = points(12);
+        double[][] sources = points(13);
+        double[] q = points(14)[0];
+        double[] ex = new double[POINTS];
+        double[] ey = new double[POINTS];
+        double[] ez = new double[POINTS];
+        return operations -> {
+            if (scalar) {
+                CoulombKernel.accumulateScalar(targets[0], targets[1], targets[2], 0, POINTS, sources[0], sources[1],
+                        sources[2], q, 0, KERNEL_SOURCES, ex, ey, ez, 0);
+            } else {
+                CoulombKernel.accumulate(targets[0], targets[1], targets[2], 0, POINTS, sources[0], sources[1],
+                        sources[2], q, 0, KERNEL_SOURCES, ex, ey, ez, 0);
+            }
+            return ex[POINTS - 1];
+        };
+    }
+
+    private static BenchmarkHarness.Workload cloudWorkload(FieldEvaluation engine) {
+        double[][] points = points(10);
+        double[] ex = new double[POINTS];
+        double[] ey = new double[POINTS];
+        double[] ez = new double[POINTS];
+        return operations -> {
+            engine.evaluate(points[0], points[1], points[2], ex, ey, ez, 0, operations);
+            return ex[operations - 1];
+        };
+    }
+
+    private static double[][] points(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[][] points = new double[3][POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            for (int axis = 0; axis < 3; axis++) {
+                points[axis][i] = random.nextDouble(-10, 10);
+            }
+        }
+        return points;
+    }
+
+    private static PointChargeSet cloud() {
+        SplittableRandom random = new SplittableRandom(11);
+        PointChargeSet charges = new PointChargeSet(CLOUD);
+        for (int i = 0; i < CLOUD; i++) {
+            charges.add(random.nextDouble(-10, 10), random.nextDouble(-10, 10), random.nextDouble(-10, 10),
+                    random.nextDouble(-5, 5));
+        }
+        return charges;
+    }
+
+    private static int[][] problems(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ChargeType[] types = ChargeType.values();
+        int[][] problems = new int[2][POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            problems[0][i] = i % types.length;
+            problems[1][i] = ProblemSpace.randomIndex(types[problems[0][i]], random);
+        }
+        return problems;
+    }
+
+    private static void fill(RecordChunk chunk, long first, int records) {
+        ChargeType[] types = ChargeType.values();
+        chunk.reset(first);
+        for (int i = 0; i < records; i++) {
+            long record = first + i;
+            chunk.add(types[(int) (record % types.length)], 1 + record % 9, 2 + record % 5, record % 13 - 6,
+                    record % 7 - 3, record % 3 - 1);
+        }
+    }
+
+    /**
+     * GeneratedReader class that supplies synthetic records to the batch pipeline without any input file.
+     */
+    private static final class GeneratedReader implements RecordReader {
+
+        private final long records;
+        private long read;
+
+        private GeneratedReader(long records) {
+            this.records = records;
+        }
+
+        @Override
+        public int read(RecordChunk chunk) {
+            int size = (int) Math.min(chunk.capacity(), records - read);
+            fill(chunk, read, size);
+            read += size;
+            return size;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * DiscardingWriter class that drops the results of the batch pipeline, so only the computation is measured.
+     */
+    private static final class DiscardingWriter implements RecordWriter {
+
+        @Override
+        public void write(RecordChunk chunk) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * AttemptLogs class that replaces the attempt log under measurement once it holds {@value #LOG_RECORDS} records,
+     * so a long run does not fill the disk, and deletes every log it created when closed.
+     */
+    private static final class AttemptLogs implements Closeable {
+
+        private final Path directory;
+        private AttemptLog log;
+        private int generation;
+
+        private AttemptLogs(Path directory) {
+            this.directory = directory;
+        }
+
+        private AttemptLog current(int operations) throws IOException {
+            if (log != null && log.size() + operations > LOG_RECORDS) {
+                retire();
+            }
+            if (log == null) {
+                log = new AttemptLog(directory.resolve("attempts-" + generation++ + ".efa"));
+            }
+            return log;
+        }
+
+        private void retire() throws IOException {
+            log.close();
+            log = null;
+            Files.delete(directory.resolve("attempts-" + (generation - 1) + ".efa"));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (log != null) {
+                retire();
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static Map<String, Double> readScores(Path path) throws IOException {
+        Map<String, Double> scores = new HashMap<>();
+        Matcher matcher = BASELINE.matcher(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+        while (matcher.find()) {
+            scores.put(matcher.group(1), Double.parseDouble(matcher.group(2)));
+        }
+        return scores;
+    }
+
+    private static String compare(Map<String, Double> previous, BenchmarkResult result) {
+        if (previous == null) {
+            return "";
+        }
+        Double before = previous.get(result.getName());
+        return before == null || before <= 0 ? "          -" : String.format(Locale.ROOT, "   %7.3fx",
+                result.getScore() / before);
+    }
+
+    private static int usage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: BenchmarkSuite [--filter regex] [--warmup n] [--iterations n] [--time ms]");
+        System.err.println("                      [--out file] [--baseline file]");
+        System.err.println("Results are written as JMH-style JSON; --baseline compares with an earlier file.");
+        return 2;
+    }
+}
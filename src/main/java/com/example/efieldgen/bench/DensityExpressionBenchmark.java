@@ -0,0 +1,95 @@
+package com.example.efieldgen.bench;
+
+import com.example.efieldgen.solver.DensityExpression;
+import com.example.efieldgen.solver.VariableDensityField;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * DensityExpressionBenchmark class that compares compiled DensityExpressions with walking their syntax tree for
+ * every sample, first on raw evaluations and then inside the quadrature of a VariableDensityField, and prints one
+ * CSV row per expression.
+ *
+ * Usage: DensityExpressionBenchmark [samples] [points], e.g. {@code 10000000 20000}.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class DensityExpressionBenchmark {
+
+    static final String[] EXPRESSIONS = {
+            "rho(r) = 3*r^2*exp(-r)",
+            "rho(r) = 2.5 / (1 + (r/0.3)^2)",
+            "rho(r) = (1 - r^2/4) * cos(pi*r/4)^2 + 0.1*sqrt(r)",
+            "rho(r) = 4*pi*1e-3*exp(-(r - 1)^2 / (2*0.25^2)) / sqrt(2*pi*0.25^2)"};
+    static final double RADIUS = 2;
+
+    private DensityExpressionBenchmark() {
+    }
+
+    /**
+     * Main method for running the benchmark from the command line.
+     * @param args String arguments holding the number of samples and of field points, both optional.
+     */
+    public static void main(String[] args) {
+        int samples = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 10_000_000;
+        int points = args.length > 1 ? Integer.parseInt(args[1].replace("_", "")) : 20_000;
+
+        System.out.println("expression,interpreted_ns,compiled_ns,speedup,field_interpreted_ms,field_compiled_ms,"
+                + "field_speedup,relative_difference");
+        for (String text : EXPRESSIONS) {
+            DensityExpression expression = DensityExpression.parse(text);
+            DoubleUnaryOperator interpreted = expression::evaluate;
+            DoubleUnaryOperator compiled = expression.compiled();
+
+            sweep(interpreted, samples / 10); // warm-up
+            sweep(compiled, samples / 10);
+            long start = System.nanoTime();
+            double interpretedSum = sweep(interpreted, samples);
+            double interpretedNs = (System.nanoTime() - start) / (double) samples;
+            start = System.nanoTime();
+            double compiledSum = sweep(compiled, samples);
+            double compiledNs = (System.nanoTime() - start) / (double) samples;
+
+            double[] x = new double[points];
+            double[] y = new double[points];
+            double[] z = new double[points];
+            for (int i = 0; i < points; i++) {
+                x[i] = 2 * RADIUS * (i + 0.5) / points;
+            }
+            double[] ex = new double[points];
+            double[] ey = new double[points];
+            double[] ez = new double[points];
+            double interpretedMs = field(VariableDensityField.sphere(interpreted, RADIUS), x, y, z, ex, ey, ez);
+            double compiledMs = field(VariableDensityField.sphere(compiled, RADIUS), x, y, z, ex, ey, ez);
+
+            System.out.printf("\"%s\",%.2f,%.2f,%.2f,%.1f,%.1f,%.2f,%.1e%n", text, interpretedNs, compiledNs,
+                    interpretedNs / compiledNs, interpretedMs, compiledMs, interpretedMs / compiledMs,
+                    Math.abs(interpretedSum - compiledSum) / Math.max(1e-300, Math.abs(interpretedSum)));
+        }
+    }
+
+    /**
+     * Method that samples a density across the radius so the JIT cannot fold the calls away.
+     */
+    static double sweep(DoubleUnaryOperator density, int samples) {
+        double sum = 0;
+        double step = RADIUS / samples;
+        for (int i = 0; i < samples; i++) {
+            sum += density.applyAsDouble(i * step);
+        }
+        return sum;
+    }
+
+    /**
+     * Method that times the field of a sphere, after one warm-up pass.
+     * @return double representing the time of the measured pass in milliseconds.
+     */
+    static double field(VariableDensityField field, double[] x, double[] y, double[] z, double[] ex, double[] ey,
+                        double[] ez) {
+        field.evaluate(x, y, z, ex, ey, ez, 0, x.length / 10);
+        long start = System.nanoTime();
+        field.evaluate(x, y, z, ex, ey, ez, 0, x.length);
+        return (System.nanoTime() - start) / 1e6;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.efieldgen.bench;
+
+import com.example.efieldgen.solver.ApproximationError;
+import com.example.efieldgen.solver.DirectSummation;
+import com.example.efieldgen.solver.FastMultipole;
+import com.example.efieldgen.solver.PointChargeSet;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * FmmCrossoverBenchmark class that times FastMultipole against DirectSummation for growing clouds of charges in
+ * which every charge is also an observation point, and prints one CSV row per size and expansion order so the
+ * crossover point can be read off or plotted.
+ *
+ * Usage: FmmCrossoverBenchmark [sizes] [orders] [threads], e.g. {@code 1000,10000,100000 3,5 8}. Direct summation
+ * is only run in full up to {@value #FULL_DIRECT_LIMIT} charges; beyond that it is timed on a sample of observation
+ * points and scaled up, which is exact for an O(N * M) method up to timer noise, and flagged in the output.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class FmmCrossoverBenchmark {
+
+    static final int FULL_DIRECT_LIMIT = 50_000;
+    static final int DIRECT_SAMPLE = 2_000;
+    static final int ERROR_SAMPLE = 500;
+
+    private FmmCrossoverBenchmark() {
+    }
+
+    /**
+     * Main method for running the benchmark from the command line.
+     * @param args String arguments holding the sizes, orders and thread count, all optional.
+     */
+    public static void main(String[] args) {
+        int[] sizes = parseList(args.length > 0 ? args[0] : "1000,4000,16000,64000,256000");
+        int[] orders = parseList(args.length > 1 ? args[1] : "4");
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        System.out.println("sources,order,threads,direct_ms,direct_estimated,fmm_ms,speedup,rms_error,max_error");
+        for (int n : sizes) {
+            PointChargeSet charges = randomCloud(n, 42);
+            double[] x = new double[n];
+            double[] y = new double[n];
+            double[] z = new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = charges.getX(i);
+                y[i] = charges.getY(i);
+                z[i] = charges.getZ(i);
+            }
+            double[] ex = new double[n];
+            double[] ey = new double[n];
+            double[] ez = new double[n];
+
+            DirectSummation direct = new DirectSummation(charges, pool);
+            boolean estimated = n > FULL_DIRECT_LIMIT;
+            int directPoints = estimated ? DIRECT_SAMPLE : n;
+            direct.evaluate(x, y, z, ex, ey, ez, 0, Math.min(directPoints, 256)); // warm-up
+            long start = System.nanoTime();
+            direct.evaluate(x, y, z, ex, ey, ez, 0, directPoints);
+            double directMs = (System.nanoTime() - start) / 1e6 * n / directPoints;
+
+            for (int order : orders) {
+                FastMultipole fmm = new FastMultipole(charges, order, pool);
+                fmm.evaluate(x, y, z, ex, ey, ez, 0, Math.min(n, 1000)); // warm-up
+                start = System.nanoTime();
+                fmm.evaluate(x, y, z, ex, ey, ez, 0, n);
+                double fmmMs = (System.nanoTime() - start) / 1e6;
+                ApproximationError error = ApproximationError.compare(fmm, direct, x, y, z, 0, n, ERROR_SAMPLE);
+                System.out.printf("%d,%d,%d,%.1f,%b,%.1f,%.2f,%.3e,%.3e%n", n, order, threads, directMs, estimated,
+                        fmmMs, directMs / fmmMs, error.getRmsRelative(), error.getMaxRelative());
+            }
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Method that fills a unit cube with charges of random sign and magnitude up to 10 nC.
+     * @param n int representing the number of charges.
+     * @param seed long representing the seed of the random generator.
+     * @return PointChargeSet holding the charges.
+     */
+    static PointChargeSet randomCloud(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        PointChargeSet charges = new PointChargeSet(n);
+        for (int i = 0; i < n; i++) {
+            charges.add(random.nextDouble(), random.nextDouble(), random.nextDouble(),
+                    random.nextDouble(-10, 10));
+        }
+        return charges;
+    }
+
+    /**
+     * Method that parses a comma-separated list of integers.
+     */
+    static int[] parseList(String list) {
+        String[] parts = list.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim().replace("_", ""));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.efieldgen.grid;
+
+import com.example.efieldgen.solver.FieldSource;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * FieldMapGenerator class that computes the electric field of any FieldSource over a GridSpec. The grid is cut
+ * into cache-sized tiles ({@value #PLANE_TILE} x {@value #PLANE_TILE} points in 2D, {@value #CUBE_TILE}^3 in 3D)
+ * that are computed on a worker pool and handed to a TileSink as soon as each one is done.
+ *
+ * Only a fixed number of tile buffers exist at any time, so generating a 4096 x 4096 map or a 512^3 volume needs a
+ * few megabytes of heap no matter how large the grid is. When every buffer is in flight the generator waits for
+ * the sink to drain one before computing more.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class FieldMapGenerator {
+
+    static final int PLANE_TILE = 64;
+    static final int CUBE_TILE = 16;
+
+    private final FieldSource source;
+    private final Executor executor;
+    private final int buffers;
+
+    /**
+     * Constructor that computes tiles on the common ForkJoinPool.
+     * @param source FieldSource describing the charge configuration.
+     */
+    public FieldMapGenerator(FieldSource source) {
+        this(source, ForkJoinPool.commonPool(), 2 * ForkJoinPool.getCommonPoolParallelism() + 2);
+    }
+
+    /**
+     * Constructor that computes tiles on a specific worker pool.
+     * @param source FieldSource describing the charge configuration.
+     * @param executor Executor whose threads compute the tiles.
+     * @param buffers int representing the number of tile buffers, which bounds the tiles in flight.
+     */
+    public FieldMapGenerator(FieldSource source, Executor executor, int buffers) {
+        if (source == null || executor == null) {
+            throw new IllegalArgumentException("Source and executor must not be null.");
+        }
+        if (buffers < 1) {
+            throw new IllegalArgumentException("At least one tile buffer is required.");
+        }
+        this.source = source;
+        this.executor = executor;
+        this.buffers = buffers;
+    }
+
+    /**
+     * Method that computes the whole grid and streams every tile to the sink.
+     * @param grid GridSpec describing the observation points.
+     * @param sink TileSink receiving each computed tile on the calling thread.
+     * @throws IOException if the sink fails; computation stops after the tiles already in flight.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for tiles.
+     */
+    public void generate(GridSpec grid, TileSink sink) throws IOException, InterruptedException {
+        int tileX = grid.is2D() ? PLANE_TILE : CUBE_TILE;
+        int tileY = tileX;
+        int tileZ = grid.is2D() ? 1 : CUBE_TILE;
+        int tilesX = (grid.getNx() + tileX - 1) / tileX;
+        int tilesY = (grid.getNy() + tileY - 1) / tileY;
+        int tilesZ = (grid.getNz() + tileZ - 1) / tileZ;
+        long tileCount = (long) tilesX * tilesY * tilesZ;
+
+        BlockingQueue<FieldTile> free = new ArrayBlockingQueue<>(buffers);
+        BlockingQueue<Result> done = new ArrayBlockingQueue<>(buffers);
+        for (int b = 0; b < buffers; b++) {
+            free.add(new FieldTile(tileX * tileY * tileZ));
+        }
+
+        long submitted = 0;
+        long finished = 0;
+        Throwable failure = null;
+        while (finished < submitted || (failure == null && submitted < tileCount)) {
+            FieldTile tile;
+            while (failure == null && submitted < tileCount && (tile = free.poll()) != null) {
+                int tx = (int) (submitted % tilesX);
+                int ty = (int) ((submitted / tilesX) % tilesY);
+                int tz = (int) (submitted / ((long) tilesX * tilesY));
+                int i0 = tx * tileX;
+                int j0 = ty * tileY;
+                int k0 = tz * tileZ;
+                tile.bind(grid, i0, j0, k0, Math.min(tileX, grid.getNx() - i0), Math.min(tileY, grid.getNy() - j0),
+                        Math.min(tileZ, grid.getNz() - k0));
+                final FieldTile work = tile;
+                executor.execute(() -> {
+                    Throwable error = null;
+                    try {
+                        work.compute(source);
+                    } catch (RuntimeException | Error e) {
+                        error = e;
+                    }
+                    done.add(new Result(work, error));
+                });
+                submitted++;
+            }
+            Result result = done.take();
+            finished++;
+            if (failure == null) {
+                if (result.error != null) {
+                    failure = result.error;
+                } else {
+                    try {
+                        sink.accept(result.tile);
+                    } catch (IOException | RuntimeException e) {
+                        failure = e;
+                    }
+                }
+            }
+            free.add(result.tile);
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    /**
+     * A computed tile, or the error raised while computing it.
+     */
+    private static final class Result {
+        private final FieldTile tile;
+        private final Throwable error;
+
+        Result(FieldTile tile, Throwable error) {
+            this.tile = tile;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.efieldgen.grid;
+
+import com.example.efieldgen.solver.BatchFieldSolver;
+import com.example.efieldgen.solver.FieldSource;
+
+/**
+ * FieldTile class holding one rectangular block of a GridSpec together with the field computed at its points.
+ * Points are stored in struct-of-arrays form in x-fastest order within the tile. Tiles are reusable buffers:
+ * FieldMapGenerator binds the same few tiles to successive blocks of the grid, so a sink must copy anything it
+ * wants to keep before returning.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class FieldTile {
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final double[] ex;
+    private final double[] ey;
+    private final double[] ez;
+    private final double[] magnitude;
+
+    private GridSpec grid;
+    private int i0;
+    private int j0;
+    private int k0;
+    private int ni;
+    private int nj;
+    private int nk;
+    private int size;
+
+    /**
+     * Constructor that allocates a tile able to hold the given number of points.
+     * @param capacity int representing the largest number of points in a tile.
+     */
+    public FieldTile(int capacity) {
+        x = new double[capacity];
+        y = new double[capacity];
+        z = new double[capacity];
+        ex = new double[capacity];
+        ey = new double[capacity];
+        ez = new double[capacity];
+        magnitude = new double[capacity];
+    }
+
+    /**
+     * Method that points the tile at a block of the grid and fills in the coordinates of its points.
+     * @param spec GridSpec the block belongs to.
+     * @param i0 int representing the first x-index of the block.
+     * @param j0 int representing the first y-index of the block.
+     * @param k0 int representing the first z-index of the block.
+     * @param ni int representing the number of points along x.
+     * @param nj int representing the number of points along y.
+     * @param nk int representing the number of points along z.
+     */
+    public void bind(GridSpec spec, int i0, int j0, int k0, int ni, int nj, int nk) {
+        int count = ni * nj * nk;
+        if (count > x.length) {
+            throw new IllegalArgumentException("Block of " + count + " points exceeds tile capacity " + x.length);
+        }
+        this.grid = spec;
+        this.i0 = i0;
+        this.j0 = j0;
+        this.k0 = k0;
+        this.ni = ni;
+        this.nj = nj;
+        this.nk = nk;
+        this.size = count;
+        int p = 0;
+        for (int k = 0; k < nk; k++) {
+            double pz = spec.z(k0 + k);
+            for (int j = 0; j < nj; j++) {
+                double py = spec.y(j0 + j);
+                for (int i = 0; i < ni; i++) {
+                    x[p] = spec.x(i0 + i);
+                    y[p] = py;
+                    z[p] = pz;
+                    p++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Method that evaluates a FieldSource at every point of the tile and derives the field magnitudes.
+     * @param source FieldSource describing the charge configuration.
+     */
+    public void compute(FieldSource source) {
+        source.evaluate(x, y, z, ex, ey, ez, 0, size);
+        BatchFieldSolver.magnitudes(ex, ey, ez, magnitude, 0, size);
+    }
+
+    /**
+     * Method that finds a point of the tile by its offsets within the block.
+     * @return int representing the index of the point in the tile arrays.
+     */
+    public int offset(int i, int j, int k) {
+        return i + ni * (j + nj * k);
+    }
+
+    public GridSpec getGrid() {
+        return grid;
+    }
+
+    public int getI0() {
+        return i0;
+    }
+
+    public int getJ0() {
+        return j0;
+    }
+
+    public int getK0() {
+        return k0;
+    }
+
+    public int getNi() {
+        return ni;
+    }
+
+    public int getNj() {
+        return nj;
+    }
+
+    public int getNk() {
+        return nk;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return x.length;
+    }
+
+    public double[] xArray() {
+        return x;
+    }
+
+    public double[] yArray() {
+        return y;
+    }
+
+    public double[] zArray() {
+        return z;
+    }
+
+    public double[] exArray() {
+        return ex;
+    }
+
+    public double[] eyArray() {
+        return ey;
+    }
+
+    public double[] ezArray() {
+        return ez;
+    }
+
+    public double[] magnitudeArray() {
+        return magnitude;
+    }
+}
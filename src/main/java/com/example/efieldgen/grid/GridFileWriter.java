@@ -0,0 +1,125 @@
+package com.example.efieldgen.grid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * GridFileWriter class that stores streamed tiles in a binary field-map file. The file starts with a
+ * {@value #HEADER_BYTES}-byte header holding the grid definition, followed by one record of
+ * {@value #RECORD_BYTES} bytes per grid point in x-fastest order: Ex, Ey, Ez and |E| as little-endian doubles.
+ * Each row of a tile is written straight to its place in the file, so tiles may arrive in any order.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class GridFileWriter implements TileSink, Closeable {
+
+    public static final int MAGIC = 0x45464731; // "EFG1"
+    public static final int HEADER_BYTES = 128;
+    public static final int RECORD_BYTES = 4 * Double.BYTES;
+
+    private final FileChannel channel;
+    private final GridSpec grid;
+    private final ByteBuffer row;
+
+    /**
+     * Constructor that creates, or truncates, a field-map file and writes its header.
+     * @param path Path of the file to write.
+     * @param grid GridSpec of the tiles that will be written.
+     * @throws IOException if the file cannot be created.
+     */
+    public GridFileWriter(Path path, GridSpec grid) throws IOException {
+        this.grid = grid;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.row = ByteBuffer.allocateDirect(FieldMapGenerator.PLANE_TILE * RECORD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        writeHeader(header, grid);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, HEADER_BYTES - header.remaining());
+        }
+    }
+
+    /**
+     * Method that encodes the grid definition at the current position of a buffer.
+     * @param buffer ByteBuffer with at least HEADER_BYTES remaining, in little-endian order.
+     * @param grid GridSpec to encode.
+     */
+    public static void writeHeader(ByteBuffer buffer, GridSpec grid) {
+        int start = buffer.position();
+        buffer.putInt(MAGIC);
+        buffer.putInt(RECORD_BYTES);
+        buffer.putInt(grid.getNx());
+        buffer.putInt(grid.getNy());
+        buffer.putInt(grid.getNz());
+        buffer.putInt(0);
+        buffer.putDouble(grid.getX0());
+        buffer.putDouble(grid.getY0());
+        buffer.putDouble(grid.getZ0());
+        buffer.putDouble(grid.getDx());
+        buffer.putDouble(grid.getDy());
+        buffer.putDouble(grid.getDz());
+        while (buffer.position() < start + HEADER_BYTES) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * Method that decodes a grid definition written by {@link #writeHeader}.
+     * @param buffer ByteBuffer positioned at the header, in little-endian order.
+     * @return GridSpec stored in the header.
+     * @throws IOException if the header is not a field-map header.
+     */
+    public static GridSpec readHeader(ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != RECORD_BYTES) {
+            throw new IOException("Not a FieldGen field-map file.");
+        }
+        int nx = buffer.getInt();
+        int ny = buffer.getInt();
+        int nz = buffer.getInt();
+        buffer.getInt();
+        GridSpec grid = new GridSpec(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                buffer.getDouble(), buffer.getDouble(), nx, ny, nz);
+        buffer.position(start + HEADER_BYTES);
+        return grid;
+    }
+
+    @Override
+    public void accept(FieldTile tile) throws IOException {
+        double[] ex = tile.exArray();
+        double[] ey = tile.eyArray();
+        double[] ez = tile.ezArray();
+        double[] magnitude = tile.magnitudeArray();
+        for (int k = 0; k < tile.getNk(); k++) {
+            for (int j = 0; j < tile.getNj(); j++) {
+                row.clear();
+                int p = tile.offset(0, j, k);
+                for (int i = 0; i < tile.getNi(); i++, p++) {
+                    row.putDouble(ex[p]);
+                    row.putDouble(ey[p]);
+                    row.putDouble(ez[p]);
+                    row.putDouble(magnitude[p]);
+                }
+                row.flip();
+                long position = HEADER_BYTES + grid.index(tile.getI0(), tile.getJ0() + j, tile.getK0() + k)
+                        * RECORD_BYTES;
+                while (row.hasRemaining()) {
+                    position += channel.write(row, position);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.efieldgen.grid;
+
+/**
+ * GridSpec class describing a regular 2D or 3D grid of observation points. Point (i, j, k) lies at
+ * (x0 + i * dx, y0 + j * dy, z0 + k * dz); a 2D grid simply has a single layer with nz = 1.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class GridSpec {
+
+    private final double x0;
+    private final double y0;
+    private final double z0;
+    private final double dx;
+    private final double dy;
+    private final double dz;
+    private final int nx;
+    private final int ny;
+    private final int nz;
+
+    /**
+     * Constructor that defines a 3D grid.
+     * @param x0 double representing the x-coordinate of the first point in meters.
+     * @param y0 double representing the y-coordinate of the first point in meters.
+     * @param z0 double representing the z-coordinate of the first point in meters.
+     * @param dx double representing the spacing along x in meters.
+     * @param dy double representing the spacing along y in meters.
+     * @param dz double representing the spacing along z in meters.
+     * @param nx int representing the number of points along x.
+     * @param ny int representing the number of points along y.
+     * @param nz int representing the number of points along z.
+     */
+    public GridSpec(double x0, double y0, double z0, double dx, double dy, double dz, int nx, int ny, int nz) {
+        if (nx <= 0 || ny <= 0 || nz <= 0) {
+            throw new IllegalArgumentException("Grid must have at least one point along each axis.");
+        }
+        this.x0 = x0;
+        this.y0 = y0;
+        this.z0 = z0;
+        this.dx = dx;
+        this.dy = dy;
+        this.dz = dz;
+        this.nx = nx;
+        this.ny = ny;
+        this.nz = nz;
+    }
+
+    /**
+     * Method that defines a 2D grid in the z = 0 plane covering [xMin, xMax] x [yMin, yMax].
+     * @param xMin double representing the smallest x-coordinate.
+     * @param xMax double representing the largest x-coordinate.
+     * @param yMin double representing the smallest y-coordinate.
+     * @param yMax double representing the largest y-coordinate.
+     * @param nx int representing the number of points along x.
+     * @param ny int representing the number of points along y.
+     * @return GridSpec describing the plane.
+     */
+    public static GridSpec plane(double xMin, double xMax, double yMin, double yMax, int nx, int ny) {
+        return new GridSpec(xMin, yMin, 0, step(xMin, xMax, nx), step(yMin, yMax, ny), 0, nx, ny, 1);
+    }
+
+    /**
+     * Method that defines a 3D grid covering a box.
+     * @param min double array holding the smallest x, y and z coordinates.
+     * @param max double array holding the largest x, y and z coordinates.
+     * @param n int array holding the number of points along x, y and z.
+     * @return GridSpec describing the box.
+     */
+    public static GridSpec box(double[] min, double[] max, int[] n) {
+        return new GridSpec(min[0], min[1], min[2], step(min[0], max[0], n[0]), step(min[1], max[1], n[1]),
+                step(min[2], max[2], n[2]), n[0], n[1], n[2]);
+    }
+
+    private static double step(double min, double max, int n) {
+        return n > 1 ? (max - min) / (n - 1) : 0;
+    }
+
+    public double x(int i) {
+        return x0 + i * dx;
+    }
+
+    public double y(int j) {
+        return y0 + j * dy;
+    }
+
+    public double z(int k) {
+        return z0 + k * dz;
+    }
+
+    public double getX0() {
+        return x0;
+    }
+
+    public double getY0() {
+        return y0;
+    }
+
+    public double getZ0() {
+        return z0;
+    }
+
+    public double getDx() {
+        return dx;
+    }
+
+    public double getDy() {
+        return dy;
+    }
+
+    public double getDz() {
+        return dz;
+    }
+
+    public int getNx() {
+        return nx;
+    }
+
+    public int getNy() {
+        return ny;
+    }
+
+    public int getNz() {
+        return nz;
+    }
+
+    public boolean is2D() {
+        return nz == 1;
+    }
+
+    /**
+     * Method that counts the points of the grid, which can exceed the int range for large 3D grids.
+     * @return long representing nx * ny * nz.
+     */
+    public long pointCount() {
+        return (long) nx * ny * nz;
+    }
+
+    /**
+     * Method that numbers a point in x-fastest order.
+     * @return long representing the linear index of point (i, j, k).
+     */
+    public long index(int i, int j, int k) {
+        return i + (long) nx * (j + (long) ny * k);
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.efieldgen.grid;
+
+import com.example.efieldgen.solver.DirectSummation;
+import com.example.efieldgen.solver.FieldSolver;
+import com.example.efieldgen.solver.ParallelLoop;
+import com.example.efieldgen.solver.PointChargeSet;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * IncrementalFieldGrid class that caches the field of a point-charge set on a grid and keeps it up to date when
+ * single charges change. Moving, adding or re-valuing one charge only subtracts its old Coulomb term and adds its
+ * new one at every grid point, so an update costs O(grid) instead of the O(grid * charges) of a full recomputation,
+ * which is what keeps dragging a charge smooth in large scenes.
+ *
+ * Every update rounds a little differently from a fresh sum, so {@link #recompute()} can be called now and then,
+ * e.g. when a drag ends, to discard the accumulated drift.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class IncrementalFieldGrid {
+
+    private static final int MIN_POINTS_PER_TASK = 4096;
+
+    private final GridSpec grid;
+    private final PointChargeSet charges;
+    private final ForkJoinPool pool;
+    private final double[] ex;
+    private final double[] ey;
+    private final double[] ez;
+
+    /**
+     * Constructor that computes the field of a charge set on a grid using the common pool.
+     * @param grid GridSpec of the cached field map.
+     * @param charges PointChargeSet whose field is cached; it must only be changed through this grid from now on.
+     */
+    public IncrementalFieldGrid(GridSpec grid, PointChargeSet charges) {
+        this(grid, charges, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor that computes the field of a charge set on a grid.
+     * @param grid GridSpec of the cached field map.
+     * @param charges PointChargeSet whose field is cached; it must only be changed through this grid from now on.
+     * @param pool ForkJoinPool used for the full computation and for updates.
+     */
+    public IncrementalFieldGrid(GridSpec grid, PointChargeSet charges, ForkJoinPool pool) {
+        if (grid.pointCount() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid is too large to cache on the heap; use OffHeapFieldGrid.");
+        }
+        int points = (int) grid.pointCount();
+        this.grid = grid;
+        this.charges = charges;
+        this.pool = pool;
+        this.ex = new double[points];
+        this.ey = new double[points];
+        this.ez = new double[points];
+        recompute();
+    }
+
+    /**
+     * Method that recomputes the whole grid from scratch, discarding any rounding drift left by updates.
+     */
+    public void recompute() {
+        try {
+            new FieldMapGenerator(new DirectSummation(charges, pool), pool,
+                    2 * pool.getParallelism() + 2).generate(grid, this::store);
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory grid writes do not perform I/O.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while recomputing the field grid.", e);
+        }
+    }
+
+    private void store(FieldTile tile) {
+        for (int k = 0; k < tile.getNk(); k++) {
+            for (int j = 0; j < tile.getNj(); j++) {
+                int p = tile.offset(0, j, k);
+                int index = (int) grid.index(tile.getI0(), tile.getJ0() + j, tile.getK0() + k);
+                System.arraycopy(tile.exArray(), p, ex, index, tile.getNi());
+                System.arraycopy(tile.eyArray(), p, ey, index, tile.getNi());
+                System.arraycopy(tile.ezArray(), p, ez, index, tile.getNi());
+            }
+        }
+    }
+
+    /**
+     * Method that moves one charge and updates the cached field by its change in contribution.
+     * @param index int representing the charge to move.
+     * @param x double representing the new x-coordinate in meters.
+     * @param y double representing the new y-coordinate in meters.
+     * @param z double representing the new z-coordinate in meters.
+     */
+    public void moveCharge(int index, double x, double y, double z) {
+        double q = charges.getCharge(index);
+        update(charges.getX(index), charges.getY(index), charges.getZ(index), q, x, y, z, q);
+        charges.set(index, x, y, z, q);
+    }
+
+    /**
+     * Method that changes the value of one charge and updates the cached field accordingly.
+     * @param index int representing the charge to change.
+     * @param charge double representing the new charge in nanocoulombs.
+     */
+    public void setCharge(int index, double charge) {
+        double x = charges.getX(index);
+        double y = charges.getY(index);
+        double z = charges.getZ(index);
+        update(x, y, z, charges.getCharge(index), x, y, z, charge);
+        charges.set(index, x, y, z, charge);
+    }
+
+    /**
+     * Method that adds a charge and its contribution to the cached field.
+     * @param x double representing the x-coordinate in meters.
+     * @param y double representing the y-coordinate in meters.
+     * @param z double representing the z-coordinate in meters.
+     * @param charge double representing the charge in nanocoulombs.
+     * @return int representing the index of the new charge.
+     */
+    public int addCharge(double x, double y, double z, double charge) {
+        update(x, y, z, 0, x, y, z, charge);
+        return charges.add(x, y, z, charge);
+    }
+
+    /**
+     * Method that applies E += k * (qNew * rNew / |rNew|^3 - qOld * rOld / |rOld|^3) at every grid point, one grid
+     * row per index of the parallel loop. A point that coincides with either position gets no term from it, as in
+     * CoulombKernel.
+     */
+    private void update(double oldX, double oldY, double oldZ, double oldQ,
+                        double newX, double newY, double newZ, double newQ) {
+        int nx = grid.getNx();
+        int ny = grid.getNy();
+        int rows = ny * grid.getNz();
+        int grain = Math.max(1, MIN_POINTS_PER_TASK / nx);
+        double kOld = FieldSolver.K_NANO * oldQ;
+        double kNew = FieldSolver.K_NANO * newQ;
+        ParallelLoop.forRange(pool, 0, rows, grain, (from, to) -> {
+            for (int row = from; row < to; row++) {
+                int j = row % ny;
+                int k = row / ny;
+                double py = grid.y(j);
+                double pz = grid.z(k);
+                double ay = py - oldY;
+                double az = pz - oldZ;
+                double by = py - newY;
+                double bz = pz - newZ;
+                double a2yz = ay * ay + az * az;
+                double b2yz = by * by + bz * bz;
+                int p = row * nx;
+                for (int i = 0; i < nx; i++, p++) {
+                    double px = grid.x(i);
+                    double ax = px - oldX;
+                    double bx = px - newX;
+                    double a2 = ax * ax + a2yz;
+                    double b2 = bx * bx + b2yz;
+                    double sa = a2 > 0 ? kOld / (a2 * Math.sqrt(a2)) : 0;
+                    double sb = b2 > 0 ? kNew / (b2 * Math.sqrt(b2)) : 0;
+                    ex[p] += sb * bx - sa * ax;
+                    ey[p] += sb * by - sa * ay;
+                    ez[p] += sb * bz - sa * az;
+                }
+            }
+        });
+    }
+
+    public GridSpec getGrid() {
+        return grid;
+    }
+
+    public PointChargeSet getCharges() {
+        return charges;
+    }
+
+    /**
+     * Methods below return the live x-fastest field components, indexed as {@link GridSpec#index}.
+     */
+    public double[] exArray() {
+        return ex;
+    }
+
+    public double[] eyArray() {
+        return ey;
+    }
+
+    public double[] ezArray() {
+        return ez;
+    }
+
+    /**
+     * Method that gives the field strength at a grid point.
+     * @param index int representing the linear index of the point.
+     * @return double representing |E| in N/C.
+     */
+    public double magnitude(int index) {
+        return Math.sqrt(ex[index] * ex[index] + ey[index] * ey[index] + ez[index] * ez[index]);
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.efieldgen.grid;
+
+import com.example.efieldgen.solver.FieldSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * OffHeapFieldGrid class that keeps a computed field map outside the Java heap, either in direct memory or in a
+ * memory-mapped file using the same layout as GridFileWriter. Tiles from FieldMapGenerator are written straight
+ * into the off-heap records and queries read them in place, so a grid larger than the heap can be generated,
+ * reopened and queried without copying it.
+ *
+ * Records of Ex, Ey, Ez and |E| are held in chunks of 2^{@value #CHUNK_SHIFT} points (1 GiB) because a single NIO
+ * buffer cannot exceed 2 GiB. Writes to disjoint points are safe from several threads.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class OffHeapFieldGrid implements TileSink {
+
+    static final int CHUNK_SHIFT = 25;
+    static final long CHUNK_POINTS = 1L << CHUNK_SHIFT;
+    private static final int RECORD_DOUBLES = GridFileWriter.RECORD_BYTES / Double.BYTES;
+
+    private final GridSpec grid;
+    private final ByteBuffer[] buffers;
+    private final DoubleBuffer[] chunks;
+
+    private OffHeapFieldGrid(GridSpec grid, ByteBuffer[] buffers) {
+        this.grid = grid;
+        this.buffers = buffers;
+        this.chunks = new DoubleBuffer[buffers.length];
+        for (int c = 0; c < buffers.length; c++) {
+            chunks[c] = buffers[c].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+    }
+
+    /**
+     * Method that creates a zero-filled grid in direct memory.
+     * @param grid GridSpec of the field map.
+     * @return OffHeapFieldGrid backed by direct memory.
+     */
+    public static OffHeapFieldGrid allocate(GridSpec grid) {
+        ByteBuffer[] buffers = new ByteBuffer[chunkCount(grid)];
+        for (int c = 0; c < buffers.length; c++) {
+            buffers[c] = ByteBuffer.allocateDirect((int) (chunkPoints(grid, c) * GridFileWriter.RECORD_BYTES));
+        }
+        return new OffHeapFieldGrid(grid, buffers);
+    }
+
+    /**
+     * Method that creates a zero-filled grid backed by a new field-map file, replacing any existing file.
+     * @param path Path of the file.
+     * @param grid GridSpec of the field map.
+     * @return OffHeapFieldGrid whose changes are written through to the file.
+     * @throws IOException if the file cannot be created or mapped.
+     */
+    public static OffHeapFieldGrid create(Path path, GridSpec grid) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(GridFileWriter.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            GridFileWriter.writeHeader(header, grid);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, GridFileWriter.HEADER_BYTES - header.remaining());
+            }
+            return new OffHeapFieldGrid(grid, map(channel, grid, FileChannel.MapMode.READ_WRITE));
+        }
+    }
+
+    /**
+     * Method that maps an existing field-map file without copying it.
+     * @param path Path of a file written by GridFileWriter or {@link #create}.
+     * @param writable boolean representing whether the grid may be modified.
+     * @return OffHeapFieldGrid viewing the file.
+     * @throws IOException if the file cannot be mapped or is not a field-map file.
+     */
+    public static OffHeapFieldGrid open(Path path, boolean writable) throws IOException {
+        StandardOpenOption[] options = writable
+                ? new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[] {StandardOpenOption.READ};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            ByteBuffer header = ByteBuffer.allocate(GridFileWriter.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    break;
+                }
+            }
+            header.flip();
+            if (header.remaining() < GridFileWriter.HEADER_BYTES) {
+                throw new IOException("Not a FieldGen field-map file: " + path);
+            }
+            GridSpec grid = GridFileWriter.readHeader(header);
+            long expected = GridFileWriter.HEADER_BYTES + grid.pointCount() * GridFileWriter.RECORD_BYTES;
+            if (channel.size() < expected) {
+                throw new IOException("Field-map file is truncated: " + path);
+            }
+            return new OffHeapFieldGrid(grid, map(channel, grid, writable ? FileChannel.MapMode.READ_WRITE
+                    : FileChannel.MapMode.READ_ONLY));
+        }
+    }
+
+    private static ByteBuffer[] map(FileChannel channel, GridSpec grid, FileChannel.MapMode mode)
+            throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[chunkCount(grid)];
+        for (int c = 0; c < buffers.length; c++) {
+            long position = GridFileWriter.HEADER_BYTES + ((long) c << CHUNK_SHIFT) * GridFileWriter.RECORD_BYTES;
+            buffers[c] = channel.map(mode, position, chunkPoints(grid, c) * GridFileWriter.RECORD_BYTES);
+        }
+        return buffers;
+    }
+
+    private static int chunkCount(GridSpec grid) {
+        return (int) ((grid.pointCount() + CHUNK_POINTS - 1) >>> CHUNK_SHIFT);
+    }
+
+    private static long chunkPoints(GridSpec grid, int chunk) {
+        return Math.min(CHUNK_POINTS, grid.pointCount() - ((long) chunk << CHUNK_SHIFT));
+    }
+
+    /**
+     * Method that fills the whole grid with the field of a source, streaming tiles straight into off-heap memory.
+     * @param source FieldSource describing the charge configuration.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for tiles.
+     */
+    public void compute(FieldSource source) throws InterruptedException {
+        try {
+            new FieldMapGenerator(source).generate(grid, this);
+        } catch (IOException e) {
+            throw new IllegalStateException("Off-heap grid writes do not perform I/O.", e);
+        }
+    }
+
+    @Override
+    public void accept(FieldTile tile) {
+        double[] ex = tile.exArray();
+        double[] ey = tile.eyArray();
+        double[] ez = tile.ezArray();
+        double[] magnitude = tile.magnitudeArray();
+        for (int k = 0; k < tile.getNk(); k++) {
+            for (int j = 0; j < tile.getNj(); j++) {
+                int p = tile.offset(0, j, k);
+                long index = grid.index(tile.getI0(), tile.getJ0() + j, tile.getK0() + k);
+                for (int i = 0; i < tile.getNi(); i++, p++, index++) {
+                    DoubleBuffer chunk = chunks[(int) (index >>> CHUNK_SHIFT)];
+                    int base = (int) (index & (CHUNK_POINTS - 1)) * RECORD_DOUBLES;
+                    chunk.put(base, ex[p]);
+                    chunk.put(base + 1, ey[p]);
+                    chunk.put(base + 2, ez[p]);
+                    chunk.put(base + 3, magnitude[p]);
+                }
+            }
+        }
+    }
+
+    public GridSpec getGrid() {
+        return grid;
+    }
+
+    /**
+     * Methods below read one component of the record at a linear point index, see {@link GridSpec#index}.
+     */
+    public double ex(long index) {
+        return component(index, 0);
+    }
+
+    public double ey(long index) {
+        return component(index, 1);
+    }
+
+    public double ez(long index) {
+        return component(index, 2);
+    }
+
+    public double magnitude(long index) {
+        return component(index, 3);
+    }
+
+    /**
+     * Method that finds the grid point closest to a position in space, clamped to the grid.
+     * @param x double representing the x-coordinate in meters.
+     * @param y double representing the y-coordinate in meters.
+     * @param z double representing the z-coordinate in meters.
+     * @return long representing the linear index of the nearest grid point.
+     */
+    public long nearest(double x, double y, double z) {
+        return grid.index(nearest(x, grid.getX0(), grid.getDx(), grid.getNx()),
+                nearest(y, grid.getY0(), grid.getDy(), grid.getNy()),
+                nearest(z, grid.getZ0(), grid.getDz(), grid.getNz()));
+    }
+
+    /**
+     * Method that flushes a file-backed grid to storage; it does nothing for a grid in direct memory.
+     */
+    public void force() {
+        for (ByteBuffer buffer : buffers) {
+            if (buffer instanceof MappedByteBuffer && !buffer.isReadOnly()) {
+                ((MappedByteBuffer) buffer).force();
+            }
+        }
+    }
+
+    private double component(long index, int component) {
+        if (index < 0 || index >= grid.pointCount()) {
+            throw new IndexOutOfBoundsException("Point index " + index + " out of range.");
+        }
+        DoubleBuffer chunk = chunks[(int) (index >>> CHUNK_SHIFT)];
+        return chunk.get((int) (index & (CHUNK_POINTS - 1)) * RECORD_DOUBLES + component);
+    }
+
+    private static int nearest(double value, double origin, double step, int n) {
+        if (n == 1 || step == 0) {
+            return 0;
+        }
+        long i = Math.round((value - origin) / step);
+        return (int) Math.max(0, Math.min(n - 1, i));
+    }
+}
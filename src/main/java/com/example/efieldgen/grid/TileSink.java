@@ -0,0 +1,21 @@
+package com.example.efieldgen.grid;
+
+import java.io.IOException;
+
+/**
+ * TileSink interface for consumers of the tiles streamed out by FieldMapGenerator. Tiles arrive one at a time on
+ * the thread that called {@link FieldMapGenerator#generate}, in no particular order, so sinks do not need to be
+ * thread-safe but must place each tile by its grid offsets.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public interface TileSink {
+
+    /**
+     * Method that consumes one computed tile. The tile is reused once this method returns.
+     * @param tile FieldTile holding the coordinates and field of one block of the grid.
+     * @throws IOException if the tile cannot be stored.
+     */
+    void accept(FieldTile tile) throws IOException;
+}
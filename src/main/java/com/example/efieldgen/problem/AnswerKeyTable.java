@@ -0,0 +1,200 @@
+package com.example.efieldgen.problem;
+
+import com.example.efieldgen.ChargeType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * AnswerKeyTable class holding the answer key of every problem in the ProblemSpace, so grading is an array lookup
+ * instead of a FieldSolver evaluation. Answers are stored as ints counting hundredths of a N/C, which reproduces the
+ * two-decimal answers of {@link com.example.efieldgen.solver.FieldSolver#round(double)} exactly in about 420 KiB.
+ * The sections of the ChargeTypes follow each other in declaration order, each indexed by its problem number.
+ *
+ * A table is either computed, which takes a few milliseconds, or memory-mapped from a file written by
+ * {@link #write(Path)}. The file is a {@value #HEADER_BYTES}-byte header (magic, number of types, the problem count
+ * of each type) followed by the little-endian table; a file whose counts do not match the current ProblemSpace is
+ * rejected. Tables are immutable and safe to share between threads.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class AnswerKeyTable {
+
+    public static final int MAGIC = 0x45464B31; // "EFK1"
+    public static final int HEADER_BYTES = 32;
+    public static final double TOLERANCE = 0.1; // accepted distance from the key, as in the problem scenes
+    private static final int NO_ANSWER = Integer.MIN_VALUE;
+    private static final ChargeType[] TYPES = ChargeType.values();
+    private static final int[] OFFSETS = new int[TYPES.length + 1];
+
+    static {
+        for (int t = 0; t < TYPES.length; t++) {
+            OFFSETS[t] = ProblemSpace.offset(TYPES[t]);
+        }
+        OFFSETS[TYPES.length] = ProblemSpace.total();
+    }
+
+    private final IntBuffer hundredths;
+
+    private AnswerKeyTable(IntBuffer hundredths) {
+        this.hundredths = hundredths;
+    }
+
+    /**
+     * Method that computes the answer key of every problem.
+     * @return AnswerKeyTable held on the heap.
+     */
+    public static AnswerKeyTable compute() {
+        int[] table = new int[OFFSETS[TYPES.length]];
+        for (int t = 0; t < TYPES.length; t++) {
+            int count = ProblemSpace.count(TYPES[t]);
+            for (int i = 0; i < count; i++) {
+                table[OFFSETS[t] + i] = ProblemSpace.hasAnswer(TYPES[t], i)
+                        ? (int) Math.round(ProblemSpace.problem(TYPES[t], i).getAnswer() * 100.0) : NO_ANSWER;
+            }
+        }
+        return new AnswerKeyTable(IntBuffer.wrap(table));
+    }
+
+    /**
+     * Method that memory-maps a table written by {@link #write(Path)}.
+     * @param path Path of the table file.
+     * @return AnswerKeyTable backed by the mapped file.
+     * @throws IOException if the file cannot be read or does not match the current ProblemSpace.
+     */
+    public static AnswerKeyTable load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long bytes = HEADER_BYTES + (long) OFFSETS[TYPES.length] * Integer.BYTES;
+            if (channel.size() != bytes) {
+                throw new IOException("Answer key file has the wrong size: " + path);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            boolean valid = map.getInt() == MAGIC && map.getInt() == TYPES.length;
+            for (int t = 0; t < TYPES.length && valid; t++) {
+                valid = map.getInt() == ProblemSpace.count(TYPES[t]);
+            }
+            if (!valid) {
+                throw new IOException("Not an answer key file for this version of FieldGen: " + path);
+            }
+            map.position(HEADER_BYTES);
+            return new AnswerKeyTable(map.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer());
+        }
+    }
+
+    /**
+     * Method that maps a table file, or computes the table and writes the file when it is missing or stale.
+     * @param path Path of the table file.
+     * @return AnswerKeyTable loaded or computed.
+     * @throws IOException if the computed table cannot be written.
+     */
+    public static AnswerKeyTable loadOrCompute(Path path) throws IOException {
+        if (Files.isRegularFile(path)) {
+            try {
+                return load(path);
+            } catch (IOException e) {
+                // Stale or damaged: rebuild it below.
+            }
+        }
+        AnswerKeyTable table = compute();
+        table.write(path);
+        return table;
+    }
+
+    /**
+     * Method that writes the table so it can later be mapped by {@link #load(Path)}. The file is replaced atomically
+     * where the file system allows it.
+     * @param path Path of the table file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(Path path) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + hundredths.capacity() * Integer.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC);
+            buffer.putInt(TYPES.length);
+            for (ChargeType type : TYPES) {
+                buffer.putInt(ProblemSpace.count(type));
+            }
+            buffer.position(HEADER_BYTES);
+            for (int i = 0; i < hundredths.capacity(); i++) {
+                buffer.putInt(hundredths.get(i));
+            }
+            buffer.flip();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            try {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Method that looks up the answer key of a numbered problem.
+     * @param type ChargeType of the source configuration.
+     * @param index int representing the problem number in [0, ProblemSpace.count(type)).
+     * @return double representing the field rounded to two decimals, or NaN for a point charge at the observation
+     * point.
+     */
+    public double answer(ChargeType type, int index) {
+        int t = type.ordinal();
+        if (index < 0 || index >= OFFSETS[t + 1] - OFFSETS[t]) {
+            throw new IndexOutOfBoundsException("Problem " + index + " of " + type);
+        }
+        int key = hundredths.get(OFFSETS[t] + index);
+        return key == NO_ANSWER ? Double.NaN : key / 100.0;
+    }
+
+    /**
+     * Method that looks up the answer key of a problem by its parameters.
+     * @param type ChargeType of the source configuration.
+     * @param charge int representing the charge, or charge density, in nanocoulombs.
+     * @param size int representing the radius or thickness; ignored for point charges and lines.
+     * @param x int representing the x-coordinate or perpendicular distance.
+     * @param y int representing the y-coordinate; ignored for lines and slabs.
+     * @return double representing the field rounded to two decimals, or NaN if the problem is outside the
+     * ProblemSpace or has no answer.
+     */
+    public double answer(ChargeType type, int charge, int size, int x, int y) {
+        int index = ProblemSpace.index(type, charge, size, x, y);
+        return index < 0 ? Double.NaN : answer(type, index);
+    }
+
+    /**
+     * Method that grades an answer with the tolerance used by the problem scenes.
+     * @param type ChargeType of the source configuration.
+     * @param index int representing the problem number.
+     * @param userAnswer double representing the answer given by the student.
+     * @return boolean representing whether the answer is within {@value #TOLERANCE} of the key.
+     */
+    public boolean isCorrect(ChargeType type, int index, double userAnswer) {
+        return Math.abs(userAnswer - answer(type, index)) <= TOLERANCE;
+    }
+
+    /**
+     * Method that returns the number of problems in the table.
+     * @return int representing the number of answer keys over all ChargeTypes.
+     */
+    public int size() {
+        return hundredths.capacity();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.efieldgen.problem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * BinaryProblemWriter class that stores generated problems in a compact binary format: a {@value #HEADER_BYTES}-byte
+ * header (magic, record size, problem count) followed by one {@value #RECORD_BYTES}-byte record per problem in id
+ * order, holding the ChargeType ordinal, charge, size, x and y as ints, four bytes of padding and the answer as a
+ * double, all little-endian. The count is filled in when the writer is closed.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class BinaryProblemWriter implements ProblemSink, Closeable {
+
+    public static final int MAGIC = 0x45465031; // "EFP1"
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 6 * Integer.BYTES + Double.BYTES;
+    private static final int BUFFER_RECORDS = 32_768;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private long count;
+
+    /**
+     * Constructor that creates, or truncates, the output file.
+     * @param path Path of the file to write.
+     * @throws IOException if the file cannot be created.
+     */
+    public BinaryProblemWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        channel.position(HEADER_BYTES);
+    }
+
+    @Override
+    public void accept(ProblemChunk chunk) throws IOException {
+        for (int i = 0; i < chunk.size(); i++) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.putInt(chunk.getType(i).ordinal());
+            buffer.putInt(chunk.getCharge(i));
+            buffer.putInt(chunk.getSize(i));
+            buffer.putInt(chunk.getX(i));
+            buffer.putInt(chunk.getY(i));
+            buffer.putInt(0);
+            buffer.putDouble(chunk.getAnswer(i));
+        }
+        count += chunk.size();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(RECORD_BYTES);
+            header.putLong(count);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, HEADER_BYTES - header.remaining());
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
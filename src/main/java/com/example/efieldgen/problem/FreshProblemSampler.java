@@ -0,0 +1,113 @@
+package com.example.efieldgen.problem;
+
+import com.example.efieldgen.ChargeType;
+
+import java.util.SplittableRandom;
+
+/**
+ * FreshProblemSampler class that deals one student problems they have not seen yet. The problems already posed are
+ * kept in a ProblemHistory over the ids of {@link ProblemSpace#offset(ChargeType)}, so the state of a student is a
+ * few hundred bytes for a typical session and at most about 16 KiB once most of the space has been seen.
+ *
+ * A draw first tries a few uniform picks and keeps the first unseen one, which is expected O(1) while a fair share
+ * of the type is still unseen. After {@value #UNIFORM_TRIES} misses it takes the first unseen problem after a random
+ * starting point instead, a short scan of the history words. Once every problem of a type with an answer has been
+ * seen, the history of that type is cleared and a new round begins.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class FreshProblemSampler {
+
+    static final int UNIFORM_TRIES = 8;
+    private static final ChargeType[] TYPES = ChargeType.values();
+
+    private final ProblemHistory history = new ProblemHistory();
+    private final int[] seen = new int[TYPES.length];
+
+    /**
+     * Method that draws a problem the student has not seen in the current round and records it as seen.
+     * @param type ChargeType of the source configuration.
+     * @param random SplittableRandom to draw from.
+     * @return int representing the problem number within the type.
+     */
+    public synchronized int next(ChargeType type, SplittableRandom random) {
+        int t = type.ordinal();
+        int offset = ProblemSpace.offset(type);
+        int count = ProblemSpace.count(type);
+        if (seen[t] >= answerable(type)) {
+            history.clearRange(offset, offset + count);
+            seen[t] = 0;
+        }
+        int index = -1;
+        for (int attempt = 0; attempt < UNIFORM_TRIES && index < 0; attempt++) {
+            int candidate = random.nextInt(count);
+            if (ProblemSpace.hasAnswer(type, candidate) && !history.contains(offset + candidate)) {
+                index = candidate;
+            }
+        }
+        int start = random.nextInt(count);
+        while (index < 0) {
+            int id = history.nextAbsent(offset + start, offset + count);
+            if (id < 0) {
+                start = 0;
+            } else if (ProblemSpace.hasAnswer(type, id - offset)) {
+                index = id - offset;
+            } else {
+                start = id - offset + 1;
+            }
+        }
+        history.add(offset + index);
+        seen[t]++;
+        return index;
+    }
+
+    /**
+     * Method that records a problem posed elsewhere, so it is not dealt again in the current round.
+     * @param type ChargeType of the source configuration.
+     * @param index int representing the problem number within the type.
+     * @return boolean representing whether the problem had not been seen.
+     */
+    public synchronized boolean markSeen(ChargeType type, int index) {
+        if (index < 0 || index >= ProblemSpace.count(type) || !ProblemSpace.hasAnswer(type, index)) {
+            throw new IndexOutOfBoundsException("Problem " + index + " of " + type);
+        }
+        if (!history.add(ProblemSpace.offset(type) + index)) {
+            return false;
+        }
+        seen[type.ordinal()]++;
+        return true;
+    }
+
+    /**
+     * Method that tells whether the student has seen a problem in the current round.
+     * @param type ChargeType of the source configuration.
+     * @param index int representing the problem number within the type.
+     * @return boolean representing whether the problem has been dealt or marked as seen.
+     */
+    public synchronized boolean hasSeen(ChargeType type, int index) {
+        return index >= 0 && index < ProblemSpace.count(type) && history.contains(ProblemSpace.offset(type) + index);
+    }
+
+    /**
+     * Method that counts the problems of a type seen in the current round.
+     * @param type ChargeType of the source configuration.
+     * @return int representing the number of problems seen.
+     */
+    public synchronized int seenCount(ChargeType type) {
+        return seen[type.ordinal()];
+    }
+
+    /**
+     * Method that estimates the heap used by this student's history.
+     * @return long representing the approximate size in bytes.
+     */
+    public synchronized long sizeInBytes() {
+        return 16 + 16 + 4L * seen.length + history.sizeInBytes();
+    }
+
+    private static int answerable(ChargeType type) {
+        // Only a point charge has problems without an answer, one per charge value at the origin.
+        return ProblemSpace.count(type) - (type == ChargeType.POINTCHARGE ? ProblemSpace.VALUES : 0);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.efieldgen.problem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * JsonlProblemWriter class that stores generated problems as JSON Lines, one object per problem:
+ * {@code {"id":0,"type":"POINTCHARGE","charge":3,"size":0,"x":-4,"y":7,"answer":0.83}}.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class JsonlProblemWriter implements ProblemSink, Closeable {
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final StringBuilder line = new StringBuilder(128);
+
+    /**
+     * Constructor that creates, or truncates, the output file.
+     * @param path Path of the file to write.
+     * @throws IOException if the file cannot be created.
+     */
+    public JsonlProblemWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @Override
+    public void accept(ProblemChunk chunk) throws IOException {
+        for (int i = 0; i < chunk.size(); i++) {
+            line.setLength(0);
+            line.append("{\"id\":").append(chunk.getFirst() + i)
+                    .append(",\"type\":\"").append(chunk.getType(i).name())
+                    .append("\",\"charge\":").append(chunk.getCharge(i))
+                    .append(",\"size\":").append(chunk.getSize(i))
+                    .append(",\"x\":").append(chunk.getX(i))
+                    .append(",\"y\":").append(chunk.getY(i))
+                    .append(",\"answer\":").append(chunk.getAnswer(i)).append("}\n");
+            if (buffer.remaining() < line.length()) {
+                drain();
+            }
+            for (int c = 0; c < line.length(); c++) {
+                buffer.put((byte) line.charAt(c));
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+}
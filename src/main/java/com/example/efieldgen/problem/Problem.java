@@ -0,0 +1,108 @@
+package com.example.efieldgen.problem;
+
+import com.example.efieldgen.ChargeType;
+
+/**
+ * Problem class describing one practice problem with integer parameters, as generated by FieldGen, together with its
+ * answer key. Instances are immutable.
+ *
+ * The meaning of the parameters follows the FieldGen problem scenes: size is the radius of a sphere, the thickness
+ * of a slab or zero; (x, y) is the point in space for point charges and spheres, and x alone is the perpendicular
+ * distance from a line or slab.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class Problem {
+
+    private final ChargeType type;
+    private final int charge;
+    private final int size;
+    private final int x;
+    private final int y;
+    private final double answer;
+
+    /**
+     * Constructor that defines a problem and computes its answer.
+     * @param type ChargeType of the source configuration.
+     * @param charge int representing the charge, or charge density, in nanocoulombs.
+     * @param size int representing the radius of a sphere or the thickness of a slab in meters; zero otherwise.
+     * @param x int representing the x-coordinate, or perpendicular distance, in meters.
+     * @param y int representing the y-coordinate in meters; zero for lines and slabs.
+     */
+    public Problem(ChargeType type, int charge, int size, int x, int y) {
+        this.type = type;
+        this.charge = charge;
+        this.size = size;
+        this.x = x;
+        this.y = y;
+        this.answer = ProblemSpace.answer(type, charge, size, x, y);
+    }
+
+    public ChargeType getType() {
+        return type;
+    }
+
+    public int getCharge() {
+        return charge;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Method that gives the answer key of the problem.
+     * @return double representing the field rounded to two decimals, as students are asked to answer.
+     */
+    public double getAnswer() {
+        return answer;
+    }
+
+    /**
+     * Method that grades an answer with the tolerance used by the problem scenes.
+     * @param userAnswer double representing the answer given by the student.
+     * @return boolean representing whether the answer is within {@value AnswerKeyTable#TOLERANCE} of the key.
+     */
+    public boolean isCorrect(double userAnswer) {
+        return Math.abs(userAnswer - answer) <= AnswerKeyTable.TOLERANCE;
+    }
+
+    /**
+     * Method that numbers the problem within its ChargeType.
+     * @return int representing the problem number in the ProblemSpace, or -1 if it lies outside it.
+     */
+    public int getIndex() {
+        return ProblemSpace.index(type, charge, size, x, y);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Problem)) {
+            return false;
+        }
+        Problem other = (Problem) o;
+        return type == other.type && charge == other.charge && size == other.size && x == other.x && y == other.y;
+    }
+
+    @Override
+    public int hashCode() {
+        return (((type.ordinal() * 31 + charge) * 31 + size) * 31 + x) * 31 + y;
+    }
+
+    @Override
+    public String toString() {
+        return type + "[charge=" + charge + ", size=" + size + ", x=" + x + ", y=" + y + ", answer=" + answer + "]";
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.efieldgen.problem;
+
+import com.example.efieldgen.ChargeType;
+
+import java.util.SplittableRandom;
+
+/**
+ * ProblemChunk class holding a block of generated problems and their answer keys in struct-of-arrays form. Chunks
+ * are reused by ProblemGenerator, so memory stays bounded however many problems are generated.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class ProblemChunk {
+
+    private static final ChargeType[] TYPES = ChargeType.values();
+
+    private final byte[] type;
+    private final int[] charge;
+    private final int[] size;
+    private final int[] x;
+    private final int[] y;
+    private final double[] answer;
+    private long first;
+    private int count;
+
+    /**
+     * Constructor that allocates a chunk.
+     * @param capacity int representing the most problems the chunk can hold.
+     */
+    public ProblemChunk(int capacity) {
+        type = new byte[capacity];
+        charge = new int[capacity];
+        size = new int[capacity];
+        x = new int[capacity];
+        y = new int[capacity];
+        answer = new double[capacity];
+    }
+
+    /**
+     * Method that fills the chunk with random problems and their answers.
+     * @param firstId long representing the id of the first problem.
+     * @param problems int representing the number of problems to generate.
+     * @param types ChargeType array to draw the configuration of each problem from.
+     * @param random SplittableRandom owned by this chunk for the duration of the call.
+     */
+    void generate(long firstId, int problems, ChargeType[] types, SplittableRandom random) {
+        first = firstId;
+        count = problems;
+        for (int i = 0; i < problems; i++) {
+            ChargeType t = types.length == 1 ? types[0] : types[random.nextInt(types.length)];
+            Problem problem = ProblemSpace.problem(t, ProblemSpace.randomIndex(t, random));
+            type[i] = (byte) t.ordinal();
+            charge[i] = problem.getCharge();
+            size[i] = problem.getSize();
+            x[i] = problem.getX();
+            y[i] = problem.getY();
+            answer[i] = problem.getAnswer();
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Method that gives the id of the first problem of the chunk; ids number the problems of a run from zero.
+     * @return long representing the id.
+     */
+    public long getFirst() {
+        return first;
+    }
+
+    public ChargeType getType(int i) {
+        return TYPES[type[i]];
+    }
+
+    public int getCharge(int i) {
+        return charge[i];
+    }
+
+    public int getSize(int i) {
+        return size[i];
+    }
+
+    public int getX(int i) {
+        return x[i];
+    }
+
+    public int getY(int i) {
+        return y[i];
+    }
+
+    public double getAnswer(int i) {
+        return answer[i];
+    }
+}
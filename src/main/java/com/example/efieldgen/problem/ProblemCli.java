@@ -0,0 +1,108 @@
+package com.example.efieldgen.problem;
+
+import com.example.efieldgen.ChargeType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ProblemCli class that generates practice problems with answer keys in bulk from the command line. Output ending in
+ * {@code .jsonl} or {@code .json} is written as JSON Lines, any other file in the format of BinaryProblemWriter.
+ *
+ * Usage: {@code ProblemCli <count> <output> [--seed n] [--type TYPE[,TYPE...]] [--threads n]}, also reachable as
+ * {@code FieldGen --generate ...}. Without --type every ChargeType is drawn with equal probability.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class ProblemCli {
+
+    private ProblemCli() {
+    }
+
+    /**
+     * Main method for generating problems from the command line.
+     * @param args String arguments holding the count and output path followed by options.
+     */
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IOException e) {
+            System.err.println("Generation failed: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(130);
+        }
+    }
+
+    /**
+     * Method that generates problems and reports how long it took.
+     * @param args String arguments holding the count and output path followed by options.
+     * @return int representing the exit status, 0 on success and 2 for a usage error.
+     * @throws IOException if the output cannot be written.
+     * @throws InterruptedException if the run is interrupted.
+     */
+    public static int run(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            return usage("Count and output file are required.");
+        }
+        long count;
+        long seed = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        ChargeType[] types = ChargeType.values();
+        try {
+            count = Long.parseLong(args[0].replace("_", ""));
+            for (int a = 2; a < args.length; a += 2) {
+                if (a + 1 >= args.length) {
+                    return usage("Missing value for " + args[a] + ".");
+                }
+                String value = args[a + 1];
+                if (args[a].equals("--seed")) {
+                    seed = Long.parseLong(value);
+                } else if (args[a].equals("--threads")) {
+                    threads = Integer.parseInt(value);
+                } else if (args[a].equals("--type")) {
+                    String[] names = value.split(",");
+                    types = new ChargeType[names.length];
+                    for (int t = 0; t < names.length; t++) {
+                        types[t] = ChargeType.valueOf(names[t].trim().toUpperCase(Locale.ROOT));
+                    }
+                } else {
+                    return usage("Unknown option " + args[a] + ".");
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return usage("Invalid argument: " + e.getMessage());
+        }
+        if (count < 0 || threads < 1) {
+            return usage("Count must not be negative and threads must be positive.");
+        }
+
+        Path output = Paths.get(args[1]);
+        String name = output.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean json = name.endsWith(".jsonl") || name.endsWith(".json");
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try (Closeable file = json ? new JsonlProblemWriter(output) : new BinaryProblemWriter(output)) {
+            new ProblemGenerator(pool, 2 * threads + 2).generate(count, seed, types, (ProblemSink) file);
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "%d problems in %.3f s (%.0f problems/s), seed %d%n", count, seconds,
+                count / Math.max(seconds, 1e-9), seed);
+        return 0;
+    }
+
+    private static int usage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: ProblemCli <count> <output.jsonl|output.efp> [--seed n] [--type TYPE[,TYPE...]]"
+                + " [--threads n]");
+        return 2;
+    }
+}
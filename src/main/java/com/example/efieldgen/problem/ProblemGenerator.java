@@ -0,0 +1,144 @@
+package com.example.efieldgen.problem;
+
+import com.example.efieldgen.ChargeType;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ProblemGenerator class that generates practice problems with answer keys in bulk. Problems are produced in chunks
+ * of {@value #CHUNK_SIZE} on an executor and handed to a ProblemSink in id order on the calling thread, with a fixed
+ * pool of chunk buffers so memory stays bounded.
+ *
+ * Every chunk draws from its own SplittableRandom, split off a root generator seeded by the caller in chunk order.
+ * Workers therefore never share a generator, and the same seed gives the same problems whatever the number of
+ * threads or the order in which chunks finish.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class ProblemGenerator {
+
+    public static final int CHUNK_SIZE = 65_536;
+
+    private final Executor executor;
+    private final int buffers;
+
+    /**
+     * Constructor that generates chunks on the common ForkJoinPool.
+     */
+    public ProblemGenerator() {
+        this(ForkJoinPool.commonPool(), 2 * ForkJoinPool.getCommonPoolParallelism() + 2);
+    }
+
+    /**
+     * Constructor that generates chunks on a specific worker pool.
+     * @param executor Executor whose threads generate the chunks.
+     * @param buffers int representing the number of chunk buffers, which bounds the chunks in flight.
+     */
+    public ProblemGenerator(Executor executor, int buffers) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null.");
+        }
+        if (buffers < 1) {
+            throw new IllegalArgumentException("At least one chunk buffer is required.");
+        }
+        this.executor = executor;
+        this.buffers = buffers;
+    }
+
+    /**
+     * Method that generates problems and streams them to a sink.
+     * @param count long representing the number of problems.
+     * @param seed long representing the seed that makes the run reproducible.
+     * @param types ChargeType array of configurations to draw from uniformly; each problem picks one.
+     * @param sink ProblemSink receiving the chunks in id order.
+     * @throws IOException if the sink fails; generation stops after the chunks already in flight.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for chunks.
+     */
+    public void generate(long count, long seed, ChargeType[] types, ProblemSink sink)
+            throws IOException, InterruptedException {
+        if (count < 0 || types.length == 0) {
+            throw new IllegalArgumentException("Count must not be negative and at least one type is required.");
+        }
+        ChargeType[] choices = types.clone();
+        long chunkCount = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        BlockingQueue<ProblemChunk> free = new ArrayBlockingQueue<>(buffers);
+        BlockingQueue<Result> done = new ArrayBlockingQueue<>(buffers);
+        for (int b = 0; b < buffers; b++) {
+            free.add(new ProblemChunk(CHUNK_SIZE));
+        }
+        Result[] waiting = new Result[buffers];
+
+        long submitted = 0;
+        long finished = 0;
+        long written = 0;
+        Throwable failure = null;
+        while (finished < submitted || (failure == null && submitted < chunkCount)) {
+            ProblemChunk chunk;
+            while (failure == null && submitted < chunkCount && (chunk = free.poll()) != null) {
+                final ProblemChunk work = chunk;
+                final long index = submitted;
+                final SplittableRandom random = root.split();
+                final int size = (int) Math.min(CHUNK_SIZE, count - index * CHUNK_SIZE);
+                executor.execute(() -> {
+                    Throwable error = null;
+                    try {
+                        work.generate(index * CHUNK_SIZE, size, choices, random);
+                    } catch (RuntimeException | Error e) {
+                        error = e;
+                    }
+                    done.add(new Result(index, work, error));
+                });
+                submitted++;
+            }
+            Result result = done.take();
+            finished++;
+            if (result.error != null && failure == null) {
+                failure = result.error;
+            }
+            // Chunks finish in any order; hold each until all earlier ones have been written.
+            waiting[(int) (result.index % buffers)] = result;
+            Result next;
+            while ((next = waiting[(int) (written % buffers)]) != null && next.index == written) {
+                waiting[(int) (written % buffers)] = null;
+                if (failure == null) {
+                    try {
+                        sink.accept(next.chunk);
+                    } catch (IOException | RuntimeException e) {
+                        failure = e;
+                    }
+                }
+                free.add(next.chunk);
+                written++;
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    /**
+     * A generated chunk with its position in the run, or the error raised while generating it.
+     */
+    private static final class Result {
+        private final long index;
+        private final ProblemChunk chunk;
+        private final Throwable error;
+
+        Result(long index, ProblemChunk chunk, Throwable error) {
+            this.index = index;
+            this.chunk = chunk;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.efieldgen.problem;
+
+import java.util.Arrays;
+
+/**
+ * ProblemHistory class that records a set of problem ids as a compressed bitset in the style of a roaring bitmap.
+ * Ids are split into a 16-bit container key and a 16-bit low part. A container holds a sorted char array of low parts
+ * while it has at most {@value #ARRAY_LIMIT} entries and a 65536-bit bitmap beyond that, so a sparse history costs
+ * two bytes per id and a dense one at most eight kilobytes per container.
+ *
+ * Ids run over {@link ProblemSpace#total()}, which fits in two containers. Instances are not thread-safe.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class ProblemHistory {
+
+    static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final int MIN_ARRAY = 4;
+
+    private char[][] arrays = new char[0][];
+    private long[][] bitmaps = new long[0][];
+    private int[] cardinalities = new int[0];
+    private int cardinality;
+
+    /**
+     * Method that tells whether an id is in the history.
+     * @param id int representing the problem id.
+     * @return boolean representing whether the id has been added.
+     */
+    public boolean contains(int id) {
+        int key = id >>> 16;
+        if (key >= cardinalities.length || cardinalities[key] == 0) {
+            return false;
+        }
+        char low = (char) id;
+        if (bitmaps[key] != null) {
+            return (bitmaps[key][low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch(arrays[key], 0, cardinalities[key], low) >= 0;
+    }
+
+    /**
+     * Method that adds an id to the history.
+     * @param id int representing the problem id, not negative.
+     * @return boolean representing whether the id was new.
+     */
+    public boolean add(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Problem ids are not negative: " + id);
+        }
+        int key = id >>> 16;
+        if (key >= cardinalities.length) {
+            arrays = Arrays.copyOf(arrays, key + 1);
+            bitmaps = Arrays.copyOf(bitmaps, key + 1);
+            cardinalities = Arrays.copyOf(cardinalities, key + 1);
+        }
+        char low = (char) id;
+        long[] bitmap = bitmaps[key];
+        if (bitmap != null) {
+            long bit = 1L << low;
+            if ((bitmap[low >>> 6] & bit) != 0) {
+                return false;
+            }
+            bitmap[low >>> 6] |= bit;
+        } else {
+            int size = cardinalities[key];
+            char[] array = arrays[key];
+            int position = size == 0 ? -1 : Arrays.binarySearch(array, 0, size, low);
+            if (position >= 0) {
+                return false;
+            }
+            if (size == ARRAY_LIMIT) {
+                bitmap = new long[BITMAP_WORDS];
+                for (int i = 0; i < size; i++) {
+                    bitmap[array[i] >>> 6] |= 1L << array[i];
+                }
+                bitmap[low >>> 6] |= 1L << low;
+                bitmaps[key] = bitmap;
+                arrays[key] = null;
+            } else {
+                position = -position - 1;
+                if (array == null || size == array.length) {
+                    array = Arrays.copyOf(array == null ? new char[0] : array,
+                            Math.min(ARRAY_LIMIT, Math.max(MIN_ARRAY, 2 * size)));
+                    arrays[key] = array;
+                }
+                System.arraycopy(array, position, array, position + 1, size - position);
+                array[position] = low;
+            }
+        }
+        cardinalities[key]++;
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * Method that removes every id in a range from the history.
+     * @param from int representing the first id removed.
+     * @param to int representing the id after the last one removed.
+     */
+    public void clearRange(int from, int to) {
+        for (int key = from >>> 16; key < cardinalities.length && key <= (to - 1) >>> 16 && from < to; key++) {
+            if (cardinalities[key] == 0) {
+                continue;
+            }
+            int base = key << 16;
+            int lo = Math.max(from, base) - base;
+            int hi = Math.min(to, base + 65536) - base;
+            int before = cardinalities[key];
+            if (bitmaps[key] != null) {
+                long[] bitmap = bitmaps[key];
+                int count = 0;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    int start = w << 6;
+                    if (start + 64 > lo && start < hi) {
+                        bitmap[w] &= ~rangeMask(Math.max(lo, start) - start, Math.min(hi, start + 64) - start);
+                    }
+                    count += Long.bitCount(bitmap[w]);
+                }
+                cardinalities[key] = count;
+                if (count <= ARRAY_LIMIT) {
+                    char[] array = new char[Math.max(MIN_ARRAY, count)];
+                    int size = 0;
+                    for (int w = 0; w < BITMAP_WORDS; w++) {
+                        for (long bits = bitmap[w]; bits != 0; bits &= bits - 1) {
+                            array[size++] = (char) ((w << 6) + Long.numberOfTrailingZeros(bits));
+                        }
+                    }
+                    arrays[key] = array;
+                    bitmaps[key] = null;
+                }
+            } else {
+                char[] array = arrays[key];
+                int first = lowerBound(array, before, lo);
+                int last = lowerBound(array, before, hi);
+                System.arraycopy(array, last, array, first, before - last);
+                cardinalities[key] = before - (last - first);
+            }
+            cardinality -= before - cardinalities[key];
+        }
+    }
+
+    /**
+     * Method that finds the first id missing from the history in a range.
+     * @param from int representing the first id considered.
+     * @param to int representing the id after the last one considered.
+     * @return int representing the smallest id in [from, to) that has not been added, or -1 if there is none.
+     */
+    public int nextAbsent(int from, int to) {
+        int id = from;
+        while (id < to) {
+            int key = id >>> 16;
+            int base = key << 16;
+            int hi = Math.min(to, base + 65536) - base;
+            if (key >= cardinalities.length || cardinalities[key] == 0) {
+                return id;
+            }
+            int low = id - base;
+            if (bitmaps[key] != null) {
+                long[] bitmap = bitmaps[key];
+                for (int w = low >>> 6; (w << 6) < hi; w++) {
+                    long free = ~bitmap[w] & (-1L << (w == low >>> 6 ? low & 63 : 0));
+                    if (free != 0) {
+                        int found = (w << 6) + Long.numberOfTrailingZeros(free);
+                        return found < hi ? base + found : -1;
+                    }
+                }
+            } else {
+                char[] array = arrays[key];
+                int size = cardinalities[key];
+                for (int p = lowerBound(array, size, low); p < size && array[p] == low; p++) {
+                    low++;
+                }
+                if (low < hi) {
+                    return base + low;
+                }
+            }
+            id = base + 65536;
+        }
+        return -1;
+    }
+
+    /**
+     * Method that counts the ids in the history.
+     * @return int representing the number of ids added and not cleared.
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Method that estimates the heap used by the history, for capacity planning.
+     * @return long representing the approximate size in bytes.
+     */
+    public long sizeInBytes() {
+        long bytes = 16 + 3 * 16 + 4L * cardinalities.length + 8L * (arrays.length + bitmaps.length);
+        for (int key = 0; key < cardinalities.length; key++) {
+            if (bitmaps[key] != null) {
+                bytes += 16 + 8L * BITMAP_WORDS;
+            } else if (arrays[key] != null) {
+                bytes += 16 + 2L * arrays[key].length;
+            }
+        }
+        return bytes;
+    }
+
+    private static int lowerBound(char[] array, int size, int value) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (array[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static long rangeMask(int from, int to) {
+        return (to == 64 ? -1L : (1L << to) - 1) & (-1L << from);
+    }
+}
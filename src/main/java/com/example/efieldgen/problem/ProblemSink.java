@@ -0,0 +1,20 @@
+package com.example.efieldgen.problem;
+
+import java.io.IOException;
+
+/**
+ * ProblemSink interface for consumers of generated problems. Chunks arrive in id order on the thread that called
+ * ProblemGenerator, and a chunk may be reused as soon as accept returns.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public interface ProblemSink {
+
+    /**
+     * Method that consumes one chunk of problems.
+     * @param chunk ProblemChunk holding the problems and their answers.
+     * @throws IOException if the problems cannot be stored.
+     */
+    void accept(ProblemChunk chunk) throws IOException;
+}
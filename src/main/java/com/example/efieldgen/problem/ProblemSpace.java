@@ -0,0 +1,195 @@
+package com.example.efieldgen.problem;
+
+import com.example.efieldgen.ChargeType;
+import com.example.efieldgen.solver.FieldSolver;
+
+import java.util.SplittableRandom;
+
+/**
+ * ProblemSpace class that defines every practice problem FieldGen can pose. Parameters are integers drawn from the
+ * same ranges as the problem scenes, so each ChargeType has a finite set of problems that can be numbered:
+ * <ul>
+ * <li>POINTCHARGE: charge, x and y in [-10, 10], 9261 problems,</li>
+ * <li>HOLLOWSPHERE and SOLIDSPHERE: radius in [1, 5], charge, x and y in [-10, 10], 46305 problems each,</li>
+ * <li>INFINITELINE: charge in [-10, 10], distance in [1, 11], 231 problems,</li>
+ * <li>INFINITESLAB: thickness in [1, 11], charge and distance in [-10, 10], 4851 problems.</li>
+ * </ul>
+ * Problem number i is decoded in mixed radix with the last listed parameter varying fastest. A point charge at the
+ * observation point has no finite answer; such problems are numbered but never drawn at random.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class ProblemSpace {
+
+    static final int MIN_VALUE = -10;
+    static final int VALUES = 21; // -10 to 10
+    static final int SPHERE_RADII = 5; // 1 to 5
+    static final int LENGTHS = 11; // 1 to 11
+
+    private ProblemSpace() {
+    }
+
+    /**
+     * Method that counts the problems of a configuration.
+     * @param type ChargeType of the source configuration.
+     * @return int representing the number of distinct problems.
+     */
+    public static int count(ChargeType type) {
+        switch (type) {
+            case POINTCHARGE:
+                return VALUES * VALUES * VALUES;
+            case HOLLOWSPHERE:
+            case SOLIDSPHERE:
+                return SPHERE_RADII * VALUES * VALUES * VALUES;
+            case INFINITELINE:
+                return VALUES * LENGTHS;
+            case INFINITESLAB:
+                return LENGTHS * VALUES * VALUES;
+            default:
+                throw new IllegalArgumentException("Unsupported charge type: " + type);
+        }
+    }
+
+    /**
+     * Method that returns where the problems of a configuration start when the problems of all ChargeTypes are
+     * numbered together, in declaration order.
+     * @param type ChargeType of the source configuration.
+     * @return int representing the id of the first problem of that type.
+     */
+    public static int offset(ChargeType type) {
+        int offset = 0;
+        for (ChargeType before : ChargeType.values()) {
+            if (before == type) {
+                return offset;
+            }
+            offset += count(before);
+        }
+        throw new IllegalArgumentException("Unsupported charge type: " + type);
+    }
+
+    /**
+     * Method that counts the problems of all configurations together.
+     * @return int representing the number of problem ids.
+     */
+    public static int total() {
+        int total = 0;
+        for (ChargeType type : ChargeType.values()) {
+            total += count(type);
+        }
+        return total;
+    }
+
+    /**
+     * Method that tells whether a problem has a finite answer. Only a point charge at the observation point does not.
+     * @param type ChargeType of the source configuration.
+     * @param index int representing the problem number.
+     * @return boolean representing whether the problem can be posed.
+     */
+    public static boolean hasAnswer(ChargeType type, int index) {
+        return type != ChargeType.POINTCHARGE || index % (VALUES * VALUES) != (VALUES * VALUES) / 2;
+    }
+
+    /**
+     * Method that decodes a problem number.
+     * @param type ChargeType of the source configuration.
+     * @param index int representing the problem number in [0, count(type)).
+     * @return Problem with that number.
+     */
+    public static Problem problem(ChargeType type, int index) {
+        if (index < 0 || index >= count(type)) {
+            throw new IndexOutOfBoundsException("Problem " + index + " of " + type);
+        }
+        switch (type) {
+            case POINTCHARGE:
+                return new Problem(type, MIN_VALUE + index / (VALUES * VALUES), 0,
+                        MIN_VALUE + index / VALUES % VALUES, MIN_VALUE + index % VALUES);
+            case HOLLOWSPHERE:
+            case SOLIDSPHERE:
+                return new Problem(type, MIN_VALUE + index / (VALUES * VALUES) % VALUES,
+                        1 + index / (VALUES * VALUES * VALUES), MIN_VALUE + index / VALUES % VALUES,
+                        MIN_VALUE + index % VALUES);
+            case INFINITELINE:
+                return new Problem(type, MIN_VALUE + index / LENGTHS, 0, 1 + index % LENGTHS, 0);
+            default:
+                return new Problem(type, MIN_VALUE + index / VALUES % VALUES, 1 + index / (VALUES * VALUES),
+                        MIN_VALUE + index % VALUES, 0);
+        }
+    }
+
+    /**
+     * Method that numbers a problem, the inverse of {@link #problem(ChargeType, int)}.
+     * @param type ChargeType of the source configuration.
+     * @param charge int representing the charge, or charge density, in nanocoulombs.
+     * @param size int representing the radius or thickness; ignored for point charges and lines.
+     * @param x int representing the x-coordinate or perpendicular distance.
+     * @param y int representing the y-coordinate; ignored for lines and slabs.
+     * @return int representing the problem number, or -1 if a parameter is out of range.
+     */
+    public static int index(ChargeType type, int charge, int size, int x, int y) {
+        int c = charge - MIN_VALUE;
+        int i = x - MIN_VALUE;
+        int j = y - MIN_VALUE;
+        switch (type) {
+            case POINTCHARGE:
+                return inRange(c, VALUES) && inRange(i, VALUES) && inRange(j, VALUES) ? (c * VALUES + i) * VALUES + j
+                        : -1;
+            case HOLLOWSPHERE:
+            case SOLIDSPHERE:
+                return inRange(size - 1, SPHERE_RADII) && inRange(c, VALUES) && inRange(i, VALUES)
+                        && inRange(j, VALUES) ? (((size - 1) * VALUES + c) * VALUES + i) * VALUES + j : -1;
+            case INFINITELINE:
+                return inRange(c, VALUES) && inRange(x - 1, LENGTHS) ? c * LENGTHS + x - 1 : -1;
+            case INFINITESLAB:
+                return inRange(size - 1, LENGTHS) && inRange(c, VALUES) && inRange(i, VALUES)
+                        ? ((size - 1) * VALUES + c) * VALUES + i : -1;
+            default:
+                throw new IllegalArgumentException("Unsupported charge type: " + type);
+        }
+    }
+
+    private static boolean inRange(int value, int count) {
+        return value >= 0 && value < count;
+    }
+
+    /**
+     * Method that computes the answer key of a problem with the FieldSolver configurations.
+     * @param type ChargeType of the source configuration.
+     * @param charge int representing the charge, or charge density, in nanocoulombs.
+     * @param size int representing the radius or thickness.
+     * @param x int representing the x-coordinate or perpendicular distance.
+     * @param y int representing the y-coordinate.
+     * @return double representing the field rounded to two decimals.
+     */
+    public static double answer(ChargeType type, int charge, int size, int x, int y) {
+        double distance = type == ChargeType.INFINITELINE || type == ChargeType.INFINITESLAB ? x
+                : FieldSolver.distanceFormula(x, y);
+        return FieldSolver.round(FieldSolver.solve(type, distance, charge, size));
+    }
+
+    /**
+     * Method that draws a problem number uniformly among the problems with a finite answer.
+     * @param type ChargeType of the source configuration.
+     * @param random SplittableRandom to draw from.
+     * @return int representing the problem number.
+     */
+    public static int randomIndex(ChargeType type, SplittableRandom random) {
+        int count = count(type);
+        while (true) {
+            int index = random.nextInt(count);
+            if (hasAnswer(type, index)) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Method that draws a problem uniformly among the problems with a finite answer.
+     * @param type ChargeType of the source configuration.
+     * @param random SplittableRandom to draw from.
+     * @return Problem drawn.
+     */
+    public static Problem random(ChargeType type, SplittableRandom random) {
+        return problem(type, randomIndex(type, random));
+    }
+}
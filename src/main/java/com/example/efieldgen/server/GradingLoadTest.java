@@ -0,0 +1,165 @@
+package com.example.efieldgen.server;
+
+import com.example.efieldgen.ChargeType;
+import com.example.efieldgen.problem.AnswerKeyTable;
+import com.example.efieldgen.problem.ProblemSpace;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * GradingLoadTest class that drives a GradingServer with concurrent simulated students and reports throughput and
+ * latency percentiles. Each student has its own session and repeatedly asks for a problem, works out the answer with
+ * FieldSolver and submits it, so every round trip also checks that the service grades a correct answer as correct.
+ *
+ * Usage: {@code GradingLoadTest [url] [--students n] [--requests n]}. Without a url an in-process server is started
+ * on a free port, which measures the service and client together on one machine.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class GradingLoadTest {
+
+    private static final Pattern FIELD = Pattern.compile("\"(\\w+)\":\"?([-\\w.]+)\"?");
+
+    private GradingLoadTest() {
+    }
+
+    /**
+     * Main method for running the load test.
+     * @param args String arguments holding the optional url followed by options.
+     * @throws Exception if the server cannot be started or the run is interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        int students = 1000;
+        int requests = 100_000;
+        for (int a = 0; a < args.length; a++) {
+            if (args[a].equals("--students") && a + 1 < args.length) {
+                students = Integer.parseInt(args[++a]);
+            } else if (args[a].equals("--requests") && a + 1 < args.length) {
+                requests = Integer.parseInt(args[++a]);
+            } else if (!args[a].startsWith("--") && url == null) {
+                url = args[a];
+            } else {
+                System.err.println("Usage: GradingLoadTest [url] [--students n] [--requests n]");
+                System.exit(2);
+            }
+        }
+        GradingServer local = null;
+        if (url == null) {
+            local = new GradingServer(new InetSocketAddress("127.0.0.1", 0), AnswerKeyTable.compute());
+            local.start();
+            url = "http://127.0.0.1:" + local.getPort();
+        }
+        try {
+            run(URI.create(url.endsWith("/") ? url : url + "/"), students, requests);
+        } finally {
+            if (local != null) {
+                local.stop(0);
+            }
+        }
+    }
+
+    private static void run(URI base, int students, int requests) throws Exception {
+        ExecutorService executor = RequestExecutors.perTask();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor)
+                .connectTimeout(Duration.ofSeconds(10)).build();
+        int rounds = Math.max(1, requests / 2);
+        long[] latencies = new long[2 * rounds];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger wrong = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Future<?>[] workers = new Future<?>[students];
+        long start = System.nanoTime();
+        for (int s = 0; s < students; s++) {
+            String student = "load-" + s;
+            workers[s] = executor.submit(() -> {
+                int round;
+                while ((round = next.getAndIncrement()) < rounds) {
+                    latencies[2 * round] = -1;
+                    latencies[2 * round + 1] = -1;
+                    try {
+                        long t0 = System.nanoTime();
+                        String problem = get(client, base.resolve("problem?student=" + student));
+                        long t1 = System.nanoTime();
+                        String[] fields = fields(problem);
+                        ChargeType type = ChargeType.valueOf(fields[0]);
+                        double answer = ProblemSpace.answer(type, Integer.parseInt(fields[2]),
+                                Integer.parseInt(fields[3]), Integer.parseInt(fields[4]), Integer.parseInt(fields[5]));
+                        String graded = get(client, base.resolve("grade?type=" + type + "&index=" + fields[1]
+                                + "&answer=" + answer + "&student=" + student));
+                        long t2 = System.nanoTime();
+                        latencies[2 * round] = t1 - t0;
+                        latencies[2 * round + 1] = t2 - t1;
+                        if (!graded.contains("\"correct\":true")) {
+                            wrong.incrementAndGet();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        failed.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+        Arrays.sort(latencies);
+        int from = 0;
+        while (from < latencies.length && latencies[from] < 0) {
+            from++; // requests that failed
+        }
+        long[] succeeded = Arrays.copyOfRange(latencies, from, latencies.length);
+        if (succeeded.length == 0) {
+            System.out.println("All requests failed.");
+            return;
+        }
+        System.out.printf(Locale.ROOT, "%d requests from %d students in %.2f s: %.0f requests/s (%s threads)%n",
+                succeeded.length, students, seconds, succeeded.length / seconds,
+                RequestExecutors.isVirtual(executor) ? "virtual" : "platform");
+        System.out.printf(Locale.ROOT, "latency p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                percentile(succeeded, 0.5), percentile(succeeded, 0.99), percentile(succeeded, 0.999),
+                succeeded[succeeded.length - 1] / 1e6);
+        System.out.println("graded wrong: " + wrong.get() + ", failed: " + failed.get());
+    }
+
+    private static String get(HttpClient client, URI uri) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static String[] fields(String problem) {
+        // type, index, charge, size, x, y, in the order GradingServer writes them
+        String[] fields = new String[6];
+        Matcher matcher = FIELD.matcher(problem);
+        for (int f = 0; f < fields.length && matcher.find(); f++) {
+            fields[f] = matcher.group(2);
+        }
+        return fields;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+    }
+}
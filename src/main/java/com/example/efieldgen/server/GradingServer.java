@@ -0,0 +1,356 @@
+package com.example.efieldgen.server;
+
+import com.example.efieldgen.ChargeType;
+import com.example.efieldgen.problem.AnswerKeyTable;
+import com.example.efieldgen.problem.Problem;
+import com.example.efieldgen.problem.ProblemSpace;
+import com.example.efieldgen.session.AttemptLog;
+import com.example.efieldgen.session.AttemptStats;
+import com.example.efieldgen.session.Session;
+import com.example.efieldgen.session.SessionStore;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * GradingServer class that serves practice problems and grades answers over HTTP with the JDK's built-in server, so
+ * one JVM can serve a whole class without other dependencies. Grading is stateless: a problem is identified by its
+ * ChargeType and ProblemSpace number, and the answer is looked up in an AnswerKeyTable. Each request runs on its own
+ * virtual thread where the JDK has them.
+ *
+ * Endpoints, all answering JSON:
+ * <ul>
+ * <li>{@code GET /problem[?type=TYPE]}: a random problem, of a random type if none is given,</li>
+ * <li>{@code GET or POST /grade?type=TYPE&index=N&answer=A}: whether A is within the tolerance of the key,</li>
+ * <li>{@code GET /health}: a liveness check.</li>
+ * </ul>
+ * A POST may carry the parameters as a form-encoded body instead of the query string. Both endpoints also take an
+ * optional {@code student} id: problems are then dealt from those the student has not seen, and graded answers are
+ * counted in the student's session, kept in a bounded SessionStore. When the server has an AttemptLog, those graded
+ * answers are also logged, each response waiting for the group commit that makes it durable, and
+ * {@code GET /stats?student=ID} returns the student's accuracy per ChargeType.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class GradingServer {
+
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_SESSIONS = 100_000;
+    public static final Duration DEFAULT_SESSION_TTL = Duration.ofHours(2);
+    private static final int BACKLOG = 4096;
+    private static final int MAX_BODY = 4096;
+    private static final ChargeType[] TYPES = ChargeType.values();
+
+    static {
+        // Responses are a few dozen bytes, written as headers then body; without TCP_NODELAY every exchange waits for
+        // the client's delayed ACK, adding about 40 ms. Read once when the first HttpServer is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AnswerKeyTable keys;
+    private final SessionStore sessions;
+    private final AttemptLog log;
+
+    /**
+     * Constructor that binds the server without starting it, keeping up to {@value #DEFAULT_SESSIONS} student
+     * sessions.
+     * @param address InetSocketAddress to listen on; port 0 picks a free port.
+     * @param keys AnswerKeyTable used for grading.
+     * @throws IOException if the address cannot be bound.
+     */
+    public GradingServer(InetSocketAddress address, AnswerKeyTable keys) throws IOException {
+        this(address, keys, new SessionStore(DEFAULT_SESSIONS, DEFAULT_SESSION_TTL), null);
+    }
+
+    /**
+     * Constructor that binds the server without starting it.
+     * @param address InetSocketAddress to listen on; port 0 picks a free port.
+     * @param keys AnswerKeyTable used for grading.
+     * @param sessions SessionStore holding the sessions of students that identify themselves.
+     * @param log AttemptLog recording graded answers of students, or null to keep no log.
+     * @throws IOException if the address cannot be bound.
+     */
+    public GradingServer(InetSocketAddress address, AnswerKeyTable keys, SessionStore sessions, AttemptLog log)
+            throws IOException {
+        this.keys = keys;
+        this.sessions = sessions;
+        this.log = log;
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = RequestExecutors.perTask();
+        server.setExecutor(executor);
+        server.createContext("/problem", exchange -> handle(exchange, Endpoint.PROBLEM));
+        server.createContext("/grade", exchange -> handle(exchange, Endpoint.GRADE));
+        server.createContext("/stats", exchange -> handle(exchange, Endpoint.STATS));
+        server.createContext("/health", exchange -> respond(exchange, 200, "{\"status\":\"ok\"}"));
+    }
+
+    /**
+     * Method that starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Method that stops the server, letting requests in progress finish for a while.
+     * @param delaySeconds int representing the maximum number of seconds to wait for requests in progress.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Method that returns the port the server listens on.
+     * @return int representing the bound port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Method that tells whether requests run on virtual threads.
+     * @return boolean representing whether virtual threads are used.
+     */
+    public boolean usesVirtualThreads() {
+        return RequestExecutors.isVirtual(executor);
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !(method.equals("POST") && endpoint == Endpoint.GRADE)) {
+                respond(exchange, 405, error("Method not allowed: " + method));
+                return;
+            }
+            Map<String, String> parameters = parameters(exchange);
+            if (endpoint == Endpoint.PROBLEM) {
+                respond(exchange, 200, problem(parameters));
+            } else if (endpoint == Endpoint.GRADE) {
+                respond(exchange, 200, grade(parameters));
+            } else if (log == null) {
+                respond(exchange, 404, error("No attempt log is kept."));
+            } else {
+                respond(exchange, 200, stats(required(parameters, "student")));
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            respond(exchange, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error("Internal error"));
+        }
+    }
+
+    private String problem(Map<String, String> parameters) {
+        ThreadLocalRandom local = ThreadLocalRandom.current();
+        String name = parameters.get("type");
+        ChargeType type = name == null ? TYPES[local.nextInt(TYPES.length)] : type(name);
+        SplittableRandom random = new SplittableRandom(local.nextLong());
+        String student = parameters.get("student");
+        int index;
+        Problem problem;
+        if (student == null) {
+            index = ProblemSpace.randomIndex(type, random);
+            problem = ProblemSpace.problem(type, index);
+        } else {
+            index = sessions.getOrCreate(student).getSampler().next(type, random);
+            problem = ProblemSpace.problem(type, index);
+            sessions.update(student, session -> session.withProblem(problem));
+        }
+        return "{\"type\":\"" + type.name() + "\",\"index\":" + index + ",\"charge\":" + problem.getCharge()
+                + ",\"size\":" + problem.getSize() + ",\"x\":" + problem.getX() + ",\"y\":" + problem.getY() + "}";
+    }
+
+    private String grade(Map<String, String> parameters) throws IOException {
+        ChargeType type = type(required(parameters, "type"));
+        int index;
+        double answer;
+        try {
+            index = Integer.parseInt(required(parameters, "index"));
+            answer = Double.parseDouble(required(parameters, "answer"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Index and answer must be numbers.");
+        }
+        double key = keys.answer(type, index);
+        if (Double.isNaN(key)) {
+            throw new IllegalArgumentException("Problem " + index + " of " + type + " has no answer.");
+        }
+        boolean correct = Math.abs(answer - key) <= AnswerKeyTable.TOLERANCE;
+        String result = "{\"type\":\"" + type.name() + "\",\"index\":" + index + ",\"correct\":" + correct
+                + ",\"answer\":" + key;
+        String student = parameters.get("student");
+        Session session = student == null ? null : sessions.update(student, current -> current.withAttempt(correct));
+        if (session != null) {
+            result += ",\"attempts\":" + session.getAttempts() + ",\"solved\":" + session.getCorrect();
+            if (log != null) {
+                Problem problem = ProblemSpace.problem(type, index);
+                long latency = problem.equals(session.getProblem()) ? System.nanoTime() - session.getPostedNanos() : 0;
+                log.sync(log.append(student, problem, answer, correct, latency));
+            }
+        }
+        return result + "}";
+    }
+
+    private String stats(String student) {
+        AttemptStats stats = log.stats(student);
+        StringBuilder json = new StringBuilder("{\"student\":\"").append(escape(student)).append("\",\"types\":{");
+        for (ChargeType type : TYPES) {
+            json.append(type.ordinal() == 0 ? "" : ",").append('"').append(type.name()).append("\":{\"attempts\":")
+                    .append(stats.getAttempts(type)).append(",\"correct\":").append(stats.getCorrect(type)).append('}');
+        }
+        return json.append("}}").toString();
+    }
+
+    private static ChargeType type(String name) {
+        try {
+            return ChargeType.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown charge type: " + name);
+        }
+    }
+
+    private static String required(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static Map<String, String> parameters(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = new HashMap<>();
+        parse(exchange.getRequestURI().getRawQuery(), parameters);
+        if (exchange.getRequestMethod().equals("POST")) {
+            try (InputStream body = exchange.getRequestBody()) {
+                byte[] bytes = body.readNBytes(MAX_BODY + 1);
+                if (bytes.length > MAX_BODY) {
+                    throw new IllegalArgumentException("Request body is too large.");
+                }
+                parse(new String(bytes, StandardCharsets.UTF_8), parameters);
+            }
+        }
+        return parameters;
+    }
+
+    private static void parse(String query, Map<String, String> parameters) {
+        if (query == null || query.isEmpty()) {
+            return;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8).trim());
+            }
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"error\":\"" + escape(message) + "\"}";
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * The endpoints served with parameters.
+     */
+    private enum Endpoint {
+        PROBLEM, GRADE, STATS
+    }
+
+    /**
+     * Main method for running the grading service: {@code GradingServer [--port n] [--keys file] [--log file]}, also
+     * reachable as {@code FieldGen --serve ...}. With --keys the answer keys are mapped from that file, which is
+     * created when missing; otherwise they are computed at startup. With --log graded answers of students are appended
+     * to that AttemptLog.
+     * @param args String arguments holding the options.
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        String keyFile = null;
+        String logFile = null;
+        try {
+            for (int a = 0; a < args.length; a += 2) {
+                if (a + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[a] + ".");
+                }
+                if (args[a].equals("--port")) {
+                    port = Integer.parseInt(args[a + 1]);
+                } else if (args[a].equals("--keys")) {
+                    keyFile = args[a + 1];
+                } else if (args[a].equals("--log")) {
+                    logFile = args[a + 1];
+                } else {
+                    throw new IllegalArgumentException("Unknown option " + args[a] + ".");
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: GradingServer [--port n] [--keys file] [--log file]");
+            System.exit(2);
+        }
+        try {
+            AnswerKeyTable keys = keyFile == null ? AnswerKeyTable.compute()
+                    : AnswerKeyTable.loadOrCompute(Paths.get(keyFile));
+            AttemptLog log = logFile == null ? null : new AttemptLog(Paths.get(logFile));
+            GradingServer server = new GradingServer(new InetSocketAddress(port), keys,
+                    new SessionStore(DEFAULT_SESSIONS, DEFAULT_SESSION_TTL), log);
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop(1);
+                try {
+                    if (log != null) {
+                        log.close();
+                    }
+                } catch (IOException e) {
+                    System.err.println("Cannot close the attempt log: " + e.getMessage());
+                }
+            }));
+            System.out.println("Grading service on port " + server.getPort() + " using "
+                    + (server.usesVirtualThreads() ? "virtual" : "platform") + " threads");
+        } catch (IOException e) {
+            System.err.println("Cannot start the grading service: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.efieldgen.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * RequestExecutors class that creates the executors running request handlers. On a JDK with virtual threads every
+ * task gets its own virtual thread; the method is looked up reflectively so the code still compiles and runs on older
+ * JDKs, where a cached pool of platform threads is used instead.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+final class RequestExecutors {
+
+    private RequestExecutors() {
+    }
+
+    /**
+     * Method that creates an executor starting one thread per task, virtual where the JDK supports it.
+     * @return ExecutorService for request tasks.
+     */
+    static ExecutorService perTask() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // No virtual threads, or only as a preview feature that is not enabled.
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "fieldgen-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Method that tells whether an executor from {@link #perTask()} runs its tasks on virtual threads.
+     * @param executor ExecutorService returned by perTask.
+     * @return boolean representing whether the tasks run on virtual threads.
+     */
+    static boolean isVirtual(ExecutorService executor) {
+        return !(executor instanceof ThreadPoolExecutor);
+    }
+}
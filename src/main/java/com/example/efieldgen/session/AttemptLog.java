@@ -0,0 +1,245 @@
+package com.example.efieldgen.session;
+
+import com.example.efieldgen.ChargeType;
+import com.example.efieldgen.problem.Problem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AttemptLog class that records every graded answer to a generated problem in an append-only, memory-mapped file of
+ * fixed-width records, and keeps a per-student summary in memory for dashboards.
+ *
+ * The file starts with a {@value #HEADER_BYTES}-byte header (magic, record size, committed record count) followed by
+ * {@value #RECORD_BYTES}-byte little-endian records: the time in epoch milliseconds, the student key, the latency in
+ * microseconds, the ChargeType ordinal, whether the answer was correct, the charge, size, x and y of the problem as
+ * shorts, two bytes of padding and the answer given as a double. The file grows in mapped segments of
+ * {@value #SEGMENT_RECORDS} records.
+ *
+ * Appending copies a record into the mapping and updates the index under a short lock. Durability uses group commit:
+ * {@link #sync(long)} forces the file and then the header count, and every caller waiting meanwhile is covered by the
+ * same force, so a burst of graded answers costs one flush. Complete records past the committed count, written before
+ * a process crash, are recovered when the log is reopened.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class AttemptLog implements Closeable {
+
+    public static final int MAGIC = 0x45464131; // "EFA1"
+    public static final int HEADER_BYTES = 64;
+    public static final int RECORD_BYTES = 40;
+    static final int SEGMENT_RECORDS = 1 << 16;
+    private static final long SEGMENT_BYTES = (long) SEGMENT_RECORDS * RECORD_BYTES;
+    private static final int TYPES = ChargeType.values().length;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final StudentIndex index = new StudentIndex();
+    private final Object commitLock = new Object();
+    private long appended;
+    private volatile long committed;
+    private boolean closed;
+
+    /**
+     * Constructor that opens a log, creating it if needed, and rebuilds the index from the records in it.
+     * @param path Path of the log file.
+     * @throws IOException if the file cannot be opened or is not an attempt log.
+     */
+    public AttemptLog(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            boolean fresh = channel.size() == 0;
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (fresh) {
+                header.putInt(0, MAGIC);
+                header.putInt(4, RECORD_BYTES);
+                header.putLong(8, 0);
+                header.force();
+            } else if (header.getInt(0) != MAGIC || header.getInt(4) != RECORD_BYTES) {
+                throw new IOException("Not a FieldGen attempt log: " + path);
+            }
+            long count = header.getLong(8);
+            long capacity = (channel.size() - HEADER_BYTES) / RECORD_BYTES;
+            if (count < 0 || count > capacity) {
+                throw new IOException("Attempt log header is damaged: " + path);
+            }
+            for (long record = 0; record < capacity || record < count; record++) {
+                MappedByteBuffer segment = segment(record);
+                int at = (int) (record % SEGMENT_RECORDS) * RECORD_BYTES;
+                if (record >= count && !complete(segment, at)) {
+                    break;
+                }
+                index.add(segment.getLong(at + 8), segment.get(at + 20), segment.get(at + 21) != 0,
+                        segment.getInt(at + 16));
+                appended = record + 1;
+            }
+            committed = count;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Method that turns a student id into the key stored in the log, a 64-bit FNV-1a hash of its UTF-8 bytes.
+     * @param student String identifying the student.
+     * @return long representing the key, never zero.
+     */
+    public static long studentKey(String student) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : student.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Method that appends a graded attempt. The attempt is visible to {@link #stats(String)} at once and durable
+     * after {@link #sync(long)} with the returned sequence number.
+     * @param student String identifying the student.
+     * @param problem Problem that was answered.
+     * @param answer double representing the answer given.
+     * @param correct boolean representing whether the answer was graded correct.
+     * @param latencyNanos long representing the time from posing the problem to the answer.
+     * @return long representing the sequence number of the record.
+     * @throws IOException if the log cannot grow.
+     */
+    public long append(String student, Problem problem, double answer, boolean correct, long latencyNanos)
+            throws IOException {
+        long key = studentKey(student);
+        int micros = (int) Math.min(Integer.MAX_VALUE, Math.max(0, latencyNanos / 1000));
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("Attempt log is closed: " + path);
+            }
+            long record = appended;
+            MappedByteBuffer segment = segment(record);
+            int at = (int) (record % SEGMENT_RECORDS) * RECORD_BYTES;
+            segment.putLong(at + 8, key);
+            segment.putInt(at + 16, micros);
+            segment.put(at + 20, (byte) problem.getType().ordinal());
+            segment.put(at + 21, (byte) (correct ? 1 : 0));
+            segment.putShort(at + 22, (short) problem.getCharge());
+            segment.putShort(at + 24, (short) problem.getSize());
+            segment.putShort(at + 26, (short) problem.getX());
+            segment.putShort(at + 28, (short) problem.getY());
+            segment.putDouble(at + 32, answer);
+            // The time goes in last: a record with a time is complete.
+            segment.putLong(at, Math.max(1, System.currentTimeMillis()));
+            index.add(key, problem.getType().ordinal(), correct, micros);
+            appended = record + 1;
+            return record;
+        }
+    }
+
+    /**
+     * Method that makes every record up to a sequence number durable, sharing the flush with concurrent callers.
+     * @param sequence long representing the sequence number returned by append.
+     * @throws IOException if the file cannot be forced.
+     */
+    public void sync(long sequence) throws IOException {
+        if (sequence < committed) {
+            return;
+        }
+        synchronized (commitLock) {
+            if (sequence < committed) {
+                return; // a flush by another caller covered this record
+            }
+            long target;
+            MappedByteBuffer[] dirty;
+            synchronized (this) {
+                target = appended;
+                dirty = segments.subList((int) (committed / SEGMENT_RECORDS), segments.size())
+                        .toArray(new MappedByteBuffer[0]);
+            }
+            for (MappedByteBuffer segment : dirty) {
+                segment.force();
+            }
+            header.putLong(8, target);
+            header.force();
+            committed = target;
+        }
+    }
+
+    /**
+     * Method that makes every record appended so far durable.
+     * @throws IOException if the file cannot be forced.
+     */
+    public void sync() throws IOException {
+        long last;
+        synchronized (this) {
+            last = appended - 1;
+        }
+        if (last >= 0) {
+            sync(last);
+        }
+    }
+
+    /**
+     * Method that summarizes the attempts of a student.
+     * @param student String identifying the student.
+     * @return AttemptStats holding the attempts, correct answers and latency per ChargeType.
+     */
+    public synchronized AttemptStats stats(String student) {
+        return index.stats(studentKey(student));
+    }
+
+    /**
+     * Method that counts the records in the log.
+     * @return long representing the number of attempts appended.
+     */
+    public synchronized long size() {
+        return appended;
+    }
+
+    /**
+     * Method that counts the students with attempts in the log.
+     * @return int representing the number of distinct student keys.
+     */
+    public synchronized int students() {
+        return index.students();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            synchronized (this) {
+                closed = true;
+                channel.close();
+            }
+        }
+    }
+
+    private MappedByteBuffer segment(long record) throws IOException {
+        int number = (int) (record / SEGMENT_RECORDS);
+        while (segments.size() <= number) {
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + segments.size() * SEGMENT_BYTES, SEGMENT_BYTES);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            segments.add(segment);
+        }
+        return segments.get(number);
+    }
+
+    private static boolean complete(MappedByteBuffer segment, int at) {
+        int type = segment.get(at + 20);
+        int correct = segment.get(at + 21);
+        return segment.getLong(at) > 0 && type >= 0 && type < TYPES && (correct == 0 || correct == 1);
+    }
+}
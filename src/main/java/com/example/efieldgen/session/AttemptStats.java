@@ -0,0 +1,73 @@
+package com.example.efieldgen.session;
+
+import com.example.efieldgen.ChargeType;
+
+/**
+ * AttemptStats class holding one student's graded attempts per ChargeType, as summarized by an AttemptLog. Instances
+ * are immutable snapshots.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class AttemptStats {
+
+    private final int[] attempts;
+    private final int[] correct;
+    private final long[] latencyMicros;
+
+    AttemptStats(int[] attempts, int[] correct, long[] latencyMicros) {
+        this.attempts = attempts;
+        this.correct = correct;
+        this.latencyMicros = latencyMicros;
+    }
+
+    /**
+     * Method that counts the attempts at problems of a configuration.
+     * @param type ChargeType of the configuration.
+     * @return int representing the number of graded answers.
+     */
+    public int getAttempts(ChargeType type) {
+        return attempts[type.ordinal()];
+    }
+
+    /**
+     * Method that counts the correct answers to problems of a configuration.
+     * @param type ChargeType of the configuration.
+     * @return int representing the number of answers graded correct.
+     */
+    public int getCorrect(ChargeType type) {
+        return correct[type.ordinal()];
+    }
+
+    /**
+     * Method that computes the share of correct answers for a configuration.
+     * @param type ChargeType of the configuration.
+     * @return double representing the accuracy in [0, 1], or NaN without attempts.
+     */
+    public double accuracy(ChargeType type) {
+        int t = type.ordinal();
+        return attempts[t] == 0 ? Double.NaN : (double) correct[t] / attempts[t];
+    }
+
+    /**
+     * Method that computes the mean time taken to answer problems of a configuration.
+     * @param type ChargeType of the configuration.
+     * @return double representing the mean latency in seconds, or NaN without attempts.
+     */
+    public double meanSeconds(ChargeType type) {
+        int t = type.ordinal();
+        return attempts[t] == 0 ? Double.NaN : latencyMicros[t] / 1e6 / attempts[t];
+    }
+
+    /**
+     * Method that counts the attempts over all configurations.
+     * @return int representing the number of graded answers.
+     */
+    public int getTotalAttempts() {
+        int total = 0;
+        for (int count : attempts) {
+            total += count;
+        }
+        return total;
+    }
+}
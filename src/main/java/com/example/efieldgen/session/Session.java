@@ -0,0 +1,101 @@
+package com.example.efieldgen.session;
+
+import com.example.efieldgen.problem.FreshProblemSampler;
+import com.example.efieldgen.problem.Problem;
+
+/**
+ * Session class describing one student's practice session at a point in time: the problem currently posed and how
+ * many answers have been submitted and graded correct. Sessions are immutable; recording progress returns a new
+ * session, which SessionStore swaps in atomically, so readers never see a half-updated session and never lock.
+ *
+ * Every version of a session shares the student's FreshProblemSampler, which keeps the problems already dealt and
+ * synchronizes internally.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class Session {
+
+    private final String id;
+    private final FreshProblemSampler sampler;
+    private final Problem problem;
+    private final long postedNanos;
+    private final int attempts;
+    private final int correct;
+
+    /**
+     * Constructor that starts an empty session.
+     * @param id String identifying the student, window or client.
+     */
+    public Session(String id) {
+        this(id, new FreshProblemSampler(), null, 0, 0, 0);
+    }
+
+    private Session(String id, FreshProblemSampler sampler, Problem problem, long postedNanos, int attempts,
+            int correct) {
+        if (id == null) {
+            throw new IllegalArgumentException("Session id must not be null.");
+        }
+        this.id = id;
+        this.sampler = sampler;
+        this.problem = problem;
+        this.postedNanos = postedNanos;
+        this.attempts = attempts;
+        this.correct = correct;
+    }
+
+    /**
+     * Method that returns a copy of this session posing another problem from now on.
+     * @param next Problem now posed to the student.
+     * @return Session with the new problem and the same progress.
+     */
+    public Session withProblem(Problem next) {
+        return new Session(id, sampler, next, System.nanoTime(), attempts, correct);
+    }
+
+    /**
+     * Method that returns a copy of this session with one more graded answer.
+     * @param wasCorrect boolean representing whether the answer was graded correct.
+     * @return Session with the attempt recorded.
+     */
+    public Session withAttempt(boolean wasCorrect) {
+        return new Session(id, sampler, problem, postedNanos, attempts + 1, wasCorrect ? correct + 1 : correct);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public FreshProblemSampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * Method that returns the problem currently posed.
+     * @return Problem posed to the student, or null if none has been posed yet.
+     */
+    public Problem getProblem() {
+        return problem;
+    }
+
+    /**
+     * Method that returns when the current problem was posed, for measuring how long the student took.
+     * @return long representing the System.nanoTime() value when the problem was posed.
+     */
+    public long getPostedNanos() {
+        return postedNanos;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public int getCorrect() {
+        return correct;
+    }
+
+    @Override
+    public String toString() {
+        return "Session[" + id + ", " + correct + "/" + attempts + " correct, problem " + problem + "]";
+    }
+}
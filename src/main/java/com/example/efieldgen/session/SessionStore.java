@@ -0,0 +1,205 @@
+package com.example.efieldgen.session;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * SessionStore class holding the sessions of many students, windows or service clients in one process with bounded
+ * memory. Sessions idle for longer than the time-to-live expire, and when the store is over capacity the least
+ * recently used sessions are evicted, approximated with the CLOCK algorithm: sessions wait in a queue in creation
+ * order, and the one at the head is evicted unless it was used since it last came round, in which case it gets a
+ * second chance at the tail.
+ *
+ * Lookups and updates never lock: sessions live in a ConcurrentHashMap, each behind an AtomicReference that
+ * {@link #update(String, UnaryOperator)} swaps with compare-and-set. Expired sessions are dropped when they are looked
+ * up, and a couple are checked at the head of the queue whenever a session is created.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class SessionStore {
+
+    private static final int CLEANUP_PER_CREATE = 2;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final int capacity;
+    private final long ttlNanos;
+
+    /**
+     * Constructor that defines the bounds of the store.
+     * @param capacity int representing the most sessions kept at once.
+     * @param ttl Duration representing how long an unused session is kept.
+     */
+    public SessionStore(int capacity, Duration ttl) {
+        if (capacity < 1 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Capacity and time-to-live must be positive.");
+        }
+        this.capacity = capacity;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Method that looks up a live session and marks it as used.
+     * @param id String identifying the session.
+     * @return Session stored under the id, or null if there is none or it has expired.
+     */
+    public Session get(String id) {
+        Entry entry = live(id, System.nanoTime());
+        return entry == null ? null : entry.session.get();
+    }
+
+    /**
+     * Method that looks up a session, starting a new one if there is no live session under the id.
+     * @param id String identifying the session.
+     * @return Session stored under the id.
+     */
+    public Session getOrCreate(String id) {
+        long now = System.nanoTime();
+        Entry entry = live(id, now);
+        if (entry != null) {
+            return entry.session.get();
+        }
+        Entry created = new Entry(id, new Session(id), now);
+        Entry prior = entries.putIfAbsent(id, created);
+        if (prior != null) {
+            prior.touch(now);
+            return prior.session.get();
+        }
+        clock.offer(created);
+        cleanUp(now);
+        return created.session.get();
+    }
+
+    /**
+     * Method that atomically replaces a live session by a function of it. The function may be called more than once
+     * when updates race, so it must not have side effects.
+     * @param id String identifying the session.
+     * @param change UnaryOperator computing the new session from the current one.
+     * @return Session stored after the update, or null if there is no live session under the id.
+     */
+    public Session update(String id, UnaryOperator<Session> change) {
+        Entry entry = live(id, System.nanoTime());
+        if (entry == null) {
+            return null;
+        }
+        while (true) {
+            Session current = entry.session.get();
+            Session next = change.apply(current);
+            if (entry.session.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Method that ends a session.
+     * @param id String identifying the session.
+     * @return Session that was stored under the id, or null if there was none.
+     */
+    public Session remove(String id) {
+        Entry entry = entries.remove(id);
+        return entry == null ? null : entry.session.get();
+    }
+
+    /**
+     * Method that drops every expired session now instead of waiting for them to be found. It walks all sessions,
+     * so it is meant for an occasional background sweep.
+     * @return int representing the number of sessions dropped.
+     */
+    public int evictExpired() {
+        long now = System.nanoTime();
+        int dropped = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.expired(now, ttlNanos) && entries.remove(entry.id, entry)) {
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Method that counts the sessions held, including expired ones not yet dropped.
+     * @return int representing the number of sessions.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private Entry live(String id, long now) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expired(now, ttlNanos)) {
+            entries.remove(id, entry);
+            return null;
+        }
+        entry.touch(now);
+        return entry;
+    }
+
+    private void cleanUp(long now) {
+        // Check a few sessions at the head so expired and removed ones leave the queue even below capacity.
+        for (int i = 0; i < CLEANUP_PER_CREATE; i++) {
+            Entry head = clock.poll();
+            if (head == null) {
+                break;
+            }
+            if (entries.get(head.id) != head) {
+                continue;
+            }
+            if (head.expired(now, ttlNanos)) {
+                entries.remove(head.id, head);
+            } else {
+                clock.offer(head);
+            }
+        }
+        // Over capacity: evict in CLOCK order, giving recently used sessions a second chance.
+        while (entries.size() > capacity) {
+            Entry head = clock.poll();
+            if (head == null) {
+                break;
+            }
+            if (entries.get(head.id) != head) {
+                continue;
+            }
+            if (head.referenced && !head.expired(now, ttlNanos)) {
+                head.referenced = false;
+                clock.offer(head);
+            } else {
+                entries.remove(head.id, head);
+            }
+        }
+    }
+
+    /**
+     * A stored session with the bookkeeping for expiry and eviction.
+     */
+    private static final class Entry {
+        private final String id;
+        private final AtomicReference<Session> session;
+        private volatile long lastUsed;
+        private volatile boolean referenced;
+
+        Entry(String id, Session session, long now) {
+            this.id = id;
+            this.session = new AtomicReference<>(session);
+            this.lastUsed = now;
+        }
+
+        void touch(long now) {
+            lastUsed = now;
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+
+        boolean expired(long now, long ttlNanos) {
+            return now - lastUsed > ttlNanos;
+        }
+    }
+}
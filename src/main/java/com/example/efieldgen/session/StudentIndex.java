@@ -0,0 +1,97 @@
+package com.example.efieldgen.session;
+
+import com.example.efieldgen.ChargeType;
+
+import java.util.Arrays;
+
+/**
+ * StudentIndex class that sums attempts per student and ChargeType in flat primitive arrays, found by open addressing
+ * on the 64-bit student key, so a million attempts by a hundred thousand students take a few megabytes and a lookup
+ * is a hash probe. Not thread-safe; AttemptLog guards it.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+final class StudentIndex {
+
+    private static final int TYPES = ChargeType.values().length;
+    private static final long EMPTY = 0L;
+
+    private long[] keys = new long[1024];
+    private int[] attempts = new int[keys.length * TYPES];
+    private int[] correct = new int[keys.length * TYPES];
+    private long[] latencyMicros = new long[keys.length * TYPES];
+    private int students;
+
+    /**
+     * Method that adds one attempt.
+     * @param student long representing the student key, never zero.
+     * @param type int representing the ChargeType ordinal.
+     * @param wasCorrect boolean representing whether the attempt was graded correct.
+     * @param micros int representing the time taken in microseconds.
+     */
+    void add(long student, int type, boolean wasCorrect, int micros) {
+        if (2 * (students + 1) > keys.length) {
+            grow();
+        }
+        int slot = slot(keys, student);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = student;
+            students++;
+        }
+        int cell = slot * TYPES + type;
+        attempts[cell]++;
+        if (wasCorrect) {
+            correct[cell]++;
+        }
+        latencyMicros[cell] += micros;
+    }
+
+    /**
+     * Method that copies the sums of a student.
+     * @param student long representing the student key.
+     * @return AttemptStats of the student, all zero if the student has no attempts.
+     */
+    AttemptStats stats(long student) {
+        int slot = slot(keys, student);
+        if (keys[slot] == EMPTY) {
+            return new AttemptStats(new int[TYPES], new int[TYPES], new long[TYPES]);
+        }
+        int from = slot * TYPES;
+        return new AttemptStats(Arrays.copyOfRange(attempts, from, from + TYPES),
+                Arrays.copyOfRange(correct, from, from + TYPES), Arrays.copyOfRange(latencyMicros, from, from + TYPES));
+    }
+
+    int students() {
+        return students;
+    }
+
+    private static int slot(long[] table, long key) {
+        int mask = table.length - 1;
+        int slot = (int) (key ^ (key >>> 32)) * 0x9E3779B9 & mask;
+        while (table[slot] != EMPTY && table[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldAttempts = attempts;
+        int[] oldCorrect = correct;
+        long[] oldLatency = latencyMicros;
+        keys = new long[2 * oldKeys.length];
+        attempts = new int[keys.length * TYPES];
+        correct = new int[keys.length * TYPES];
+        latencyMicros = new long[keys.length * TYPES];
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldKeys[old] != EMPTY) {
+                int slot = slot(keys, oldKeys[old]);
+                keys[slot] = oldKeys[old];
+                System.arraycopy(oldAttempts, old * TYPES, attempts, slot * TYPES, TYPES);
+                System.arraycopy(oldCorrect, old * TYPES, correct, slot * TYPES, TYPES);
+                System.arraycopy(oldLatency, old * TYPES, latencyMicros, slot * TYPES, TYPES);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.efieldgen.solver;
+
+/**
+ * ApproximationError class that reports how far an approximate FieldSource, such as a Barnes-Hut tree, strays from
+ * a reference FieldSource on a sample of observation points.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class ApproximationError {
+
+    private final int samples;
+    private final double rmsRelative;
+    private final double maxRelative;
+
+    /**
+     * Constructor that records an already measured error.
+     * @param samples int representing the number of sampled observation points.
+     * @param rmsRelative double representing |E - E_ref| / |E_ref| in the root-mean-square sense over all samples.
+     * @param maxRelative double representing the largest pointwise |E - E_ref| / |E_ref|.
+     */
+    public ApproximationError(int samples, double rmsRelative, double maxRelative) {
+        this.samples = samples;
+        this.rmsRelative = rmsRelative;
+        this.maxRelative = maxRelative;
+    }
+
+    /**
+     * Method that evaluates both sources on evenly strided observation points from [from, to) and compares them.
+     * @param approximate FieldSource whose error is measured.
+     * @param reference FieldSource treated as exact, usually a DirectSummation.
+     * @param x double array of x-coordinates of the observation points.
+     * @param y double array of y-coordinates of the observation points.
+     * @param z double array of z-coordinates of the observation points.
+     * @param from int representing the first candidate point (inclusive).
+     * @param to int representing the last candidate point (exclusive).
+     * @param maxSamples int representing the largest number of points to compare.
+     * @return ApproximationError describing the relative error over the sample.
+     */
+    public static ApproximationError compare(FieldSource approximate, FieldSource reference, double[] x,
+                                             double[] y, double[] z, int from, int to, int maxSamples) {
+        int n = Math.max(0, Math.min(maxSamples, to - from));
+        if (n == 0) {
+            return new ApproximationError(0, 0, 0);
+        }
+        double[] sx = new double[n];
+        double[] sy = new double[n];
+        double[] sz = new double[n];
+        double stride = (double) (to - from) / n;
+        for (int i = 0; i < n; i++) {
+            int index = from + (int) (i * stride);
+            sx[i] = x[index];
+            sy[i] = y[index];
+            sz[i] = z[index];
+        }
+        double[] ax = new double[n];
+        double[] ay = new double[n];
+        double[] az = new double[n];
+        double[] rx = new double[n];
+        double[] ry = new double[n];
+        double[] rz = new double[n];
+        approximate.evaluate(sx, sy, sz, ax, ay, az, 0, n);
+        reference.evaluate(sx, sy, sz, rx, ry, rz, 0, n);
+
+        double errorSquared = 0;
+        double referenceSquared = 0;
+        double max = 0;
+        for (int i = 0; i < n; i++) {
+            double dx = ax[i] - rx[i];
+            double dy = ay[i] - ry[i];
+            double dz = az[i] - rz[i];
+            double e2 = dx * dx + dy * dy + dz * dz;
+            double r2 = rx[i] * rx[i] + ry[i] * ry[i] + rz[i] * rz[i];
+            errorSquared += e2;
+            referenceSquared += r2;
+            if (r2 > 0) {
+                max = Math.max(max, Math.sqrt(e2 / r2));
+            }
+        }
+        double rms = referenceSquared > 0 ? Math.sqrt(errorSquared / referenceSquared) : 0;
+        return new ApproximationError(n, rms, max);
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public double getRmsRelative() {
+        return rmsRelative;
+    }
+
+    public double getMaxRelative() {
+        return maxRelative;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d samples, rms relative error %.3e, max relative error %.3e", samples, rmsRelative,
+                maxRelative);
+    }
+}
@@ -0,0 +1,424 @@
+package com.example.efieldgen.solver;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * BarnesHutTree class that approximates the field of a large PointChargeSet with an octree. Distant groups of
+ * charges are replaced by their monopole, dipole and quadrupole moments, while nearby leaves are summed exactly
+ * with the same CoulombKernel used by DirectSummation, bringing evaluation down to O(M log N).
+ *
+ * A node is accepted as a whole when r_max / d < theta, where r_max is the radius of the smallest sphere around the
+ * node's expansion center that holds all of its charges and d is the distance from that center to the observation
+ * point. Smaller opening angles trade speed for accuracy; {@link #estimateError} measures the result against
+ * direct summation.
+ *
+ * The tree is a snapshot: it copies the charges on construction and must be rebuilt after they change.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class BarnesHutTree implements FieldSource {
+
+    static final int LEAF_SIZE = 16;
+    static final int MAX_DEPTH = 32;
+    static final int POINT_TILE = 256;
+
+    /**
+     * Offsets into the per-node double record.
+     */
+    private static final int CX = 0; // expansion center
+    private static final int CY = 1;
+    private static final int CZ = 2;
+    private static final int RMAX = 3; // radius holding every charge of the node
+    private static final int Q = 4; // monopole
+    private static final int PX = 5; // dipole
+    private static final int PY = 6;
+    private static final int PZ = 7;
+    private static final int QXX = 8; // traceless quadrupole
+    private static final int QXY = 9;
+    private static final int QXZ = 10;
+    private static final int QYY = 11;
+    private static final int QYZ = 12;
+    private static final int QZZ = 13;
+    private static final int STRIDE = 14;
+
+    /**
+     * Offsets into the per-node int record.
+     */
+    private static final int FIRST = 0; // first charge of the node
+    private static final int COUNT = 1; // number of charges of the node
+    private static final int CHILD = 2; // first child, children are stored contiguously
+    private static final int CHILDREN = 3; // number of children, zero for a leaf
+    private static final int LINKS = 4;
+
+    private final double theta;
+    private final ForkJoinPool pool;
+
+    /**
+     * Charges copied from the source set and reordered so that each node owns a contiguous range.
+     */
+    private final double[] sx;
+    private final double[] sy;
+    private final double[] sz;
+    private final double[] sq;
+    private final int size;
+
+    private double[] nodes = new double[0];
+    private int[] links = new int[0];
+    private int nodeCount;
+    private int depth;
+
+    /**
+     * Constructor that builds a tree over the given charges and evaluates it on the common ForkJoinPool.
+     * @param charges PointChargeSet containing the source charges.
+     * @param theta double representing the opening angle, typically between 0.3 and 0.8.
+     */
+    public BarnesHutTree(PointChargeSet charges, double theta) {
+        this(charges, theta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor that builds a tree over the given charges and evaluates it on a specific ForkJoinPool.
+     * @param charges PointChargeSet containing the source charges.
+     * @param theta double representing the opening angle, typically between 0.3 and 0.8.
+     * @param pool ForkJoinPool whose threads perform the evaluation.
+     */
+    public BarnesHutTree(PointChargeSet charges, double theta, ForkJoinPool pool) {
+        if (charges == null || pool == null) {
+            throw new IllegalArgumentException("Charges and pool must not be null.");
+        }
+        if (!(theta >= 0)) {
+            throw new IllegalArgumentException("Opening angle must not be negative.");
+        }
+        this.theta = theta;
+        this.pool = pool;
+        this.size = charges.size();
+        this.sx = Arrays.copyOf(charges.xArray(), size);
+        this.sy = Arrays.copyOf(charges.yArray(), size);
+        this.sz = Arrays.copyOf(charges.zArray(), size);
+        this.sq = Arrays.copyOf(charges.chargeArray(), size);
+        build();
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Method that measures the error of this tree against direct summation over the same charges.
+     * @param charges PointChargeSet the tree was built from.
+     * @param x double array of x-coordinates of candidate observation points.
+     * @param y double array of y-coordinates of candidate observation points.
+     * @param z double array of z-coordinates of candidate observation points.
+     * @param from int representing the first candidate point (inclusive).
+     * @param to int representing the last candidate point (exclusive).
+     * @param samples int representing the largest number of points to compare.
+     * @return ApproximationError describing the relative error of the tree.
+     */
+    public ApproximationError estimateError(PointChargeSet charges, double[] x, double[] y, double[] z, int from,
+                                            int to, int samples) {
+        return ApproximationError.compare(this, new DirectSummation(charges, pool), x, y, z, from, to, samples);
+    }
+
+    @Override
+    public void evaluate(double[] x, double[] y, double[] z, double[] ex, double[] ey, double[] ez, int from, int to) {
+        if (to <= from) {
+            return;
+        }
+        pool.invoke(new EvaluateTask(x, y, z, ex, ey, ez, from, to));
+    }
+
+    /**
+     * Method that builds the octree over the copied charges.
+     */
+    private void build() {
+        if (size == 0) {
+            return;
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double maxZ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            minX = Math.min(minX, sx[i]);
+            minY = Math.min(minY, sy[i]);
+            minZ = Math.min(minZ, sz[i]);
+            maxX = Math.max(maxX, sx[i]);
+            maxY = Math.max(maxY, sy[i]);
+            maxZ = Math.max(maxZ, sz[i]);
+        }
+        double half = Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ)) / 2;
+        int capacity = Math.max(16, 4 * size / LEAF_SIZE);
+        nodes = new double[capacity * STRIDE];
+        links = new int[capacity * LINKS];
+        int root = allocate(1);
+        int[] octant = new int[size];
+        double[][] scratch = new double[4][size];
+        build(root, 0, size, (minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2, half, 0, octant, scratch);
+    }
+
+    /**
+     * Method that fills in one node and recursively splits its charges into octants.
+     */
+    private void build(int node, int first, int count, double bx, double by, double bz, double half, int level,
+                       int[] octant, double[][] scratch) {
+        depth = Math.max(depth, level);
+        links[node * LINKS + FIRST] = first;
+        links[node * LINKS + COUNT] = count;
+        computeMoments(node, first, count);
+        if (count <= LEAF_SIZE || level >= MAX_DEPTH || nodes[node * STRIDE + RMAX] == 0) {
+            return;
+        }
+
+        // Counting sort of the node's charges by octant.
+        int[] counts = new int[8];
+        int end = first + count;
+        for (int i = first; i < end; i++) {
+            int o = (sx[i] >= bx ? 1 : 0) | (sy[i] >= by ? 2 : 0) | (sz[i] >= bz ? 4 : 0);
+            octant[i] = o;
+            counts[o]++;
+        }
+        int[] offsets = new int[8];
+        int children = 0;
+        for (int o = 0, running = first; o < 8; o++) {
+            offsets[o] = running;
+            running += counts[o];
+            if (counts[o] > 0) {
+                children++;
+            }
+        }
+        int[] cursor = offsets.clone();
+        for (int i = first; i < end; i++) {
+            int target = cursor[octant[i]]++;
+            scratch[0][target] = sx[i];
+            scratch[1][target] = sy[i];
+            scratch[2][target] = sz[i];
+            scratch[3][target] = sq[i];
+        }
+        System.arraycopy(scratch[0], first, sx, first, count);
+        System.arraycopy(scratch[1], first, sy, first, count);
+        System.arraycopy(scratch[2], first, sz, first, count);
+        System.arraycopy(scratch[3], first, sq, first, count);
+
+        int child = allocate(children);
+        links[node * LINKS + CHILD] = child;
+        links[node * LINKS + CHILDREN] = children;
+        double quarter = half / 2;
+        for (int o = 0; o < 8; o++) {
+            if (counts[o] == 0) {
+                continue;
+            }
+            double cx = bx + ((o & 1) != 0 ? quarter : -quarter);
+            double cy = by + ((o & 2) != 0 ? quarter : -quarter);
+            double cz = bz + ((o & 4) != 0 ? quarter : -quarter);
+            build(child++, offsets[o], counts[o], cx, cy, cz, quarter, level + 1, octant, scratch);
+        }
+    }
+
+    /**
+     * Method that reserves a contiguous run of node records.
+     * @param count int representing the number of nodes to reserve.
+     * @return int representing the index of the first reserved node.
+     */
+    private int allocate(int count) {
+        int first = nodeCount;
+        nodeCount += count;
+        if (nodeCount * LINKS > links.length) {
+            int capacity = Math.max(nodeCount, links.length / LINKS * 2);
+            nodes = Arrays.copyOf(nodes, capacity * STRIDE);
+            links = Arrays.copyOf(links, capacity * LINKS);
+        }
+        return first;
+    }
+
+    /**
+     * Method that computes the expansion center, enclosing radius and multipole moments of a node. The center is
+     * weighted by |q| so that it stays inside the node even when positive and negative charges cancel.
+     */
+    private void computeMoments(int node, int first, int count) {
+        int end = first + count;
+        double w = 0;
+        double cx = 0;
+        double cy = 0;
+        double cz = 0;
+        for (int i = first; i < end; i++) {
+            double a = Math.abs(sq[i]);
+            w += a;
+            cx += a * sx[i];
+            cy += a * sy[i];
+            cz += a * sz[i];
+        }
+        if (w > 0) {
+            cx /= w;
+            cy /= w;
+            cz /= w;
+        } else {
+            cx = sx[first];
+            cy = sy[first];
+            cz = sz[first];
+        }
+        double r2max = 0;
+        double q = 0;
+        double px = 0;
+        double py = 0;
+        double pz = 0;
+        double qxx = 0;
+        double qxy = 0;
+        double qxz = 0;
+        double qyy = 0;
+        double qyz = 0;
+        double qzz = 0;
+        for (int i = first; i < end; i++) {
+            double dx = sx[i] - cx;
+            double dy = sy[i] - cy;
+            double dz = sz[i] - cz;
+            double c = sq[i];
+            double r2 = dx * dx + dy * dy + dz * dz;
+            r2max = Math.max(r2max, r2);
+            q += c;
+            px += c * dx;
+            py += c * dy;
+            pz += c * dz;
+            qxx += c * (3 * dx * dx - r2);
+            qxy += c * 3 * dx * dy;
+            qxz += c * 3 * dx * dz;
+            qyy += c * (3 * dy * dy - r2);
+            qyz += c * 3 * dy * dz;
+            qzz += c * (3 * dz * dz - r2);
+        }
+        int base = node * STRIDE;
+        nodes[base + CX] = cx;
+        nodes[base + CY] = cy;
+        nodes[base + CZ] = cz;
+        nodes[base + RMAX] = Math.sqrt(r2max);
+        nodes[base + Q] = q;
+        nodes[base + PX] = px;
+        nodes[base + PY] = py;
+        nodes[base + PZ] = pz;
+        nodes[base + QXX] = qxx;
+        nodes[base + QXY] = qxy;
+        nodes[base + QXZ] = qxz;
+        nodes[base + QYY] = qyy;
+        nodes[base + QYZ] = qyz;
+        nodes[base + QZZ] = qzz;
+    }
+
+    /**
+     * Method that walks the tree for one observation point and adds its unscaled field to the output at index i.
+     */
+    private void evaluatePoint(double[] x, double[] y, double[] z, double[] ex, double[] ey, double[] ez, int i,
+                               int[] stack) {
+        double tx = x[i];
+        double ty = y[i];
+        double tz = z[i];
+        double theta2 = theta * theta;
+        double fx = 0;
+        double fy = 0;
+        double fz = 0;
+        int sp = 0;
+        stack[sp++] = 0;
+        while (sp > 0) {
+            int node = stack[--sp];
+            int base = node * STRIDE;
+            double rx = tx - nodes[base + CX];
+            double ry = ty - nodes[base + CY];
+            double rz = tz - nodes[base + CZ];
+            double d2 = rx * rx + ry * ry + rz * rz;
+            double rmax = nodes[base + RMAX];
+            if (rmax * rmax < theta2 * d2) {
+                double inv2 = 1 / d2;
+                double inv3 = inv2 / Math.sqrt(d2);
+                double inv5 = inv3 * inv2;
+                double inv7 = inv5 * inv2;
+                double q = nodes[base + Q];
+                double px = nodes[base + PX];
+                double py = nodes[base + PY];
+                double pz = nodes[base + PZ];
+                double pr = px * rx + py * ry + pz * rz;
+                double qrx = nodes[base + QXX] * rx + nodes[base + QXY] * ry + nodes[base + QXZ] * rz;
+                double qry = nodes[base + QXY] * rx + nodes[base + QYY] * ry + nodes[base + QYZ] * rz;
+                double qrz = nodes[base + QXZ] * rx + nodes[base + QYZ] * ry + nodes[base + QZZ] * rz;
+                double rqr = rx * qrx + ry * qry + rz * qrz;
+                double radial = q * inv3 + 3 * pr * inv5 + 2.5 * rqr * inv7;
+                fx += radial * rx - px * inv3 - qrx * inv5;
+                fy += radial * ry - py * inv3 - qry * inv5;
+                fz += radial * rz - pz * inv3 - qrz * inv5;
+                continue;
+            }
+            int link = node * LINKS;
+            int children = links[link + CHILDREN];
+            if (children == 0) {
+                int first = links[link + FIRST];
+                CoulombKernel.accumulate(x, y, z, i, i + 1, sx, sy, sz, sq, first, first + links[link + COUNT],
+                        ex, ey, ez, i);
+            } else {
+                int child = links[link + CHILD];
+                for (int c = 0; c < children; c++) {
+                    stack[sp++] = child + c;
+                }
+            }
+        }
+        ex[i] += fx;
+        ey[i] += fy;
+        ez[i] += fz;
+    }
+
+    /**
+     * Task that splits the observation points into tiles and walks the tree for each point of a tile.
+     */
+    private final class EvaluateTask extends RecursiveAction {
+        private final double[] x;
+        private final double[] y;
+        private final double[] z;
+        private final double[] ex;
+        private final double[] ey;
+        private final double[] ez;
+        private final int from;
+        private final int to;
+
+        EvaluateTask(double[] x, double[] y, double[] z, double[] ex, double[] ey, double[] ez, int from, int to) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.ex = ex;
+            this.ey = ey;
+            this.ez = ez;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > POINT_TILE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new EvaluateTask(x, y, z, ex, ey, ez, from, mid),
+                        new EvaluateTask(x, y, z, ex, ey, ez, mid, to));
+                return;
+            }
+            int[] stack = new int[7 * (depth + 1) + 1];
+            for (int i = from; i < to; i++) {
+                ex[i] = 0;
+                ey[i] = 0;
+                ez[i] = 0;
+                if (size > 0) {
+                    evaluatePoint(x, y, z, ex, ey, ez, i, stack);
+                }
+                ex[i] *= FieldSolver.K_NANO;
+                ey[i] *= FieldSolver.K_NANO;
+                ez[i] *= FieldSolver.K_NANO;
+            }
+        }
+    }
+}
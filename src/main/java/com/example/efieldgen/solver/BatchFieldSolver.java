@@ -0,0 +1,188 @@
+package com.example.efieldgen.solver;
+
+import com.example.efieldgen.ChargeType;
+
+/**
+ * BatchFieldSolver class that evaluates one ChargeType configuration over whole arrays of observation points.
+ * The configuration is fixed on construction so every coefficient (unit conversions, powers of the radius, the
+ * slab field) is computed once, and each configuration has its own branch-light loop over struct-of-arrays
+ * buffers that the JIT can unroll and vectorize.
+ *
+ * Geometry follows the FieldGen calculators: point charges and spheres are centered at the origin, the infinite
+ * line runs along the x-axis and the infinite slab is centered on the x-z plane.
+ *
+ * Instances are immutable and can be shared between threads.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class BatchFieldSolver implements FieldSource {
+
+    private final ChargeType type;
+    private final double charge;
+    private final double size;
+
+    /**
+     * Coefficients folded from the configuration on construction.
+     */
+    private final double kq; // K * charge with the charge converted from nC
+    private final double sizeSquared; // radius^2 for spheres
+    private final double interior; // kq / radius^3 for the inside of a solid sphere
+    private final double halfThickness; // half the slab thickness
+    private final double slabField; // field outside the slab
+
+    /**
+     * Constructor that fixes the configuration evaluated by this solver.
+     * @param type ChargeType of the source configuration.
+     * @param charge double representing the charge, or charge density, of the source in nanocoulombs.
+     * @param size double representing the radius of a sphere or the thickness of a slab; ignored otherwise.
+     */
+    public BatchFieldSolver(ChargeType type, double charge, double size) {
+        if (type == null) {
+            throw new IllegalArgumentException("Charge type must not be null.");
+        }
+        this.type = type;
+        this.charge = charge;
+        this.size = size;
+        this.kq = FieldSolver.K_NANO * charge;
+        this.sizeSquared = size * size;
+        this.interior = kq / (size * size * size);
+        this.halfThickness = size / 2;
+        this.slabField = FieldSolver.SLAB_FIELD * charge;
+    }
+
+    public ChargeType getType() {
+        return type;
+    }
+
+    public double getCharge() {
+        return charge;
+    }
+
+    public double getSize() {
+        return size;
+    }
+
+    /**
+     * Method that fills an array with the signed field at each distance, with the same meaning of distance as
+     * {@link FieldSolver#solve(ChargeType, double, double, double)}.
+     * @param distance double array of distances from the source in meters.
+     * @param field double array receiving the field at each distance in N/C.
+     * @param from int representing the first index to evaluate (inclusive).
+     * @param to int representing the last index to evaluate (exclusive).
+     */
+    public void solve(double[] distance, double[] field, int from, int to) {
+        switch (type) {
+            case POINTCHARGE:
+                for (int i = from; i < to; i++) {
+                    double r = distance[i];
+                    field[i] = kq / (r * r);
+                }
+                break;
+            case HOLLOWSPHERE:
+                for (int i = from; i < to; i++) {
+                    double r = distance[i];
+                    field[i] = r * r >= sizeSquared ? kq / (r * r) : 0;
+                }
+                break;
+            case SOLIDSPHERE:
+                for (int i = from; i < to; i++) {
+                    double r = distance[i];
+                    field[i] = r * r >= sizeSquared ? kq / (r * r) : interior * r;
+                }
+                break;
+            case INFINITELINE:
+                for (int i = from; i < to; i++) {
+                    field[i] = 2 * kq / distance[i];
+                }
+                break;
+            case INFINITESLAB:
+                for (int i = from; i < to; i++) {
+                    double d = distance[i];
+                    field[i] = Math.abs(d) >= halfThickness ? Math.copySign(slabField, d)
+                            : slabField * d / halfThickness;
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unsupported charge type: " + type);
+        }
+    }
+
+    @Override
+    public void evaluate(double[] x, double[] y, double[] z, double[] ex, double[] ey, double[] ez, int from, int to) {
+        switch (type) {
+            case POINTCHARGE:
+                for (int i = from; i < to; i++) {
+                    double px = x[i];
+                    double py = y[i];
+                    double pz = z[i];
+                    double r2 = px * px + py * py + pz * pz;
+                    double s = kq / (r2 * Math.sqrt(r2));
+                    ex[i] = s * px;
+                    ey[i] = s * py;
+                    ez[i] = s * pz;
+                }
+                break;
+            case HOLLOWSPHERE:
+                for (int i = from; i < to; i++) {
+                    double px = x[i];
+                    double py = y[i];
+                    double pz = z[i];
+                    double r2 = px * px + py * py + pz * pz;
+                    double s = r2 >= sizeSquared ? kq / (r2 * Math.sqrt(r2)) : 0;
+                    ex[i] = s * px;
+                    ey[i] = s * py;
+                    ez[i] = s * pz;
+                }
+                break;
+            case SOLIDSPHERE:
+                for (int i = from; i < to; i++) {
+                    double px = x[i];
+                    double py = y[i];
+                    double pz = z[i];
+                    double r2 = px * px + py * py + pz * pz;
+                    double s = r2 >= sizeSquared ? kq / (r2 * Math.sqrt(r2)) : interior;
+                    ex[i] = s * px;
+                    ey[i] = s * py;
+                    ez[i] = s * pz;
+                }
+                break;
+            case INFINITELINE:
+                for (int i = from; i < to; i++) {
+                    double py = y[i];
+                    double pz = z[i];
+                    double s = 2 * kq / (py * py + pz * pz);
+                    ex[i] = 0;
+                    ey[i] = s * py;
+                    ez[i] = s * pz;
+                }
+                break;
+            case INFINITESLAB:
+                for (int i = from; i < to; i++) {
+                    double py = y[i];
+                    ex[i] = 0;
+                    ey[i] = Math.abs(py) >= halfThickness ? Math.copySign(slabField, py)
+                            : slabField * py / halfThickness;
+                    ez[i] = 0;
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unsupported charge type: " + type);
+        }
+    }
+
+    /**
+     * Method that computes the magnitude of each field vector in a batch.
+     * @param ex double array of x-components of the field.
+     * @param ey double array of y-components of the field.
+     * @param ez double array of z-components of the field.
+     * @param magnitude double array receiving the magnitude of each field vector.
+     * @param from int representing the first index to process (inclusive).
+     * @param to int representing the last index to process (exclusive).
+     */
+    public static void magnitudes(double[] ex, double[] ey, double[] ez, double[] magnitude, int from, int to) {
+        for (int i = from; i < to; i++) {
+            magnitude[i] = Math.sqrt(ex[i] * ex[i] + ey[i] * ey[i] + ez[i] * ez[i]);
+        }
+    }
+}
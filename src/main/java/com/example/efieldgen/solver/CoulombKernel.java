@@ -0,0 +1,228 @@
+package com.example.efieldgen.solver;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * CoulombKernel class containing the inner superposition loop shared by every multi-charge engine. It is the
+ * vector form of {@link FieldSolver#pointFieldSolver(double, double)}: each source adds q * r / |r|^3 to the
+ * field at each target. Sums are left unscaled so that callers multiply by {@link FieldSolver#K_NANO} once.
+ *
+ * Sources that coincide with a target are skipped, so a charge never feels its own field.
+ *
+ * Blocks of at least {@value #MIN_LANE_TARGETS} targets take the lane path: the targets are copied into zero-based
+ * per-thread buffers and the loops are swapped, so that each source is applied to every target in one branch-free
+ * loop without a reduction, which C2 compiles to SIMD instructions (4 doubles per instruction on AVX2, 8 on
+ * AVX-512). Each target still sums its sources in order starting from zero, so both paths give the same bits; the
+ * only difference is that the lane path clamps the squared distance to {@value #MIN_DISTANCE_SQUARED} instead of
+ * testing for zero, which matters only for sources closer than 1e-75 m. Smaller blocks, such as the single
+ * targets of a Barnes-Hut walk, and every block when the system property {@code fieldgen.scalarKernel} is true,
+ * take the scalar path.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class CoulombKernel {
+
+    public static final int MIN_LANE_TARGETS = 16;
+    static final int LANE_TILE = 256; // targets per pass, so the buffers stay in the L1 cache
+    static final double MIN_DISTANCE_SQUARED = 1e-150;
+    private static final boolean LANES = !Boolean.getBoolean("fieldgen.scalarKernel");
+    private static final ThreadLocal<Lanes> BUFFERS = ThreadLocal.withInitial(Lanes::new);
+
+    private CoulombKernel() {
+    }
+
+    /**
+     * Lanes class holding the per-thread target and sum buffers of the lane path.
+     */
+    private static final class Lanes {
+        private final double[] tx = new double[LANE_TILE];
+        private final double[] ty = new double[LANE_TILE];
+        private final double[] tz = new double[LANE_TILE];
+        private final double[] bx = new double[LANE_TILE];
+        private final double[] by = new double[LANE_TILE];
+        private final double[] bz = new double[LANE_TILE];
+
+        /**
+         * Method that loads a pass of targets and clears the sums.
+         */
+        private void load(double[] px, double[] py, double[] pz, int first, int n) {
+            System.arraycopy(px, first, tx, 0, n);
+            System.arraycopy(py, first, ty, 0, n);
+            System.arraycopy(pz, first, tz, 0, n);
+            for (int i = 0; i < n; i++) {
+                bx[i] = 0;
+                by[i] = 0;
+                bz[i] = 0;
+            }
+        }
+
+        /**
+         * Method that adds the field of one source to every target of the pass; this is the loop C2 vectorizes.
+         */
+        private void add(double x, double y, double z, double q, int n) {
+            for (int i = 0; i < n; i++) {
+                double dx = tx[i] - x;
+                double dy = ty[i] - y;
+                double dz = tz[i] - z;
+                double r2 = Math.max(dx * dx + dy * dy + dz * dz, MIN_DISTANCE_SQUARED);
+                double s = q / (r2 * Math.sqrt(r2));
+                bx[i] += s * dx;
+                by[i] += s * dy;
+                bz[i] += s * dz;
+            }
+        }
+
+        /**
+         * Method that adds the sums of a pass to the output.
+         */
+        private void store(double[] ex, double[] ey, double[] ez, int o, int n) {
+            for (int i = 0; i < n; i++) {
+                ex[o + i] += bx[i];
+                ey[o + i] += by[i];
+                ez[o + i] += bz[i];
+            }
+        }
+    }
+
+    /**
+     * Method that adds the unscaled field of the sources [sFrom, sTo) to the targets [from, to). For every target the
+     * block is summed from zero before being added to the output, so results do not depend on what the output
+     * already held.
+     * @param px double array of target x-coordinates.
+     * @param py double array of target y-coordinates.
+     * @param pz double array of target z-coordinates.
+     * @param from int representing the first target (inclusive).
+     * @param to int representing the last target (exclusive).
+     * @param sx double array of source x-coordinates.
+     * @param sy double array of source y-coordinates.
+     * @param sz double array of source z-coordinates.
+     * @param sq double array of source charges.
+     * @param sFrom int representing the first source (inclusive).
+     * @param sTo int representing the last source (exclusive).
+     * @param ex double array the x-components are added to.
+     * @param ey double array the y-components are added to.
+     * @param ez double array the z-components are added to.
+     * @param outOffset int representing the output index of target {@code from}.
+     */
+    public static void accumulate(double[] px, double[] py, double[] pz, int from, int to,
+                                  double[] sx, double[] sy, double[] sz, double[] sq, int sFrom, int sTo,
+                                  double[] ex, double[] ey, double[] ez, int outOffset) {
+        if (!LANES || to - from < MIN_LANE_TARGETS) {
+            accumulateScalar(px, py, pz, from, to, sx, sy, sz, sq, sFrom, sTo, ex, ey, ez, outOffset);
+            return;
+        }
+        Lanes lanes = BUFFERS.get();
+        for (int first = from; first < to; first += LANE_TILE) {
+            int n = Math.min(LANE_TILE, to - first);
+            lanes.load(px, py, pz, first, n);
+            for (int j = sFrom; j < sTo; j++) {
+                lanes.add(sx[j], sy[j], sz[j], sq[j], n);
+            }
+            lanes.store(ex, ey, ez, outOffset + first - from, n);
+        }
+    }
+
+    /**
+     * Method that adds the unscaled field of the sources [sFrom, sTo) to the targets [from, to) one target at a
+     * time. It is the reference for the lane path and the path taken for small blocks.
+     * @param px double array of target x-coordinates.
+     * @param py double array of target y-coordinates.
+     * @param pz double array of target z-coordinates.
+     * @param from int representing the first target (inclusive).
+     * @param to int representing the last target (exclusive).
+     * @param sx double array of source x-coordinates.
+     * @param sy double array of source y-coordinates.
+     * @param sz double array of source z-coordinates.
+     * @param sq double array of source charges.
+     * @param sFrom int representing the first source (inclusive).
+     * @param sTo int representing the last source (exclusive).
+     * @param ex double array the x-components are added to.
+     * @param ey double array the y-components are added to.
+     * @param ez double array the z-components are added to.
+     * @param outOffset int representing the output index of target {@code from}.
+     */
+    public static void accumulateScalar(double[] px, double[] py, double[] pz, int from, int to,
+                                        double[] sx, double[] sy, double[] sz, double[] sq, int sFrom, int sTo,
+                                        double[] ex, double[] ey, double[] ez, int outOffset) {
+        for (int i = from; i < to; i++) {
+            double tx = px[i];
+            double ty = py[i];
+            double tz = pz[i];
+            double bx = 0;
+            double by = 0;
+            double bz = 0;
+            for (int j = sFrom; j < sTo; j++) {
+                double dx = tx - sx[j];
+                double dy = ty - sy[j];
+                double dz = tz - sz[j];
+                double r2 = dx * dx + dy * dy + dz * dz;
+                double s = r2 > 0 ? sq[j] / (r2 * Math.sqrt(r2)) : 0;
+                bx += s * dx;
+                by += s * dy;
+                bz += s * dz;
+            }
+            int o = outOffset + i - from;
+            ex[o] += bx;
+            ey[o] += by;
+            ez[o] += bz;
+        }
+    }
+
+    /**
+     * Method that adds the unscaled field of the sources [sFrom, sTo) to the targets [from, to), reading the sources
+     * in place from off-heap records of four doubles (x, y, z, q) as stored by OffHeapChargeSet.
+     * @param px double array of target x-coordinates.
+     * @param py double array of target y-coordinates.
+     * @param pz double array of target z-coordinates.
+     * @param from int representing the first target (inclusive).
+     * @param to int representing the last target (exclusive).
+     * @param sources DoubleBuffer of source records.
+     * @param sFrom int representing the first source (inclusive).
+     * @param sTo int representing the last source (exclusive).
+     * @param ex double array the x-components are added to.
+     * @param ey double array the y-components are added to.
+     * @param ez double array the z-components are added to.
+     * @param outOffset int representing the output index of target {@code from}.
+     */
+    public static void accumulate(double[] px, double[] py, double[] pz, int from, int to, DoubleBuffer sources,
+                                  int sFrom, int sTo, double[] ex, double[] ey, double[] ez, int outOffset) {
+        if (LANES && to - from >= MIN_LANE_TARGETS) {
+            Lanes lanes = BUFFERS.get();
+            for (int first = from; first < to; first += LANE_TILE) {
+                int n = Math.min(LANE_TILE, to - first);
+                lanes.load(px, py, pz, first, n);
+                for (int j = sFrom; j < sTo; j++) {
+                    int base = j * OffHeapChargeSet.RECORD_DOUBLES;
+                    lanes.add(sources.get(base), sources.get(base + 1), sources.get(base + 2),
+                            sources.get(base + 3), n);
+                }
+                lanes.store(ex, ey, ez, outOffset + first - from, n);
+            }
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            double tx = px[i];
+            double ty = py[i];
+            double tz = pz[i];
+            double bx = 0;
+            double by = 0;
+            double bz = 0;
+            for (int j = sFrom; j < sTo; j++) {
+                int base = j * OffHeapChargeSet.RECORD_DOUBLES;
+                double dx = tx - sources.get(base);
+                double dy = ty - sources.get(base + 1);
+                double dz = tz - sources.get(base + 2);
+                double r2 = dx * dx + dy * dy + dz * dz;
+                double s = r2 > 0 ? sources.get(base + 3) / (r2 * Math.sqrt(r2)) : 0;
+                bx += s * dx;
+                by += s * dy;
+                bz += s * dz;
+            }
+            int o = outOffset + i - from;
+            ex[o] += bx;
+            ey[o] += by;
+            ez[o] += bz;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.efieldgen.solver;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * DirectSummation class that computes the field of a PointChargeSet at many observation points by summing every
+ * charge's Coulomb term, O(N * M) work spread over a ForkJoinPool.
+ *
+ * Observation points are split into tiles of {@value #POINT_TILE} and charges into blocks of {@value #CHARGE_TILE}.
+ * Each block is summed on its own and the block sums are added to a point in block order, whether the blocks ran
+ * one after another or in parallel. The result is therefore bit-for-bit identical for any number of threads.
+ *
+ * Charges can live on the heap in a PointChargeSet or off the heap in an OffHeapChargeSet, whose records are read
+ * in place.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class DirectSummation implements FieldSource {
+
+    static final int POINT_TILE = 256;
+    static final int CHARGE_TILE = 1024;
+
+    private final PointChargeSet charges;
+    private final OffHeapChargeSet offHeap;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor that sums over the given charges on the common ForkJoinPool.
+     * @param charges PointChargeSet containing the source charges.
+     */
+    public DirectSummation(PointChargeSet charges) {
+        this(charges, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor that sums over the given charges on a specific ForkJoinPool.
+     * @param charges PointChargeSet containing the source charges.
+     * @param pool ForkJoinPool whose threads perform the summation.
+     */
+    public DirectSummation(PointChargeSet charges, ForkJoinPool pool) {
+        if (charges == null || pool == null) {
+            throw new IllegalArgumentException("Charges and pool must not be null.");
+        }
+        this.charges = charges;
+        this.offHeap = null;
+        this.pool = pool;
+    }
+
+    /**
+     * Constructor that sums over off-heap charges on a specific ForkJoinPool.
+     * @param charges OffHeapChargeSet containing the source charges.
+     * @param pool ForkJoinPool whose threads perform the summation.
+     */
+    public DirectSummation(OffHeapChargeSet charges, ForkJoinPool pool) {
+        if (charges == null || pool == null) {
+            throw new IllegalArgumentException("Charges and pool must not be null.");
+        }
+        this.charges = null;
+        this.offHeap = charges;
+        this.pool = pool;
+    }
+
+    /**
+     * Method that returns the on-heap charges, or null when this instance sums over an OffHeapChargeSet.
+     * @return PointChargeSet containing the source charges.
+     */
+    public PointChargeSet getCharges() {
+        return charges;
+    }
+
+    private int chargeCount() {
+        return charges != null ? charges.size() : offHeap.size();
+    }
+
+    /**
+     * Method that adds the unscaled field of the charges [start, end) to the targets [from, to).
+     */
+    private void accumulate(double[] x, double[] y, double[] z, int from, int to, int start, int end,
+                            double[] ex, double[] ey, double[] ez, int outOffset) {
+        if (charges != null) {
+            CoulombKernel.accumulate(x, y, z, from, to, charges.xArray(), charges.yArray(), charges.zArray(),
+                    charges.chargeArray(), start, end, ex, ey, ez, outOffset);
+        } else {
+            CoulombKernel.accumulate(x, y, z, from, to, offHeap.records(), start, end, ex, ey, ez, outOffset);
+        }
+    }
+
+    @Override
+    public void evaluate(double[] x, double[] y, double[] z, double[] ex, double[] ey, double[] ez, int from, int to) {
+        if (to <= from) {
+            return;
+        }
+        int tiles = (to - from + POINT_TILE - 1) / POINT_TILE;
+        // With too few point tiles to keep every thread busy, the charge blocks of each tile run in parallel too.
+        boolean splitCharges = tiles < 2 * pool.getParallelism() && chargeCount() > CHARGE_TILE;
+        pool.invoke(new PointTask(x, y, z, ex, ey, ez, from, to, splitCharges));
+    }
+
+    /**
+     * Task that splits the observation points into tiles and evaluates each tile.
+     */
+    private final class PointTask extends RecursiveAction {
+        private final double[] x;
+        private final double[] y;
+        private final double[] z;
+        private final double[] ex;
+        private final double[] ey;
+        private final double[] ez;
+        private final int from;
+        private final int to;
+        private final boolean splitCharges;
+
+        PointTask(double[] x, double[] y, double[] z, double[] ex, double[] ey, double[] ez, int from, int to,
+                  boolean splitCharges) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.ex = ex;
+            this.ey = ey;
+            this.ez = ez;
+            this.from = from;
+            this.to = to;
+            this.splitCharges = splitCharges;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > POINT_TILE) {
+                int tiles = (to - from + POINT_TILE - 1) / POINT_TILE;
+                int mid = from + (tiles / 2) * POINT_TILE;
+                invokeAll(new PointTask(x, y, z, ex, ey, ez, from, mid, splitCharges),
+                        new PointTask(x, y, z, ex, ey, ez, mid, to, splitCharges));
+                return;
+            }
+            int n = chargeCount();
+            int blocks = (n + CHARGE_TILE - 1) / CHARGE_TILE;
+            for (int i = from; i < to; i++) {
+                ex[i] = 0;
+                ey[i] = 0;
+                ez[i] = 0;
+            }
+            if (splitCharges && blocks > 1) {
+                int length = to - from;
+                double[][] partial = new double[3 * blocks][length];
+                BlockTask[] tasks = new BlockTask[blocks];
+                for (int b = 0; b < blocks; b++) {
+                    tasks[b] = new BlockTask(x, y, z, from, to, b, partial);
+                }
+                invokeAll(tasks);
+                for (int b = 0; b < blocks; b++) {
+                    double[] px = partial[3 * b];
+                    double[] py = partial[3 * b + 1];
+                    double[] pz = partial[3 * b + 2];
+                    for (int i = 0; i < length; i++) {
+                        ex[from + i] += px[i];
+                        ey[from + i] += py[i];
+                        ez[from + i] += pz[i];
+                    }
+                }
+            } else {
+                for (int start = 0; start < n; start += CHARGE_TILE) {
+                    accumulate(x, y, z, from, to, start, Math.min(n, start + CHARGE_TILE), ex, ey, ez, from);
+                }
+            }
+            for (int i = from; i < to; i++) {
+                ex[i] *= FieldSolver.K_NANO;
+                ey[i] *= FieldSolver.K_NANO;
+                ez[i] *= FieldSolver.K_NANO;
+            }
+        }
+    }
+
+    /**
+     * Task that sums one block of charges over one tile of observation points into the block's private x, y and z
+     * buffers at rows 3 * block to 3 * block + 2 of the shared partial-sum table.
+     */
+    private final class BlockTask extends RecursiveAction {
+        private final double[] x;
+        private final double[] y;
+        private final double[] z;
+        private final int from;
+        private final int to;
+        private final int block;
+        private final double[][] partial;
+
+        BlockTask(double[] x, double[] y, double[] z, int from, int to, int block, double[][] partial) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.from = from;
+            this.to = to;
+            this.block = block;
+            this.partial = partial;
+        }
+
+        @Override
+        protected void compute() {
+            int start = block * CHARGE_TILE;
+            int end = Math.min(chargeCount(), start + CHARGE_TILE);
+            accumulate(x, y, z, from, to, start, end, partial[3 * block], partial[3 * block + 1],
+                    partial[3 * block + 2], 0);
+        }
+    }
+}
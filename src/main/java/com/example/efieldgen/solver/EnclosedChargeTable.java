@@ -0,0 +1,148 @@
+package com.example.efieldgen.solver;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * EnclosedChargeTable class that precomputes the enclosed charge Q(r) of a spherically symmetric density rho(r)
+ * once, so that every later field query is a lookup. By Gauss's law the field of a shell or solid sphere is
+ * E(r) = k * Q(r) / r^2, and Q(r) is the integral of 4 * pi * s^2 * rho(s) from the inner radius to r.
+ *
+ * The charge between consecutive nodes is integrated with adaptive Gauss-Kronrod quadrature and accumulated into a
+ * table. Since dQ/dr = 4 * pi * r^2 * rho(r) is known exactly at every node, a query finds its interval by binary
+ * search and interpolates with a cubic Hermite polynomial, which is fourth-order accurate in the node spacing.
+ * Nodes can be placed freely, e.g. at radii where rho jumps, and the table is immutable and safe to share.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class EnclosedChargeTable implements FieldSource {
+
+    private static final double INTERVAL_TOLERANCE = 1e-13;
+
+    private final double[] radius;
+    private final double[] charge;
+    private final double[] slopeAbove;
+    private final double[] slopeBelow;
+
+    /**
+     * Constructor that tabulates a density on given nodes.
+     * @param rho DoubleUnaryOperator giving the volume charge density in nC/m^3 at each radius.
+     * @param radii double array of node radii in meters, strictly increasing; the first and last are the inner and
+     *              outer radius of the charge.
+     */
+    public EnclosedChargeTable(DoubleUnaryOperator rho, double[] radii) {
+        if (radii.length < 2 || radii[0] < 0) {
+            throw new IllegalArgumentException("At least two non-negative radii are required.");
+        }
+        for (int i = 1; i < radii.length; i++) {
+            if (!(radii[i] > radii[i - 1])) {
+                throw new IllegalArgumentException("Radii must be strictly increasing.");
+            }
+        }
+        int n = radii.length;
+        this.radius = radii.clone();
+        this.charge = new double[n];
+        this.slopeAbove = new double[n];
+        this.slopeBelow = new double[n];
+        DoubleUnaryOperator shell = s -> 4 * Math.PI * s * s * rho.applyAsDouble(s);
+        GaussKronrod quadrature = new GaussKronrod(0, INTERVAL_TOLERANCE, 128);
+        for (int i = 0; i < n; i++) {
+            // Slopes are sampled just inside each interval, so a density may jump or blow up exactly at a node.
+            if (i > 0) {
+                charge[i] = charge[i - 1] + quadrature.integrate(shell, radius[i - 1], radius[i]);
+                slopeBelow[i] = shell.applyAsDouble(Math.nextDown(radius[i]));
+            }
+            if (i + 1 < n) {
+                slopeAbove[i] = shell.applyAsDouble(Math.nextUp(radius[i]));
+            }
+        }
+    }
+
+    /**
+     * Method that tabulates a solid sphere on evenly spaced nodes.
+     * @param rho DoubleUnaryOperator giving the volume charge density in nC/m^3 at each radius.
+     * @param radius double representing the radius of the sphere in meters.
+     * @param intervals int representing the number of table intervals.
+     * @return EnclosedChargeTable of the sphere.
+     */
+    public static EnclosedChargeTable sphere(DoubleUnaryOperator rho, double radius, int intervals) {
+        return shell(rho, 0, radius, intervals);
+    }
+
+    /**
+     * Method that tabulates a thick shell on evenly spaced nodes.
+     * @param rho DoubleUnaryOperator giving the volume charge density in nC/m^3 at each radius.
+     * @param innerRadius double representing the inner radius of the shell in meters.
+     * @param outerRadius double representing the outer radius of the shell in meters.
+     * @param intervals int representing the number of table intervals.
+     * @return EnclosedChargeTable of the shell.
+     */
+    public static EnclosedChargeTable shell(DoubleUnaryOperator rho, double innerRadius, double outerRadius,
+                                            int intervals) {
+        if (intervals < 1 || !(outerRadius > innerRadius)) {
+            throw new IllegalArgumentException("Need at least one interval and an outer radius above the inner one.");
+        }
+        double[] radii = new double[intervals + 1];
+        for (int i = 0; i <= intervals; i++) {
+            radii[i] = innerRadius + (outerRadius - innerRadius) * i / intervals;
+        }
+        radii[intervals] = outerRadius;
+        return new EnclosedChargeTable(rho, radii);
+    }
+
+    /**
+     * Method that looks up the charge inside a radius.
+     * @param r double representing the radius in meters.
+     * @return double representing the enclosed charge in nC.
+     */
+    public double enclosedCharge(double r) {
+        int last = radius.length - 1;
+        if (!(r > radius[0])) {
+            return 0;
+        }
+        if (r >= radius[last]) {
+            return charge[last];
+        }
+        int lo = 0;
+        int hi = last;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (radius[mid] <= r) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        double h = radius[hi] - radius[lo];
+        double t = (r - radius[lo]) / h;
+        double t2 = t * t;
+        double t3 = t2 * t;
+        return (2 * t3 - 3 * t2 + 1) * charge[lo] + (t3 - 2 * t2 + t) * h * slopeAbove[lo]
+                + (-2 * t3 + 3 * t2) * charge[hi] + (t3 - t2) * h * slopeBelow[hi];
+    }
+
+    /**
+     * Method that computes the radial field at a distance from the center.
+     * @param distance double representing the distance from the center in meters.
+     * @return double representing the signed radial electric field in N/C.
+     */
+    public double field(double distance) {
+        return distance > 0 ? FieldSolver.pointFieldSolver(distance, enclosedCharge(distance)) : 0;
+    }
+
+    public double getTotalCharge() {
+        return charge[charge.length - 1];
+    }
+
+    @Override
+    public void evaluate(double[] x, double[] y, double[] z, double[] ex, double[] ey, double[] ez, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double r2 = x[i] * x[i] + y[i] * y[i] + z[i] * z[i];
+            double r = Math.sqrt(r2);
+            double radial = r > 0 ? FieldSolver.K_NANO * enclosedCharge(r) / (r2 * r) : 0;
+            ex[i] = radial * x[i];
+            ey[i] = radial * y[i];
+            ez[i] = radial * z[i];
+        }
+    }
+}
@@ -0,0 +1,506 @@
+package com.example.efieldgen.solver;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * FastMultipole class that evaluates the field of a PointChargeSet with a uniform-octree fast multipole method in
+ * O(N + M) time. Each evaluation bins sources and observation points into the leaves of one cube, forms Cartesian
+ * Taylor multipole expansions of order p in the leaves (P2M), merges them upward (M2M), converts well-separated
+ * boxes into local expansions (M2L), pushes those downward (L2L) and finally adds the local expansion and the exact
+ * CoulombKernel sum over the 27 neighbouring leaves to every point (L2P, P2P).
+ *
+ * The expansion order controls accuracy: every extra order reduces the far-field error by a roughly constant
+ * factor at a cost that grows like p^6 in M2L. Orders 3 to 6 are typical. Every phase runs on a ForkJoinPool and
+ * writes only its own boxes or points, so results do not depend on the number of threads.
+ *
+ * The charges are read at evaluation time, so the same instance follows any change to the PointChargeSet.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class FastMultipole implements FieldSource {
+
+    public static final int MIN_ORDER = 1;
+    public static final int MAX_ORDER = 12;
+    static final int MIN_LEAF_TARGET = 32; // smallest average number of sources per leaf
+    static final int MIN_LEVELS = 2;
+    static final int MAX_LEVELS = 6;
+    private static final int GRAIN = 16;
+
+    private final PointChargeSet charges;
+    private final ForkJoinPool pool;
+    private final MultipoleOperators operators;
+
+    /**
+     * Constructor that evaluates the given charges with an expansion of the given order on the common ForkJoinPool.
+     * @param charges PointChargeSet containing the source charges.
+     * @param order int representing the expansion order p, between MIN_ORDER and MAX_ORDER.
+     */
+    public FastMultipole(PointChargeSet charges, int order) {
+        this(charges, order, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor that evaluates the given charges with an expansion of the given order on a specific ForkJoinPool.
+     * @param charges PointChargeSet containing the source charges.
+     * @param order int representing the expansion order p, between MIN_ORDER and MAX_ORDER.
+     * @param pool ForkJoinPool whose threads perform the evaluation.
+     */
+    public FastMultipole(PointChargeSet charges, int order, ForkJoinPool pool) {
+        if (charges == null || pool == null) {
+            throw new IllegalArgumentException("Charges and pool must not be null.");
+        }
+        if (order < MIN_ORDER || order > MAX_ORDER) {
+            throw new IllegalArgumentException("Expansion order must be between " + MIN_ORDER + " and "
+                    + MAX_ORDER + ".");
+        }
+        this.charges = charges;
+        this.pool = pool;
+        this.operators = new MultipoleOperators(order);
+    }
+
+    public int getOrder() {
+        return operators.order;
+    }
+
+    /**
+     * Method that chooses the depth of the octree. The near-field P2P work of a leaf grows with the square of its
+     * source count and the far-field M2L work with the square of the number of expansion terms, so leaves are sized
+     * to hold about twice as many sources as there are terms, which keeps the two phases balanced.
+     * @param sources int representing the number of source charges.
+     * @param order int representing the expansion order p.
+     * @return int representing the number of levels below the root.
+     */
+    public static int levelsFor(int sources, int order) {
+        int leafTarget = Math.max(MIN_LEAF_TARGET, 2 * MultipoleOperators.count(order));
+        double leaves = Math.max(1.0, (double) sources / leafTarget);
+        int levels = (int) Math.round(Math.log(leaves) / Math.log(8));
+        return Math.max(MIN_LEVELS, Math.min(MAX_LEVELS, levels));
+    }
+
+    @Override
+    public void evaluate(double[] x, double[] y, double[] z, double[] ex, double[] ey, double[] ez, int from, int to) {
+        if (to <= from) {
+            return;
+        }
+        new Evaluation(x, y, z, from, to).run(ex, ey, ez);
+    }
+
+    /**
+     * State of one evaluation: the octree over the union of sources and observation points, with both sorted into
+     * its leaves, and the expansions of every level.
+     */
+    private final class Evaluation {
+        private final int levels;
+        private final int side; // leaves per axis
+        private final double minX;
+        private final double minY;
+        private final double minZ;
+        private final double rootSize;
+
+        private final int sourceCount;
+        private final double[] sx;
+        private final double[] sy;
+        private final double[] sz;
+        private final double[] sq;
+        private final int[] sourceStart;
+
+        private final int targetCount;
+        private final double[] tx;
+        private final double[] ty;
+        private final double[] tz;
+        private final int[] targetIndex;
+        private final int[] targetStart;
+
+        private final int[][] sourcesPerBox;
+        private final int[][] targetsPerBox;
+        private final double[][] multipole;
+        private final double[][] local;
+
+        Evaluation(double[] x, double[] y, double[] z, int from, int to) {
+            double[] px = charges.xArray();
+            double[] py = charges.yArray();
+            double[] pz = charges.zArray();
+            double[] pq = charges.chargeArray();
+            sourceCount = charges.size();
+            targetCount = to - from;
+
+            double loX = Double.POSITIVE_INFINITY;
+            double loY = Double.POSITIVE_INFINITY;
+            double loZ = Double.POSITIVE_INFINITY;
+            double hiX = Double.NEGATIVE_INFINITY;
+            double hiY = Double.NEGATIVE_INFINITY;
+            double hiZ = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < sourceCount; i++) {
+                loX = Math.min(loX, px[i]);
+                loY = Math.min(loY, py[i]);
+                loZ = Math.min(loZ, pz[i]);
+                hiX = Math.max(hiX, px[i]);
+                hiY = Math.max(hiY, py[i]);
+                hiZ = Math.max(hiZ, pz[i]);
+            }
+            for (int i = from; i < to; i++) {
+                loX = Math.min(loX, x[i]);
+                loY = Math.min(loY, y[i]);
+                loZ = Math.min(loZ, z[i]);
+                hiX = Math.max(hiX, x[i]);
+                hiY = Math.max(hiY, y[i]);
+                hiZ = Math.max(hiZ, z[i]);
+            }
+            double extent = Math.max(hiX - loX, Math.max(hiY - loY, hiZ - loZ));
+            rootSize = extent > 0 ? extent * (1 + 1e-9) : 1;
+            minX = loX;
+            minY = loY;
+            minZ = loZ;
+            levels = levelsFor(sourceCount, operators.order);
+            side = 1 << levels;
+            int leaves = side * side * side;
+
+            // Counting sort of sources and targets by leaf.
+            int[] sourceLeaf = new int[sourceCount];
+            sourceStart = new int[leaves + 1];
+            for (int i = 0; i < sourceCount; i++) {
+                int leaf = leafOf(px[i], py[i], pz[i]);
+                sourceLeaf[i] = leaf;
+                sourceStart[leaf + 1]++;
+            }
+            for (int b = 0; b < leaves; b++) {
+                sourceStart[b + 1] += sourceStart[b];
+            }
+            sx = new double[sourceCount];
+            sy = new double[sourceCount];
+            sz = new double[sourceCount];
+            sq = new double[sourceCount];
+            int[] cursor = sourceStart.clone();
+            for (int i = 0; i < sourceCount; i++) {
+                int slot = cursor[sourceLeaf[i]]++;
+                sx[slot] = px[i];
+                sy[slot] = py[i];
+                sz[slot] = pz[i];
+                sq[slot] = pq[i];
+            }
+
+            int[] targetLeaf = new int[targetCount];
+            targetStart = new int[leaves + 1];
+            for (int i = 0; i < targetCount; i++) {
+                int leaf = leafOf(x[from + i], y[from + i], z[from + i]);
+                targetLeaf[i] = leaf;
+                targetStart[leaf + 1]++;
+            }
+            for (int b = 0; b < leaves; b++) {
+                targetStart[b + 1] += targetStart[b];
+            }
+            tx = new double[targetCount];
+            ty = new double[targetCount];
+            tz = new double[targetCount];
+            targetIndex = new int[targetCount];
+            cursor = targetStart.clone();
+            for (int i = 0; i < targetCount; i++) {
+                int slot = cursor[targetLeaf[i]]++;
+                tx[slot] = x[from + i];
+                ty[slot] = y[from + i];
+                tz[slot] = z[from + i];
+                targetIndex[slot] = from + i;
+            }
+
+            // Occupancy of every box on every level, used to skip empty boxes.
+            sourcesPerBox = new int[levels + 1][];
+            targetsPerBox = new int[levels + 1][];
+            sourcesPerBox[levels] = new int[leaves];
+            targetsPerBox[levels] = new int[leaves];
+            for (int b = 0; b < leaves; b++) {
+                sourcesPerBox[levels][b] = sourceStart[b + 1] - sourceStart[b];
+                targetsPerBox[levels][b] = targetStart[b + 1] - targetStart[b];
+            }
+            for (int level = levels - 1; level >= 0; level--) {
+                int n = 1 << level;
+                int[] sources = new int[n * n * n];
+                int[] targets = new int[n * n * n];
+                int[] childSources = sourcesPerBox[level + 1];
+                int[] childTargets = targetsPerBox[level + 1];
+                int childSide = 2 * n;
+                for (int k = 0; k < childSide; k++) {
+                    for (int j = 0; j < childSide; j++) {
+                        for (int i = 0; i < childSide; i++) {
+                            int child = i + childSide * (j + childSide * k);
+                            int parent = (i >> 1) + n * ((j >> 1) + n * (k >> 1));
+                            sources[parent] += childSources[child];
+                            targets[parent] += childTargets[child];
+                        }
+                    }
+                }
+                sourcesPerBox[level] = sources;
+                targetsPerBox[level] = targets;
+            }
+
+            multipole = new double[levels + 1][];
+            local = new double[levels + 1][];
+            for (int level = MIN_LEVELS; level <= levels; level++) {
+                int n = 1 << level;
+                multipole[level] = new double[n * n * n * operators.terms];
+                local[level] = new double[n * n * n * operators.terms];
+            }
+        }
+
+        /**
+         * Method that runs every phase and writes the scaled field of each target into the output arrays.
+         */
+        void run(double[] ex, double[] ey, double[] ez) {
+            int leaves = side * side * side;
+            ParallelLoop.forRange(pool, 0, leaves, GRAIN, this::particleToMultipole);
+            for (int level = levels - 1; level >= MIN_LEVELS; level--) {
+                final int parentLevel = level;
+                int n = 1 << level;
+                ParallelLoop.forRange(pool, 0, n * n * n, GRAIN,
+                        (lo, hi) -> multipoleToMultipole(parentLevel, lo, hi));
+            }
+            for (int level = MIN_LEVELS; level <= levels; level++) {
+                final int boxLevel = level;
+                int n = 1 << level;
+                ParallelLoop.forRange(pool, 0, n * n * n, 1,
+                        (lo, hi) -> downward(boxLevel, lo, hi));
+            }
+            ParallelLoop.forRange(pool, 0, leaves, 1, (lo, hi) -> leafToTargets(lo, hi, ex, ey, ez));
+        }
+
+        private int leafOf(double px, double py, double pz) {
+            double scale = side / rootSize;
+            int i = Math.min(side - 1, Math.max(0, (int) ((px - minX) * scale)));
+            int j = Math.min(side - 1, Math.max(0, (int) ((py - minY) * scale)));
+            int k = Math.min(side - 1, Math.max(0, (int) ((pz - minZ) * scale)));
+            return i + side * (j + side * k);
+        }
+
+        /**
+         * P2M: scaled multipole moments of the sources in leaves [lo, hi).
+         */
+        private void particleToMultipole(int lo, int hi) {
+            int p = operators.order;
+            double[] powX = new double[p + 1];
+            double[] powY = new double[p + 1];
+            double[] powZ = new double[p + 1];
+            double h = rootSize / side;
+            double[] m = multipole[levels];
+            for (int box = lo; box < hi; box++) {
+                int first = sourceStart[box];
+                int last = sourceStart[box + 1];
+                if (first == last) {
+                    continue;
+                }
+                int i = box % side;
+                int j = (box / side) % side;
+                int k = box / (side * side);
+                double cx = minX + (i + 0.5) * h;
+                double cy = minY + (j + 0.5) * h;
+                double cz = minZ + (k + 0.5) * h;
+                int base = box * operators.terms;
+                for (int s = first; s < last; s++) {
+                    powers((sx[s] - cx) / h, powX);
+                    powers((sy[s] - cy) / h, powY);
+                    powers((sz[s] - cz) / h, powZ);
+                    double q = sq[s];
+                    for (int t = 0; t < operators.terms; t++) {
+                        m[base + t] += q * powX[operators.ea[t]] * powY[operators.eb[t]] * powZ[operators.ec[t]];
+                    }
+                }
+            }
+        }
+
+        /**
+         * M2M: merges the children of parent boxes [lo, hi) on the given level.
+         */
+        private void multipoleToMultipole(int level, int lo, int hi) {
+            int n = 1 << level;
+            int childSide = 2 * n;
+            int terms = operators.terms;
+            double[] parentM = multipole[level];
+            double[] childM = multipole[level + 1];
+            int[] childSources = sourcesPerBox[level + 1];
+            for (int box = lo; box < hi; box++) {
+                if (sourcesPerBox[level][box] == 0) {
+                    continue;
+                }
+                int i = box % n;
+                int j = (box / n) % n;
+                int k = box / (n * n);
+                int base = box * terms;
+                for (int o = 0; o < 8; o++) {
+                    int child = (2 * i + (o & 1)) + childSide * ((2 * j + ((o >> 1) & 1))
+                            + childSide * (2 * k + ((o >> 2) & 1)));
+                    if (childSources[child] == 0) {
+                        continue;
+                    }
+                    int childBase = child * terms;
+                    double[] coefficient = operators.m2mCoefficient[o];
+                    for (int t = 0; t < terms; t++) {
+                        double sum = 0;
+                        for (int e = operators.m2mStart[t]; e < operators.m2mStart[t + 1]; e++) {
+                            sum += coefficient[e] * childM[childBase + operators.m2mSource[e]];
+                        }
+                        parentM[base + t] += sum;
+                    }
+                }
+            }
+        }
+
+        /**
+         * L2L and M2L: local expansions of boxes [lo, hi) on the given level, inherited from the parent and
+         * collected from the interaction list.
+         */
+        private void downward(int level, int lo, int hi) {
+            int n = 1 << level;
+            int terms = operators.terms;
+            double h = rootSize / n;
+            double[] l = local[level];
+            double[] m = multipole[level];
+            int[] sources = sourcesPerBox[level];
+            for (int box = lo; box < hi; box++) {
+                if (targetsPerBox[level][box] == 0) {
+                    continue;
+                }
+                int i = box % n;
+                int j = (box / n) % n;
+                int k = box / (n * n);
+                int base = box * terms;
+
+                if (level > MIN_LEVELS) {
+                    int parentSide = n / 2;
+                    int parent = (i >> 1) + parentSide * ((j >> 1) + parentSide * (k >> 1));
+                    int octant = (i & 1) | ((j & 1) << 1) | ((k & 1) << 2);
+                    double[] parentL = local[level - 1];
+                    int parentBase = parent * terms;
+                    double[] coefficient = operators.l2lCoefficient[octant];
+                    for (int t = 0; t < terms; t++) {
+                        double sum = 0;
+                        for (int e = operators.l2lStart[t]; e < operators.l2lStart[t + 1]; e++) {
+                            sum += coefficient[e] * parentL[parentBase + operators.l2lSource[e]];
+                        }
+                        l[base + t] += sum;
+                    }
+                }
+
+                // Interaction list: children of the parent's neighbours that are not neighbours of this box.
+                int pi = i >> 1;
+                int pj = j >> 1;
+                int pk = k >> 1;
+                int parentSide = n / 2;
+                double invH = 1 / h;
+                for (int nk = Math.max(0, pk - 1); nk <= Math.min(parentSide - 1, pk + 1); nk++) {
+                    for (int nj = Math.max(0, pj - 1); nj <= Math.min(parentSide - 1, pj + 1); nj++) {
+                        for (int ni = Math.max(0, pi - 1); ni <= Math.min(parentSide - 1, pi + 1); ni++) {
+                            for (int o = 0; o < 8; o++) {
+                                int si = 2 * ni + (o & 1);
+                                int sj = 2 * nj + ((o >> 1) & 1);
+                                int sk = 2 * nk + ((o >> 2) & 1);
+                                int dx = i - si;
+                                int dy = j - sj;
+                                int dz = k - sk;
+                                if (Math.max(Math.abs(dx), Math.max(Math.abs(dy), Math.abs(dz))) < 2) {
+                                    continue;
+                                }
+                                int source = si + n * (sj + n * sk);
+                                if (sources[source] == 0) {
+                                    continue;
+                                }
+                                double[] d = operators.offsetDerivatives[MultipoleOperators.offsetIndex(dx, dy, dz)];
+                                int sourceBase = source * terms;
+                                for (int t = 0; t < terms; t++) {
+                                    double sum = 0;
+                                    for (int e = operators.m2lStart[t]; e < operators.m2lStart[t + 1]; e++) {
+                                        sum += operators.m2lCoefficient[e] * d[operators.m2lDerivative[e]]
+                                                * m[sourceBase + operators.m2lSource[e]];
+                                    }
+                                    l[base + t] += sum * invH;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * L2P and P2P: field at the targets of leaves [lo, hi).
+         */
+        private void leafToTargets(int lo, int hi, double[] ex, double[] ey, double[] ez) {
+            int p = operators.order;
+            int terms = operators.terms;
+            double h = rootSize / side;
+            double invH = 1 / h;
+            double[] powX = new double[p + 1];
+            double[] powY = new double[p + 1];
+            double[] powZ = new double[p + 1];
+            double[] l = local[levels];
+            for (int box = lo; box < hi; box++) {
+                int first = targetStart[box];
+                int last = targetStart[box + 1];
+                if (first == last) {
+                    continue;
+                }
+                int count = last - first;
+                double[] fx = new double[count];
+                double[] fy = new double[count];
+                double[] fz = new double[count];
+                int i = box % side;
+                int j = (box / side) % side;
+                int k = box / (side * side);
+                double cx = minX + (i + 0.5) * h;
+                double cy = minY + (j + 0.5) * h;
+                double cz = minZ + (k + 0.5) * h;
+                int base = box * terms;
+                for (int t = first; t < last; t++) {
+                    powers((tx[t] - cx) * invH, powX);
+                    powers((ty[t] - cy) * invH, powY);
+                    powers((tz[t] - cz) * invH, powZ);
+                    double gx = 0;
+                    double gy = 0;
+                    double gz = 0;
+                    for (int c = 1; c < terms; c++) {
+                        int a = operators.ea[c];
+                        int b = operators.eb[c];
+                        int e = operators.ec[c];
+                        double coefficient = l[base + c];
+                        if (a > 0) {
+                            gx += coefficient * a * powX[a - 1] * powY[b] * powZ[e];
+                        }
+                        if (b > 0) {
+                            gy += coefficient * b * powX[a] * powY[b - 1] * powZ[e];
+                        }
+                        if (e > 0) {
+                            gz += coefficient * e * powX[a] * powY[b] * powZ[e - 1];
+                        }
+                    }
+                    fx[t - first] = -gx * invH;
+                    fy[t - first] = -gy * invH;
+                    fz[t - first] = -gz * invH;
+                }
+                for (int nk = Math.max(0, k - 1); nk <= Math.min(side - 1, k + 1); nk++) {
+                    for (int nj = Math.max(0, j - 1); nj <= Math.min(side - 1, j + 1); nj++) {
+                        for (int ni = Math.max(0, i - 1); ni <= Math.min(side - 1, i + 1); ni++) {
+                            int neighbour = ni + side * (nj + side * nk);
+                            int sFrom = sourceStart[neighbour];
+                            int sTo = sourceStart[neighbour + 1];
+                            if (sFrom < sTo) {
+                                CoulombKernel.accumulate(tx, ty, tz, first, last, sx, sy, sz, sq, sFrom, sTo,
+                                        fx, fy, fz, 0);
+                            }
+                        }
+                    }
+                }
+                for (int t = 0; t < count; t++) {
+                    int index = targetIndex[first + t];
+                    ex[index] = fx[t] * FieldSolver.K_NANO;
+                    ey[index] = fy[t] * FieldSolver.K_NANO;
+                    ez[index] = fz[t] * FieldSolver.K_NANO;
+                }
+            }
+        }
+
+        private void powers(double value, double[] out) {
+            out[0] = 1;
+            for (int e = 1; e < out.length; e++) {
+                out[e] = out[e - 1] * value;
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.efieldgen.solver;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * FieldLineTracer class that traces electric field lines of any FieldSource with the adaptive Runge-Kutta-Fehlberg
+ * 4(5) method. Lines are parametrized by arc length, so the integrated direction is the unit vector E / |E| and the
+ * step size is a distance in meters. Each step is accepted when the difference between the fourth and fifth order
+ * solutions is within the tolerance and the fifth order one is kept.
+ *
+ * A line stops when it leaves the domain box, reaches the maximum length or point count, runs into a charge (the
+ * field reverses within a step no longer than the tolerance, or the step would drop below a thousandth of it) or
+ * reaches a point with no field. Seeds are traced in parallel on a ForkJoinPool and the result is the same for any
+ * number of threads.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class FieldLineTracer {
+
+    // Fehlberg coefficients: nodes are implied by the rows, B5 is the fifth order solution, ERR is B5 - B4.
+    private static final double[][] A = {
+            {},
+            {1.0 / 4},
+            {3.0 / 32, 9.0 / 32},
+            {1932.0 / 2197, -7200.0 / 2197, 7296.0 / 2197},
+            {439.0 / 216, -8, 3680.0 / 513, -845.0 / 4104},
+            {-8.0 / 27, 2, -3544.0 / 2565, 1859.0 / 4104, -11.0 / 40}};
+    private static final double[] B5 = {16.0 / 135, 0, 6656.0 / 12825, 28561.0 / 56430, -9.0 / 50, 2.0 / 55};
+    private static final double[] ERR = {1.0 / 360, 0, -128.0 / 4275, -2197.0 / 75240, 1.0 / 50, 2.0 / 55};
+
+    private static final int SEEDS_PER_TASK = 4;
+
+    private final FieldSource source;
+    private final double[] min;
+    private final double[] max;
+    private final double tolerance;
+    private final double maxLength;
+    private final int maxPoints;
+    private final double maxStep;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor that traces inside a box with default accuracy on the common pool. The tolerance is 1e-4 of the
+     * box diagonal, well below a pixel when the box fills the screen, lines are at most four diagonals long and
+     * have at most 4096 points.
+     * @param source FieldSource describing the charge configuration.
+     * @param min double array holding the smallest x, y and z coordinates of the domain.
+     * @param max double array holding the largest x, y and z coordinates of the domain.
+     */
+    public FieldLineTracer(FieldSource source, double[] min, double[] max) {
+        this(source, min, max, 1e-4 * diagonal(min, max), 4 * diagonal(min, max), 4096, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor that traces inside a box.
+     * @param source FieldSource describing the charge configuration.
+     * @param min double array holding the smallest x, y and z coordinates of the domain.
+     * @param max double array holding the largest x, y and z coordinates of the domain.
+     * @param tolerance double representing the largest position error allowed per step in meters.
+     * @param maxLength double representing the longest line in meters.
+     * @param maxPoints int representing the most vertices stored for one line.
+     * @param pool ForkJoinPool whose threads trace the seeds.
+     */
+    public FieldLineTracer(FieldSource source, double[] min, double[] max, double tolerance, double maxLength,
+                           int maxPoints, ForkJoinPool pool) {
+        if (!(tolerance > 0) || !(maxLength > 0) || maxPoints < 2) {
+            throw new IllegalArgumentException("Tolerance and length must be positive and lines need two points.");
+        }
+        if (!(diagonal(min, max) > 0)) {
+            throw new IllegalArgumentException("Domain must have a positive size.");
+        }
+        this.source = source;
+        this.min = min.clone();
+        this.max = max.clone();
+        this.tolerance = tolerance;
+        this.maxLength = maxLength;
+        this.maxPoints = maxPoints;
+        this.maxStep = diagonal(min, max) / 32;
+        this.pool = pool;
+    }
+
+    private static double diagonal(double[] min, double[] max) {
+        double dx = max[0] - min[0];
+        double dy = max[1] - min[1];
+        double dz = max[2] - min[2];
+        return FieldSolver.distanceFormula(dx, dy, dz);
+    }
+
+    /**
+     * Method that traces lines leaving every nonzero charge of a set. Seeds sit on a small circle in the xy-plane or
+     * on a sphere around each charge; lines run along the field from positive charges and against it from negative
+     * ones, so every line starts at its charge.
+     * @param charges PointChargeSet whose charges are seeded.
+     * @param radius double representing the distance of the seeds from their charge in meters.
+     * @param perCharge int representing the number of seeds per charge.
+     * @param planar boolean representing whether seeds lie in the xy-plane instead of on a sphere.
+     * @return FieldLines holding one line per seed, ordered by charge and then by seed.
+     */
+    public FieldLines traceAround(PointChargeSet charges, double radius, int perCharge, boolean planar) {
+        int seeded = 0;
+        for (int c = 0; c < charges.size(); c++) {
+            if (charges.getCharge(c) != 0) {
+                seeded++;
+            }
+        }
+        int count = seeded * perCharge;
+        double[] x = new double[count];
+        double[] y = new double[count];
+        double[] z = new double[count];
+        int[] direction = new int[count];
+        double golden = Math.PI * (3 - Math.sqrt(5));
+        int s = 0;
+        for (int c = 0; c < charges.size(); c++) {
+            double q = charges.getCharge(c);
+            if (q == 0) {
+                continue;
+            }
+            for (int i = 0; i < perCharge; i++, s++) {
+                double ux;
+                double uy;
+                double uz;
+                if (planar) {
+                    double angle = 2 * Math.PI * i / perCharge;
+                    ux = Math.cos(angle);
+                    uy = Math.sin(angle);
+                    uz = 0;
+                } else {
+                    // Fibonacci sphere: evenly spread points without clustering at the poles.
+                    uz = 1 - (2 * i + 1) / (double) perCharge;
+                    double ring = Math.sqrt(1 - uz * uz);
+                    ux = ring * Math.cos(golden * i);
+                    uy = ring * Math.sin(golden * i);
+                }
+                x[s] = charges.getX(c) + radius * ux;
+                y[s] = charges.getY(c) + radius * uy;
+                z[s] = charges.getZ(c) + radius * uz;
+                direction[s] = q > 0 ? 1 : -1;
+            }
+        }
+        return trace(x, y, z, direction, 0, count);
+    }
+
+    /**
+     * Method that traces one line from each of the seeds [from, to).
+     * @param x double array of seed x-coordinates in meters.
+     * @param y double array of seed y-coordinates in meters.
+     * @param z double array of seed z-coordinates in meters.
+     * @param direction int array holding 1 to follow the field from a seed or -1 to go against it.
+     * @param from int representing the first seed (inclusive).
+     * @param to int representing the last seed (exclusive).
+     * @return FieldLines holding the lines in seed order.
+     */
+    public FieldLines trace(double[] x, double[] y, double[] z, int[] direction, int from, int to) {
+        int count = Math.max(0, to - from);
+        float[][] lines = new float[count][];
+        byte[] terminations = new byte[count];
+        ParallelLoop.forRange(pool, 0, count, SEEDS_PER_TASK, (start, end) -> {
+            Stepper stepper = new Stepper();
+            for (int s = start; s < end; s++) {
+                int seed = from + s;
+                terminations[s] = stepper.trace(x[seed], y[seed], z[seed], direction[seed] < 0 ? -1 : 1);
+                lines[s] = Arrays.copyOf(stepper.line, 3 * stepper.points);
+            }
+        });
+        int[] starts = new int[count + 1];
+        for (int s = 0; s < count; s++) {
+            starts[s + 1] = starts[s] + lines[s].length / 3;
+        }
+        float[] vertices = new float[3 * starts[count]];
+        for (int s = 0; s < count; s++) {
+            System.arraycopy(lines[s], 0, vertices, 3 * starts[s], lines[s].length);
+        }
+        return new FieldLines(vertices, starts, terminations);
+    }
+
+    private boolean inside(double x, double y, double z) {
+        return x >= min[0] && x <= max[0] && y >= min[1] && y <= max[1] && z >= min[2] && z <= max[2];
+    }
+
+    /**
+     * Stepper class holding the scratch buffers of one tracing thread, so the integration loop does not allocate.
+     */
+    private final class Stepper {
+        private final double[] px = new double[1];
+        private final double[] py = new double[1];
+        private final double[] pz = new double[1];
+        private final double[] ex = new double[1];
+        private final double[] ey = new double[1];
+        private final double[] ez = new double[1];
+        private final double[] k = new double[18];
+        private float[] line = new float[3 * 64];
+        private int points;
+        private byte failure;
+
+        byte trace(double x, double y, double z, int sign) {
+            points = 0;
+            append(x, y, z);
+            if (!inside(x, y, z)) {
+                return FieldLines.LEFT_DOMAIN;
+            }
+            double length = 0;
+            double h = maxStep / 16;
+            double minStep = tolerance * 1e-3;
+            while (true) {
+                h = Math.min(h, maxLength - length);
+                if (!stages(x, y, z, sign, h)) {
+                    return failure;
+                }
+                if (k[0] * k[12] + k[1] * k[13] + k[2] * k[14] < 0) {
+                    // The field reverses within the step, so it straddles a charge or a null; within the tolerance
+                    // of it the line has arrived, otherwise it may only be passing close by.
+                    if (h <= tolerance) {
+                        return FieldLines.SINGULARITY;
+                    }
+                    h *= 0.5;
+                    continue;
+                }
+                double errX = 0;
+                double errY = 0;
+                double errZ = 0;
+                for (int s = 0; s < 6; s++) {
+                    errX += ERR[s] * k[3 * s];
+                    errY += ERR[s] * k[3 * s + 1];
+                    errZ += ERR[s] * k[3 * s + 2];
+                }
+                double error = h * Math.sqrt(errX * errX + errY * errY + errZ * errZ);
+                if (error > tolerance) {
+                    h *= Math.max(0.1, 0.9 * Math.pow(tolerance / error, 0.25));
+                    if (h < minStep) {
+                        return FieldLines.SINGULARITY;
+                    }
+                    continue;
+                }
+                for (int s = 0; s < 6; s++) {
+                    x += h * B5[s] * k[3 * s];
+                    y += h * B5[s] * k[3 * s + 1];
+                    z += h * B5[s] * k[3 * s + 2];
+                }
+                length += h;
+                append(x, y, z);
+                if (!inside(x, y, z)) {
+                    return FieldLines.LEFT_DOMAIN;
+                }
+                if (length >= maxLength) {
+                    return FieldLines.MAX_LENGTH;
+                }
+                if (points == maxPoints) {
+                    return FieldLines.MAX_POINTS;
+                }
+                double grow = error > 0 ? 0.9 * Math.pow(tolerance / error, 0.2) : 5;
+                h = Math.min(maxStep, h * Math.min(5, grow));
+            }
+        }
+
+        /**
+         * Method that evaluates the six Fehlberg stages of a step of length h into k.
+         */
+        private boolean stages(double x, double y, double z, int sign, double h) {
+            for (int s = 0; s < 6; s++) {
+                double sx = x;
+                double sy = y;
+                double sz = z;
+                for (int j = 0; j < s; j++) {
+                    sx += h * A[s][j] * k[3 * j];
+                    sy += h * A[s][j] * k[3 * j + 1];
+                    sz += h * A[s][j] * k[3 * j + 2];
+                }
+                if (!direction(sx, sy, sz, sign, 3 * s)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Method that stores sign * E / |E| at a point in k, or records why the line cannot continue.
+         */
+        private boolean direction(double x, double y, double z, int sign, int offset) {
+            px[0] = x;
+            py[0] = y;
+            pz[0] = z;
+            source.evaluate(px, py, pz, ex, ey, ez, 0, 1);
+            double magnitude = Math.sqrt(ex[0] * ex[0] + ey[0] * ey[0] + ez[0] * ez[0]);
+            if (!Double.isFinite(magnitude)) {
+                failure = FieldLines.SINGULARITY;
+                return false;
+            }
+            if (magnitude == 0) {
+                failure = FieldLines.NO_FIELD;
+                return false;
+            }
+            double scale = sign / magnitude;
+            k[offset] = scale * ex[0];
+            k[offset + 1] = scale * ey[0];
+            k[offset + 2] = scale * ez[0];
+            return true;
+        }
+
+        private void append(double x, double y, double z) {
+            if (3 * points == line.length) {
+                line = Arrays.copyOf(line, 2 * line.length);
+            }
+            line[3 * points] = (float) x;
+            line[3 * points + 1] = (float) y;
+            line[3 * points + 2] = (float) z;
+            points++;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.efieldgen.solver;
+
+/**
+ * FieldLines class holding a set of traced field lines as polylines in compact primitive buffers. The vertices of
+ * all lines are packed one after another as (x, y, z) float triples, and line l owns vertices
+ * [start(l), start(l + 1)). Floats are plenty for drawing and halve the memory of hundreds of long lines.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class FieldLines {
+
+    /**
+     * Reasons a line stopped, as stored by {@link #getTermination(int)}.
+     */
+    public static final byte LEFT_DOMAIN = 0;
+    public static final byte MAX_LENGTH = 1;
+    public static final byte MAX_POINTS = 2;
+    public static final byte SINGULARITY = 3;
+    public static final byte NO_FIELD = 4;
+
+    private final float[] vertices;
+    private final int[] starts;
+    private final byte[] terminations;
+
+    FieldLines(float[] vertices, int[] starts, byte[] terminations) {
+        this.vertices = vertices;
+        this.starts = starts;
+        this.terminations = terminations;
+    }
+
+    public int lineCount() {
+        return terminations.length;
+    }
+
+    /**
+     * Method that gives the total number of vertices of all lines.
+     * @return int representing the vertex count.
+     */
+    public int vertexCount() {
+        return starts[starts.length - 1];
+    }
+
+    /**
+     * Method that gives the index of the first vertex of a line.
+     * @param line int representing the line.
+     * @return int representing the vertex index; the line ends before start(line + 1).
+     */
+    public int start(int line) {
+        return starts[line];
+    }
+
+    public int pointCount(int line) {
+        return starts[line + 1] - starts[line];
+    }
+
+    public byte getTermination(int line) {
+        return terminations[line];
+    }
+
+    /**
+     * Methods below read one coordinate of a vertex in meters.
+     */
+    public float x(int vertex) {
+        return vertices[3 * vertex];
+    }
+
+    public float y(int vertex) {
+        return vertices[3 * vertex + 1];
+    }
+
+    public float z(int vertex) {
+        return vertices[3 * vertex + 2];
+    }
+
+    /**
+     * Methods below return the live packed buffers, which must not be modified.
+     */
+    public float[] vertexArray() {
+        return vertices;
+    }
+
+    public int[] startArray() {
+        return starts;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.efieldgen.solver;
+
+import com.example.efieldgen.ChargeType;
+
+/**
+ * FieldSolver class that evaluates the electric field produced by each ChargeType configuration without
+ * depending on the JavaFX toolkit. Every method is static, works purely on primitives and allocates nothing,
+ * so the same physics can be called from the FieldGen GUI, from batch jobs and from benchmarks.
+ *
+ * Charges are given in nanocoulombs (nC, nC/m or nC/m^2 depending on the configuration) and lengths in meters,
+ * matching the units used by the FieldGen calculators. Fields are returned unrounded in N/C; use
+ * {@link #round(double)} for the two-decimal answers shown to students.
+ *
+ * The scalar methods return the signed field along the distance of each configuration. {@link #field} and
+ * {@link #addField} return the full (Ex, Ey, Ez) vector into a caller-owned buffer instead, with the geometry of
+ * BatchFieldSolver, so fields of several sources are superposed by adding components.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class FieldSolver {
+
+    /**
+     * Physical constants used by every configuration.
+     */
+    public static final double K = 8.99e9; // Coulomb constant in N*m^2/C^2
+    public static final double NANO = 1e-9; // nanocoulombs to coulombs
+    public static final double EPSILON_0 = 8.854187817e-12; // vacuum permittivity in F/m
+
+    /**
+     * Folded constants so that no call has to convert units or recompute powers of ten.
+     */
+    public static final double K_NANO = K * NANO; // Coulomb constant for charges given in nC
+    public static final double SLAB_FIELD = NANO / (2 * EPSILON_0); // field of a sheet per nC/m^2
+
+    private FieldSolver() {
+    }
+
+    /**
+     * Method that computes the distance from (0, 0) to a specified point in space.
+     * @param x x-coordinate for input into distance formula.
+     * @param y y-coordinate for input into distance formula.
+     * @return double representing computed distance.
+     */
+    public static double distanceFormula(double x, double y) {
+        return Math.sqrt(x * x + y * y);
+    }
+
+    /**
+     * Method that computes the distance from (0, 0, 0) to a specified point in space.
+     * @param x x-coordinate for input into distance formula.
+     * @param y y-coordinate for input into distance formula.
+     * @param z z-coordinate for input into distance formula.
+     * @return double representing computed distance.
+     */
+    public static double distanceFormula(double x, double y, double z) {
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    /**
+     * Method that computes the electric field due to a point charge in space.
+     * @param distance double representing the distance between the point in space and the point charge.
+     * @param charge double representing the point charge in nanocoulombs.
+     * @return double representing the signed radial electric field at the point in space.
+     */
+    public static double pointFieldSolver(double distance, double charge) {
+        return K_NANO * charge / (distance * distance);
+    }
+
+    /**
+     * Method that computes the electric field due to a uniformly charged thin spherical shell centered at the origin.
+     * @param distance double representing the distance from the center of the shell.
+     * @param charge double representing the total charge of the shell in nanocoulombs.
+     * @param radius double representing the radius of the shell in meters.
+     * @return double representing the signed radial electric field, zero inside the shell.
+     */
+    public static double hollowSphere(double distance, double charge, double radius) {
+        return distance >= radius ? pointFieldSolver(distance, charge) : 0;
+    }
+
+    /**
+     * Method that computes the electric field due to a solid sphere with a uniform volume charge density centered
+     * at the origin.
+     * @param distance double representing the distance from the center of the sphere.
+     * @param charge double representing the total charge of the sphere in nanocoulombs.
+     * @param radius double representing the radius of the sphere in meters.
+     * @return double representing the signed radial electric field, growing linearly inside the sphere.
+     */
+    public static double solidSphere(double distance, double charge, double radius) {
+        if (distance >= radius) {
+            return pointFieldSolver(distance, charge);
+        }
+        return K_NANO * charge * distance / (radius * radius * radius);
+    }
+
+    /**
+     * Method that computes the electric field due to an infinite line of charge.
+     * @param distance double representing the perpendicular distance from the line.
+     * @param lambda double representing the linear charge density in nC/m.
+     * @return double representing the signed radial electric field.
+     */
+    public static double infiniteLine(double distance, double lambda) {
+        return 2 * K_NANO * lambda / distance;
+    }
+
+    /**
+     * Method that computes the electric field due to an infinite slab of charge centered on the x-z plane. The field
+     * is constant outside the slab, grows linearly inside it, and points away from the slab on both sides.
+     * @param distance double representing the signed perpendicular distance from the center plane of the slab.
+     * @param sigma double representing the surface charge density in nC/m^2.
+     * @param thickness double representing the thickness of the slab in meters.
+     * @return double representing the electric field along the perpendicular axis.
+     */
+    public static double infiniteSlab(double distance, double sigma, double thickness) {
+        double halfThickness = thickness / 2;
+        if (Math.abs(distance) >= halfThickness) {
+            return Math.copySign(SLAB_FIELD * sigma, distance);
+        }
+        return SLAB_FIELD * sigma * (distance / halfThickness);
+    }
+
+    /**
+     * Method that computes the electric field for any ChargeType configuration.
+     * @param type ChargeType of the source configuration.
+     * @param distance double representing the distance from the source as defined by the configuration.
+     * @param charge double representing the charge, or charge density, of the source in nanocoulombs.
+     * @param size double representing the radius of a sphere or the thickness of a slab; ignored otherwise.
+     * @return double representing the electric field at the given distance.
+     */
+    public static double solve(ChargeType type, double distance, double charge, double size) {
+        switch (type) {
+            case POINTCHARGE:
+                return pointFieldSolver(distance, charge);
+            case HOLLOWSPHERE:
+                return hollowSphere(distance, charge, size);
+            case SOLIDSPHERE:
+                return solidSphere(distance, charge, size);
+            case INFINITELINE:
+                return infiniteLine(distance, charge);
+            case INFINITESLAB:
+                return infiniteSlab(distance, charge, size);
+            default:
+                throw new IllegalArgumentException("Unsupported charge type: " + type);
+        }
+    }
+
+    /**
+     * Method that computes the electric field vector of any ChargeType configuration at a point. Point charges and
+     * spheres are centered at the origin, the infinite line runs along the x-axis and the infinite slab is centered
+     * on the x-z plane.
+     * @param type ChargeType of the source configuration.
+     * @param charge double representing the charge, or charge density, of the source in nanocoulombs.
+     * @param size double representing the radius of a sphere or the thickness of a slab; ignored otherwise.
+     * @param x double representing the x-coordinate of the point in meters.
+     * @param y double representing the y-coordinate of the point in meters.
+     * @param z double representing the z-coordinate of the point in meters.
+     * @param out double array receiving Ex, Ey and Ez in N/C at out[offset] to out[offset + 2].
+     * @param offset int representing the index of Ex in out.
+     */
+    public static void field(ChargeType type, double charge, double size, double x, double y, double z,
+                             double[] out, int offset) {
+        out[offset] = 0;
+        out[offset + 1] = 0;
+        out[offset + 2] = 0;
+        addField(type, charge, size, x, y, z, out, offset);
+    }
+
+    /**
+     * Method that adds the electric field vector of any ChargeType configuration at a point to a buffer, with the
+     * geometry of {@link #field}. Calling it once per source superposes their fields.
+     * @param type ChargeType of the source configuration.
+     * @param charge double representing the charge, or charge density, of the source in nanocoulombs.
+     * @param size double representing the radius of a sphere or the thickness of a slab; ignored otherwise.
+     * @param x double representing the x-coordinate of the point in meters.
+     * @param y double representing the y-coordinate of the point in meters.
+     * @param z double representing the z-coordinate of the point in meters.
+     * @param out double array to whose out[offset] to out[offset + 2] Ex, Ey and Ez in N/C are added.
+     * @param offset int representing the index of Ex in out.
+     */
+    public static void addField(ChargeType type, double charge, double size, double x, double y, double z,
+                                double[] out, int offset) {
+        double kq = K_NANO * charge;
+        switch (type) {
+            case INFINITELINE: {
+                double s = 2 * kq / (y * y + z * z);
+                out[offset + 1] += s * y;
+                out[offset + 2] += s * z;
+                return;
+            }
+            case INFINITESLAB:
+                out[offset + 1] += infiniteSlab(y, charge, size);
+                return;
+            default:
+                break;
+        }
+        double r2 = x * x + y * y + z * z;
+        double s;
+        switch (type) {
+            case POINTCHARGE:
+                s = kq / (r2 * Math.sqrt(r2));
+                break;
+            case HOLLOWSPHERE:
+                s = r2 >= size * size ? kq / (r2 * Math.sqrt(r2)) : 0;
+                break;
+            case SOLIDSPHERE:
+                s = r2 >= size * size ? kq / (r2 * Math.sqrt(r2)) : kq / (size * size * size);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported charge type: " + type);
+        }
+        out[offset] += s * x;
+        out[offset + 1] += s * y;
+        out[offset + 2] += s * z;
+    }
+
+    /**
+     * Method that rounds a field value to the two decimals students are asked to answer with.
+     * @param value double representing the unrounded field.
+     * @return double representing the field rounded to two decimals.
+     */
+    public static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
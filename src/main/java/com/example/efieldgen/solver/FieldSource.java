@@ -0,0 +1,26 @@
+package com.example.efieldgen.solver;
+
+/**
+ * FieldSource interface for anything that can compute the electric field over a batch of observation points.
+ * Points and results are passed as struct-of-arrays primitive buffers so that implementations can run tight,
+ * allocation-free loops over them.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public interface FieldSource {
+
+    /**
+     * Method that computes the electric field at the observation points with indices in [from, to) and writes its
+     * components into the output arrays at the same indices.
+     * @param x double array of x-coordinates of the observation points in meters.
+     * @param y double array of y-coordinates of the observation points in meters.
+     * @param z double array of z-coordinates of the observation points in meters.
+     * @param ex double array receiving the x-components of the field in N/C.
+     * @param ey double array receiving the y-components of the field in N/C.
+     * @param ez double array receiving the z-components of the field in N/C.
+     * @param from int representing the first index to evaluate (inclusive).
+     * @param to int representing the last index to evaluate (exclusive).
+     */
+    void evaluate(double[] x, double[] y, double[] z, double[] ex, double[] ey, double[] ez, int from, int to);
+}
@@ -0,0 +1,182 @@
+package com.example.efieldgen.solver;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * GaussKronrod class implementing globally adaptive 15-point Gauss-Kronrod quadrature. Each interval is integrated
+ * with the Kronrod rule and the embedded 7-point Gauss rule, their difference gives the error estimate, and the
+ * interval with the largest error is bisected until the total error is small enough. The node and weight tables are
+ * static and shared by every instance.
+ *
+ * Refinement stops when the error is below the absolute tolerance or below the relative tolerance times the integral
+ * of |f|, so integrands whose parts cancel to zero still finish. The rule never evaluates f at the end points, which
+ * lets callers integrate functions that are singular there.
+ *
+ * An instance keeps its interval table between calls so that integration allocates nothing; it must not be shared
+ * between threads.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class GaussKronrod {
+
+    /**
+     * Kronrod nodes on [0, 1) in decreasing order; the odd entries are the Gauss nodes, the last one is the center.
+     */
+    private static final double[] NODES = {
+            0.991455371120812639206854697526329, 0.949107912342758524526189684047851,
+            0.864864423359769072789712788640926, 0.741531185599394439863864773280788,
+            0.586087235467691130294144845693013, 0.405845151377397166906606412076961,
+            0.207784955007898467600689403773245, 0.0};
+    private static final double[] KRONROD_WEIGHTS = {
+            0.022935322010529224963732008058970, 0.063092092629978553290700663189204,
+            0.104790010322250183839876322541518, 0.140653259715525918745189590510238,
+            0.169004726639267902826583426598550, 0.190350578064785409913256402421014,
+            0.204432940075298892414161999234649, 0.209482141084727828012999174891714};
+    private static final double[] GAUSS_WEIGHTS = {
+            0.129484966168869693270611432679082, 0.279705391489276667901467771423780,
+            0.381830050505118944950369775488975, 0.417959183673469387755102040816327};
+
+    private final double absoluteTolerance;
+    private final double relativeTolerance;
+    private final double[] lower;
+    private final double[] upper;
+    private final double[] value;
+    private final double[] error;
+    private final double[] magnitude;
+    private final double[] samples = new double[14];
+    private double lastError;
+    private int lastIntervals;
+
+    /**
+     * Constructor that defines when refinement stops.
+     * @param absoluteTolerance double representing the largest acceptable absolute error.
+     * @param relativeTolerance double representing the largest acceptable error relative to the integral of |f|.
+     * @param maxIntervals int representing the most subintervals an integral may be split into.
+     */
+    public GaussKronrod(double absoluteTolerance, double relativeTolerance, int maxIntervals) {
+        if (absoluteTolerance < 0 || relativeTolerance < 0 || maxIntervals < 1) {
+            throw new IllegalArgumentException("Tolerances must not be negative and one interval is required.");
+        }
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+        this.lower = new double[maxIntervals];
+        this.upper = new double[maxIntervals];
+        this.value = new double[maxIntervals];
+        this.error = new double[maxIntervals];
+        this.magnitude = new double[maxIntervals];
+    }
+
+    /**
+     * Method that integrates a function over [a, b].
+     * @param f DoubleUnaryOperator to integrate.
+     * @param a double representing the lower limit.
+     * @param b double representing the upper limit.
+     * @return double representing the integral; {@link #getLastError()} tells how accurate it is.
+     */
+    public double integrate(DoubleUnaryOperator f, double a, double b) {
+        if (a == b) {
+            lastError = 0;
+            lastIntervals = 0;
+            return 0;
+        }
+        int count = 1;
+        rule(f, a, b, 0);
+        double total = value[0];
+        double totalError = error[0];
+        double totalMagnitude = magnitude[0];
+        while (totalError > Math.max(absoluteTolerance, relativeTolerance * totalMagnitude)
+                && count < lower.length) {
+            int worst = 0;
+            for (int i = 1; i < count; i++) {
+                if (error[i] > error[worst]) {
+                    worst = i;
+                }
+            }
+            double left = lower[worst];
+            double right = upper[worst];
+            double mid = 0.5 * (left + right);
+            if (mid <= left || mid >= right) {
+                break; // the interval cannot be split any further in double precision
+            }
+            total -= value[worst];
+            totalError -= error[worst];
+            totalMagnitude -= magnitude[worst];
+            rule(f, left, mid, worst);
+            rule(f, mid, right, count);
+            total += value[worst] + value[count];
+            totalError += error[worst] + error[count];
+            totalMagnitude += magnitude[worst] + magnitude[count];
+            count++;
+        }
+        // The running sums drift slightly as intervals are swapped out, so the result is summed afresh.
+        total = 0;
+        totalError = 0;
+        for (int i = 0; i < count; i++) {
+            total += value[i];
+            totalError += error[i];
+        }
+        lastError = totalError;
+        lastIntervals = count;
+        return total;
+    }
+
+    /**
+     * Method that applies the 7-15 rule pair to [a, b] and stores the result in slot i. The raw difference of the
+     * two rules overstates the error of the Kronrod result by orders of magnitude, so it is scaled against the
+     * variation of f over the interval as in QUADPACK's qk15.
+     */
+    private void rule(DoubleUnaryOperator f, double a, double b, int i) {
+        double center = 0.5 * (a + b);
+        double half = 0.5 * (b - a);
+        double fc = f.applyAsDouble(center);
+        double kronrod = KRONROD_WEIGHTS[7] * fc;
+        double gauss = GAUSS_WEIGHTS[3] * fc;
+        double absolute = KRONROD_WEIGHTS[7] * Math.abs(fc);
+        for (int n = 0; n < 7; n++) {
+            double offset = half * NODES[n];
+            double f1 = f.applyAsDouble(center - offset);
+            double f2 = f.applyAsDouble(center + offset);
+            samples[2 * n] = f1;
+            samples[2 * n + 1] = f2;
+            kronrod += KRONROD_WEIGHTS[n] * (f1 + f2);
+            absolute += KRONROD_WEIGHTS[n] * (Math.abs(f1) + Math.abs(f2));
+            if ((n & 1) == 1) {
+                gauss += GAUSS_WEIGHTS[n >> 1] * (f1 + f2);
+            }
+        }
+        double mean = 0.5 * kronrod;
+        double variation = KRONROD_WEIGHTS[7] * Math.abs(fc - mean);
+        for (int n = 0; n < 7; n++) {
+            variation += KRONROD_WEIGHTS[n]
+                    * (Math.abs(samples[2 * n] - mean) + Math.abs(samples[2 * n + 1] - mean));
+        }
+        double scale = Math.abs(half);
+        double estimate = Math.abs((kronrod - gauss) * half);
+        variation *= scale;
+        if (variation != 0 && estimate != 0) {
+            estimate = variation * Math.min(1, Math.pow(200 * estimate / variation, 1.5));
+        }
+        lower[i] = a;
+        upper[i] = b;
+        value[i] = kronrod * half;
+        error[i] = estimate;
+        magnitude[i] = absolute * scale;
+    }
+
+    /**
+     * Method that gives the estimated absolute error of the last integral.
+     * @return double representing the sum of the error estimates of its subintervals.
+     */
+    public double getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Method that gives how many subintervals the last integral was split into.
+     * @return int representing the number of subintervals, zero for an empty range.
+     */
+    public int getLastIntervals() {
+        return lastIntervals;
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.efieldgen.solver;
+
+/**
+ * MultipoleOperators class holding the precomputed tables of the Cartesian Taylor expansions used by FastMultipole
+ * for one expansion order p.
+ *
+ * Multi-indices k = (a, b, c) are numbered by total degree, so the |k| <= p coefficients of an expansion form a
+ * prefix of the |k| <= 2p derivative table. Expansions are stored scaled by the side h of their box: multipole
+ * moments as sum q ((y - c) / h)^k and local coefficients as L_k * h^|k|. With that scaling the M2M and L2L
+ * operators depend only on which octant the child occupies, and the M2L operator only on the offset between two
+ * boxes in box units, so all of them are computed once here.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+final class MultipoleOperators {
+
+    /**
+     * Offsets between interacting boxes range over [-SPAN, SPAN] on each axis.
+     */
+    static final int SPAN = 3;
+    static final int OFFSETS = (2 * SPAN + 1) * (2 * SPAN + 1) * (2 * SPAN + 1);
+
+    final int order;
+    final int terms; // number of multi-indices with |k| <= p
+    final int derivativeTerms; // number of multi-indices with |k| <= 2p
+
+    /**
+     * Exponents and recurrence neighbours of every multi-index with |k| <= 2p.
+     */
+    final int[] ea;
+    final int[] eb;
+    final int[] ec;
+    private final int[] degree;
+    private final int[] minusX;
+    private final int[] minusY;
+    private final int[] minusZ;
+    private final int[] minusXX;
+    private final int[] minusYY;
+    private final int[] minusZZ;
+
+    /**
+     * M2L operator grouped by target coefficient: L[beta] += coefficient * d[k + beta] * M[k].
+     */
+    final int[] m2lStart;
+    final int[] m2lSource;
+    final int[] m2lDerivative;
+    final double[] m2lCoefficient;
+
+    /**
+     * M2M and L2L operators grouped by target coefficient, with one coefficient array per child octant.
+     */
+    final int[] m2mStart;
+    final int[] m2mSource;
+    final double[][] m2mCoefficient;
+    final int[] l2lStart;
+    final int[] l2lSource;
+    final double[][] l2lCoefficient;
+
+    /**
+     * Derivatives of 1/r at every well-separated box offset, indexed by {@link #offsetIndex}; null otherwise.
+     */
+    final double[][] offsetDerivatives;
+
+    /**
+     * Constructor that builds every table for the given expansion order.
+     * @param order int representing the expansion order p.
+     */
+    MultipoleOperators(int order) {
+        this.order = order;
+        int maxDegree = 2 * order;
+        this.terms = count(order);
+        this.derivativeTerms = count(maxDegree);
+        ea = new int[derivativeTerms];
+        eb = new int[derivativeTerms];
+        ec = new int[derivativeTerms];
+        degree = new int[derivativeTerms];
+        int[][][] index = new int[maxDegree + 1][maxDegree + 1][maxDegree + 1];
+        int n = 0;
+        for (int d = 0; d <= maxDegree; d++) {
+            for (int a = d; a >= 0; a--) {
+                for (int b = d - a; b >= 0; b--) {
+                    int c = d - a - b;
+                    ea[n] = a;
+                    eb[n] = b;
+                    ec[n] = c;
+                    degree[n] = d;
+                    index[a][b][c] = n++;
+                }
+            }
+        }
+        minusX = new int[derivativeTerms];
+        minusY = new int[derivativeTerms];
+        minusZ = new int[derivativeTerms];
+        minusXX = new int[derivativeTerms];
+        minusYY = new int[derivativeTerms];
+        minusZZ = new int[derivativeTerms];
+        for (int i = 0; i < derivativeTerms; i++) {
+            int a = ea[i];
+            int b = eb[i];
+            int c = ec[i];
+            minusX[i] = a >= 1 ? index[a - 1][b][c] : -1;
+            minusY[i] = b >= 1 ? index[a][b - 1][c] : -1;
+            minusZ[i] = c >= 1 ? index[a][b][c - 1] : -1;
+            minusXX[i] = a >= 2 ? index[a - 2][b][c] : -1;
+            minusYY[i] = b >= 2 ? index[a][b - 2][c] : -1;
+            minusZZ[i] = c >= 2 ? index[a][b][c - 2] : -1;
+        }
+        double[][] binomial = binomials(maxDegree);
+
+        // M2L: L~[beta] = (-1)^|beta| / h * sum_k C(k + beta, beta) d[k + beta](offset) M~[k]
+        m2lStart = new int[terms + 1];
+        m2lSource = new int[terms * terms];
+        m2lDerivative = new int[terms * terms];
+        m2lCoefficient = new double[terms * terms];
+        int t = 0;
+        for (int beta = 0; beta < terms; beta++) {
+            m2lStart[beta] = t;
+            double sign = (degree[beta] & 1) == 0 ? 1 : -1;
+            for (int k = 0; k < terms; k++) {
+                m2lSource[t] = k;
+                m2lDerivative[t] = index[ea[k] + ea[beta]][eb[k] + eb[beta]][ec[k] + ec[beta]];
+                m2lCoefficient[t] = sign * binomial[ea[k] + ea[beta]][ea[beta]]
+                        * binomial[eb[k] + eb[beta]][eb[beta]] * binomial[ec[k] + ec[beta]][ec[beta]];
+                t++;
+            }
+        }
+        m2lStart[terms] = t;
+
+        // M2M: M~parent[k] = sum_{l <= k} C(k, l) (d / h)^(k - l) 2^-|l| M~child[l], with d / h = +-1/4
+        // L2L: L~child[g] = sum_{b >= g} C(b, g) (s / h)^(b - g) 2^-|g| L~parent[b], with s / h = +-1/4
+        int pairs = 0;
+        for (int k = 0; k < terms; k++) {
+            for (int l = 0; l < terms; l++) {
+                if (ea[l] <= ea[k] && eb[l] <= eb[k] && ec[l] <= ec[k]) {
+                    pairs++;
+                }
+            }
+        }
+        m2mStart = new int[terms + 1];
+        m2mSource = new int[pairs];
+        m2mCoefficient = new double[8][pairs];
+        l2lStart = new int[terms + 1];
+        l2lSource = new int[pairs];
+        l2lCoefficient = new double[8][pairs];
+        int m = 0;
+        int l2 = 0;
+        for (int k = 0; k < terms; k++) {
+            m2mStart[k] = m;
+            l2lStart[k] = l2;
+            for (int l = 0; l < terms; l++) {
+                if (ea[l] <= ea[k] && eb[l] <= eb[k] && ec[l] <= ec[k]) {
+                    m2mSource[m] = l;
+                    double c = binomial[ea[k]][ea[l]] * binomial[eb[k]][eb[l]] * binomial[ec[k]][ec[l]]
+                            * Math.pow(0.5, degree[l]);
+                    for (int o = 0; o < 8; o++) {
+                        m2mCoefficient[o][m] = c * shift(o, ea[k] - ea[l], eb[k] - eb[l], ec[k] - ec[l]);
+                    }
+                    m++;
+                }
+                if (ea[k] <= ea[l] && eb[k] <= eb[l] && ec[k] <= ec[l]) {
+                    l2lSource[l2] = l;
+                    double c = binomial[ea[l]][ea[k]] * binomial[eb[l]][eb[k]] * binomial[ec[l]][ec[k]]
+                            * Math.pow(0.5, degree[k]);
+                    for (int o = 0; o < 8; o++) {
+                        l2lCoefficient[o][l2] = c * shift(o, ea[l] - ea[k], eb[l] - eb[k], ec[l] - ec[k]);
+                    }
+                    l2++;
+                }
+            }
+        }
+        m2mStart[terms] = m;
+        l2lStart[terms] = l2;
+
+        offsetDerivatives = new double[OFFSETS][];
+        for (int dz = -SPAN; dz <= SPAN; dz++) {
+            for (int dy = -SPAN; dy <= SPAN; dy++) {
+                for (int dx = -SPAN; dx <= SPAN; dx++) {
+                    if (Math.max(Math.abs(dx), Math.max(Math.abs(dy), Math.abs(dz))) >= 2) {
+                        double[] d = new double[derivativeTerms];
+                        derivatives(dx, dy, dz, d);
+                        offsetDerivatives[offsetIndex(dx, dy, dz)] = d;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Method that numbers a box offset with components in [-SPAN, SPAN].
+     */
+    static int offsetIndex(int dx, int dy, int dz) {
+        int w = 2 * SPAN + 1;
+        return (dx + SPAN) + w * ((dy + SPAN) + w * (dz + SPAN));
+    }
+
+    /**
+     * Method that counts the multi-indices of total degree at most d.
+     */
+    static int count(int d) {
+        return (d + 1) * (d + 2) * (d + 3) / 6;
+    }
+
+    /**
+     * Method that computes the Taylor coefficients d[k] = (1/k!) D_y^k (1 / |x - y|) at x - y = (ux, uy, uz) for every
+     * |k| <= 2p, using the recurrence
+     * |k| r^2 d[k] = (2|k| - 1) sum_i u_i d[k - e_i] - (|k| - 1) sum_i d[k - 2e_i].
+     * @param ux double representing the x-component of x - y.
+     * @param uy double representing the y-component of x - y.
+     * @param uz double representing the z-component of x - y.
+     * @param out double array of length derivativeTerms receiving the coefficients.
+     */
+    void derivatives(double ux, double uy, double uz, double[] out) {
+        double r2 = ux * ux + uy * uy + uz * uz;
+        double invR2 = 1 / r2;
+        out[0] = Math.sqrt(invR2);
+        for (int i = 1; i < derivativeTerms; i++) {
+            int n = degree[i];
+            double first = 0;
+            double second = 0;
+            if (minusX[i] >= 0) {
+                first += ux * out[minusX[i]];
+            }
+            if (minusY[i] >= 0) {
+                first += uy * out[minusY[i]];
+            }
+            if (minusZ[i] >= 0) {
+                first += uz * out[minusZ[i]];
+            }
+            if (minusXX[i] >= 0) {
+                second += out[minusXX[i]];
+            }
+            if (minusYY[i] >= 0) {
+                second += out[minusYY[i]];
+            }
+            if (minusZZ[i] >= 0) {
+                second += out[minusZZ[i]];
+            }
+            out[i] = ((2 * n - 1) * first - (n - 1) * second) * invR2 / n;
+        }
+    }
+
+    /**
+     * Method that computes (+-1/4)^(a, b, c) for the child in octant o, where bit 0, 1 and 2 of o select the upper
+     * half of the x, y and z axis.
+     */
+    private static double shift(int octant, int a, int b, int c) {
+        double sx = (octant & 1) != 0 ? 0.25 : -0.25;
+        double sy = (octant & 2) != 0 ? 0.25 : -0.25;
+        double sz = (octant & 4) != 0 ? 0.25 : -0.25;
+        return Math.pow(sx, a) * Math.pow(sy, b) * Math.pow(sz, c);
+    }
+
+    /**
+     * Method that builds Pascal's triangle up to row n.
+     */
+    private static double[][] binomials(int n) {
+        double[][] c = new double[n + 1][n + 1];
+        for (int i = 0; i <= n; i++) {
+            c[i][0] = 1;
+            for (int j = 1; j <= i; j++) {
+                c[i][j] = c[i - 1][j - 1] + (j <= i - 1 ? c[i - 1][j] : 0);
+            }
+        }
+        return c;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.efieldgen.solver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * OffHeapChargeSet class that keeps point charges outside the Java heap, either in direct memory or in a
+ * memory-mapped file that can be reopened later without copying. Each charge is a record of four little-endian
+ * doubles (x, y, z, q) after a {@value #HEADER_BYTES}-byte header holding the number of charges, so CoulombKernel
+ * can read the records in place.
+ *
+ * A set holds at most {@link #MAX_CAPACITY} charges because it is backed by a single buffer. It is not thread-safe
+ * while it is being modified.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class OffHeapChargeSet {
+
+    public static final int MAGIC = 0x45464351; // "EFCQ"
+    public static final int HEADER_BYTES = 64;
+    public static final int RECORD_DOUBLES = 4;
+    public static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_BYTES) / (RECORD_DOUBLES * Double.BYTES);
+    private static final int COUNT_OFFSET = 8;
+
+    private final ByteBuffer buffer;
+    private final DoubleBuffer records;
+    private final int capacity;
+    private int size;
+
+    private OffHeapChargeSet(ByteBuffer buffer, int capacity, int size) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.capacity = capacity;
+        this.size = size;
+        this.buffer.position(HEADER_BYTES);
+        this.records = this.buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        this.buffer.position(0);
+    }
+
+    /**
+     * Method that creates an empty set in direct memory.
+     * @param capacity int representing the largest number of charges the set can hold.
+     * @return OffHeapChargeSet backed by direct memory.
+     */
+    public static OffHeapChargeSet allocate(int capacity) {
+        checkCapacity(capacity);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytesFor(capacity));
+        OffHeapChargeSet set = new OffHeapChargeSet(buffer, capacity, 0);
+        set.writeHeader();
+        return set;
+    }
+
+    /**
+     * Method that creates an empty set backed by a new memory-mapped file, replacing any existing file.
+     * @param path Path of the file.
+     * @param capacity int representing the largest number of charges the set can hold.
+     * @return OffHeapChargeSet whose changes are written through to the file.
+     * @throws IOException if the file cannot be created or mapped.
+     */
+    public static OffHeapChargeSet create(Path path, int capacity) throws IOException {
+        checkCapacity(capacity);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytesFor(capacity));
+            OffHeapChargeSet set = new OffHeapChargeSet(buffer, capacity, 0);
+            set.writeHeader();
+            return set;
+        }
+    }
+
+    /**
+     * Method that maps an existing charge file without copying it.
+     * @param path Path of a file written by {@link #create}.
+     * @param writable boolean representing whether the set may be modified.
+     * @return OffHeapChargeSet viewing the file.
+     * @throws IOException if the file cannot be mapped or is not a charge file.
+     */
+    public static OffHeapChargeSet open(Path path, boolean writable) throws IOException {
+        StandardOpenOption[] options = writable
+                ? new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[] {StandardOpenOption.READ};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a FieldGen charge file: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE
+                    : FileChannel.MapMode.READ_ONLY, 0, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            long count = buffer.getLong(COUNT_OFFSET);
+            int capacity = (int) ((length - HEADER_BYTES) / (RECORD_DOUBLES * Double.BYTES));
+            if (buffer.getInt(0) != MAGIC || count < 0 || count > capacity) {
+                throw new IOException("Not a FieldGen charge file: " + path);
+            }
+            return new OffHeapChargeSet(buffer, capacity, (int) count);
+        }
+    }
+
+    /**
+     * Method that copies an on-heap PointChargeSet into direct memory.
+     * @param charges PointChargeSet to copy.
+     * @return OffHeapChargeSet holding the same charges.
+     */
+    public static OffHeapChargeSet copyOf(PointChargeSet charges) {
+        OffHeapChargeSet set = allocate(charges.size());
+        for (int i = 0; i < charges.size(); i++) {
+            set.add(charges.getX(i), charges.getY(i), charges.getZ(i), charges.getCharge(i));
+        }
+        return set;
+    }
+
+    /**
+     * Method that appends a charge to the set.
+     * @return int representing the index of the new charge.
+     */
+    public int add(double px, double py, double pz, double charge) {
+        if (size == capacity) {
+            throw new IllegalStateException("Off-heap charge set is full at " + capacity + " charges.");
+        }
+        put(size, px, py, pz, charge);
+        size++;
+        buffer.putLong(COUNT_OFFSET, size);
+        return size - 1;
+    }
+
+    /**
+     * Method that moves an existing charge and replaces its value.
+     */
+    public void set(int index, double px, double py, double pz, double charge) {
+        checkIndex(index);
+        put(index, px, py, pz, charge);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public double getX(int index) {
+        checkIndex(index);
+        return records.get(index * RECORD_DOUBLES);
+    }
+
+    public double getY(int index) {
+        checkIndex(index);
+        return records.get(index * RECORD_DOUBLES + 1);
+    }
+
+    public double getZ(int index) {
+        checkIndex(index);
+        return records.get(index * RECORD_DOUBLES + 2);
+    }
+
+    public double getCharge(int index) {
+        checkIndex(index);
+        return records.get(index * RECORD_DOUBLES + 3);
+    }
+
+    /**
+     * Method that exposes the live charge records, four doubles per charge, for kernels that read them in place.
+     * @return DoubleBuffer view of the records; only the first size() records are meaningful.
+     */
+    public DoubleBuffer records() {
+        return records;
+    }
+
+    /**
+     * Method that flushes a file-backed set to storage; it does nothing for a set in direct memory.
+     */
+    public void force() {
+        if (buffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) buffer).force();
+        }
+    }
+
+    private void put(int index, double px, double py, double pz, double charge) {
+        int base = index * RECORD_DOUBLES;
+        records.put(base, px);
+        records.put(base + 1, py);
+        records.put(base + 2, pz);
+        records.put(base + 3, charge);
+    }
+
+    private void writeHeader() {
+        buffer.putInt(0, MAGIC);
+        buffer.putLong(COUNT_OFFSET, size);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Charge index " + index + " out of range for size " + size);
+        }
+    }
+
+    private static void checkCapacity(int capacity) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 0 and " + MAX_CAPACITY + ".");
+        }
+    }
+
+    private static int bytesFor(int capacity) {
+        return HEADER_BYTES + capacity * RECORD_DOUBLES * Double.BYTES;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.efieldgen.solver;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * ParallelLoop class that runs the body of an index loop over disjoint chunks on a ForkJoinPool. Each index is
+ * handled by exactly one chunk, so bodies that only write to their own indices stay deterministic.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class ParallelLoop {
+
+    /**
+     * Body of a loop over the index range [from, to).
+     */
+    public interface Body {
+        void run(int from, int to);
+    }
+
+    private ParallelLoop() {
+    }
+
+    /**
+     * Method that runs a loop body over [from, to) in chunks of at most grain indices.
+     * @param pool ForkJoinPool whose threads run the chunks.
+     * @param from int representing the first index (inclusive).
+     * @param to int representing the last index (exclusive).
+     * @param grain int representing the largest number of indices handled by one chunk.
+     * @param body Body that processes one chunk.
+     */
+    public static void forRange(ForkJoinPool pool, int from, int to, int grain, Body body) {
+        if (to <= from) {
+            return;
+        }
+        if (to - from <= grain) {
+            body.run(from, to);
+            return;
+        }
+        pool.invoke(new Chunk(from, to, Math.max(1, grain), body));
+    }
+
+    /**
+     * Task that splits an index range in half until it fits in one chunk.
+     */
+    private static final class Chunk extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final Body body;
+
+        Chunk(int from, int to, int grain, Body body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Chunk(from, mid, grain, body), new Chunk(mid, to, grain, body));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.efieldgen.solver;
+
+import java.util.Arrays;
+
+/**
+ * PointChargeSet class that stores any number of point charges at arbitrary positions in struct-of-arrays form.
+ * Coordinates are in meters and charges in nanocoulombs, matching the single POINTCHARGE configuration.
+ *
+ * The backing arrays are exposed directly to the solver kernels, so they may be longer than {@link #size()} and
+ * must not be resized by callers. The set is not thread-safe while it is being modified.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class PointChargeSet {
+
+    private double[] x;
+    private double[] y;
+    private double[] z;
+    private double[] q;
+    private int size;
+
+    /**
+     * Constructor that creates an empty set with room for the given number of charges.
+     * @param capacity int representing the initial number of charges the set can hold without growing.
+     */
+    public PointChargeSet(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative.");
+        }
+        x = new double[capacity];
+        y = new double[capacity];
+        z = new double[capacity];
+        q = new double[capacity];
+    }
+
+    /**
+     * Method that appends a charge to the set.
+     * @param px double representing the x-coordinate of the charge in meters.
+     * @param py double representing the y-coordinate of the charge in meters.
+     * @param pz double representing the z-coordinate of the charge in meters.
+     * @param charge double representing the charge in nanocoulombs.
+     * @return int representing the index of the new charge.
+     */
+    public int add(double px, double py, double pz, double charge) {
+        if (size == x.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            z = Arrays.copyOf(z, capacity);
+            q = Arrays.copyOf(q, capacity);
+        }
+        x[size] = px;
+        y[size] = py;
+        z[size] = pz;
+        q[size] = charge;
+        return size++;
+    }
+
+    /**
+     * Method that moves an existing charge and replaces its value.
+     * @param index int representing the index of the charge to change.
+     * @param px double representing the new x-coordinate in meters.
+     * @param py double representing the new y-coordinate in meters.
+     * @param pz double representing the new z-coordinate in meters.
+     * @param charge double representing the new charge in nanocoulombs.
+     */
+    public void set(int index, double px, double py, double pz, double charge) {
+        checkIndex(index);
+        x[index] = px;
+        y[index] = py;
+        z[index] = pz;
+        q[index] = charge;
+    }
+
+    /**
+     * Method that removes every charge while keeping the allocated capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getX(int index) {
+        checkIndex(index);
+        return x[index];
+    }
+
+    public double getY(int index) {
+        checkIndex(index);
+        return y[index];
+    }
+
+    public double getZ(int index) {
+        checkIndex(index);
+        return z[index];
+    }
+
+    public double getCharge(int index) {
+        checkIndex(index);
+        return q[index];
+    }
+
+    /**
+     * Methods below expose the live backing arrays to solver kernels. Only the first {@link #size()} entries are
+     * meaningful.
+     */
+    public double[] xArray() {
+        return x;
+    }
+
+    public double[] yArray() {
+        return y;
+    }
+
+    public double[] zArray() {
+        return z;
+    }
+
+    public double[] chargeArray() {
+        return q;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Charge index " + index + " out of range for size " + size);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.efieldgen.solver;
+
+import com.example.efieldgen.ChargeType;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * VariableDensityField class that computes the field of the FieldGen geometries when their charge is not spread
+ * uniformly. Densities are arbitrary functions and the field is found with adaptive Gauss-Kronrod quadrature, so
+ * the uniform closed forms in FieldSolver become special cases:
+ * <ul>
+ * <li>a line along the x-axis with linear density lambda(x) in nC/m,</li>
+ * <li>a spherical shell between two radii or a solid sphere with volume density rho(r) in nC/m^3,</li>
+ * <li>a slab centered on the x-z plane with volume density rho(y) in nC/m^3.</li>
+ * </ul>
+ * Spheres and slabs use Gauss's law, so each point costs one integral of the enclosed charge. A line whose density
+ * varies along it is no longer symmetric; its field is integrated over the angle theta under which each element is
+ * seen, x = x0 + d * tan(theta), which turns the infinite line into the finite range (-pi/2, pi/2).
+ *
+ * Observation points are evaluated in parallel, each thread with its own integrator.
+ *
+ * @author Maheen Khan
+ * @version 12.0.1
+ */
+public final class VariableDensityField implements FieldSource {
+
+    private static final double DEFAULT_TOLERANCE = 1e-10;
+    private static final int MAX_INTERVALS = 256;
+    private static final int POINTS_PER_TASK = 16;
+
+    private final ChargeType type;
+    private final DoubleUnaryOperator density;
+    private final double inner;
+    private final double outer;
+    private final double tolerance;
+    private final ForkJoinPool pool;
+
+    private VariableDensityField(ChargeType type, DoubleUnaryOperator density, double inner, double outer,
+                                 double tolerance, ForkJoinPool pool) {
+        if (density == null) {
+            throw new IllegalArgumentException("Density must not be null.");
+        }
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Tolerance must be positive.");
+        }
+        this.type = type;
+        this.density = density;
+        this.inner = inner;
+        this.outer = outer;
+        this.tolerance = tolerance;
+        this.pool = pool;
+    }
+
+    /**
+     * Method that defines an infinite line of charge along the x-axis.
+     * @param lambda DoubleUnaryOperator giving the linear charge density in nC/m at each x.
+     * @return VariableDensityField of type INFINITELINE.
+     */
+    public static VariableDensityField line(DoubleUnaryOperator lambda) {
+        return new VariableDensityField(ChargeType.INFINITELINE, lambda, 0, 0, DEFAULT_TOLERANCE,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Method that defines a thick spherical shell centered at the origin.
+     * @param rho DoubleUnaryOperator giving the volume charge density in nC/m^3 at each radius.
+     * @param innerRadius double representing the inner radius of the shell in meters.
+     * @param outerRadius double representing the outer radius of the shell in meters.
+     * @return VariableDensityField of type HOLLOWSPHERE.
+     */
+    public static VariableDensityField shell(DoubleUnaryOperator rho, double innerRadius, double outerRadius) {
+        if (innerRadius < 0 || outerRadius < innerRadius) {
+            throw new IllegalArgumentException("Shell radii must satisfy 0 <= inner <= outer.");
+        }
+        return new VariableDensityField(ChargeType.HOLLOWSPHERE, rho, innerRadius, outerRadius, DEFAULT_TOLERANCE,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Method that defines a solid sphere centered at the origin.
+     * @param rho DoubleUnaryOperator giving the volume charge density in nC/m^3 at each radius.
+     * @param radius double representing the radius of the sphere in meters.
+     * @return VariableDensityField of type SOLIDSPHERE.
+     */
+    public static VariableDensityField sphere(DoubleUnaryOperator rho, double radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Radius must not be negative.");
+        }
+        return new VariableDensityField(ChargeType.SOLIDSPHERE, rho, 0, radius, DEFAULT_TOLERANCE,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Method that defines an infinite slab centered on the x-z plane.
+     * @param rho DoubleUnaryOperator giving the volume charge density in nC/m^3 at each y.
+     * @param thickness double representing the thickness of the slab in meters.
+     * @return VariableDensityField of type INFINITESLAB.
+     */
+    public static VariableDensityField slab(DoubleUnaryOperator rho, double thickness) {
+        if (thickness < 0) {
+            throw new IllegalArgumentException("Thickness must not be negative.");
+        }
+        return new VariableDensityField(ChargeType.INFINITESLAB, rho, -thickness / 2, thickness / 2,
+                DEFAULT_TOLERANCE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Method that copies this configuration with another accuracy.
+     * @param relativeTolerance double representing the largest error relative to the integral of |integrand|.
+     * @return VariableDensityField that stops refining at the new tolerance.
+     */
+    public VariableDensityField withTolerance(double relativeTolerance) {
+        return new VariableDensityField(type, density, inner, outer, relativeTolerance, pool);
+    }
+
+    /**
+     * Method that copies this configuration onto another worker pool.
+     * @param workers ForkJoinPool whose threads evaluate the observation points.
+     * @return VariableDensityField evaluated on the new pool.
+     */
+    public VariableDensityField withPool(ForkJoinPool workers) {
+        return new VariableDensityField(type, density, inner, outer, tolerance, workers);
+    }
+
+    /**
+     * Method that precomputes the enclosed charge of a sphere or shell so that field queries become table lookups.
+     * @param intervals int representing the number of table intervals between the inner and outer radius.
+     * @return EnclosedChargeTable of this configuration.
+     */
+    public EnclosedChargeTable tabulate(int intervals) {
+        if (type != ChargeType.HOLLOWSPHERE && type != ChargeType.SOLIDSPHERE) {
+            throw new UnsupportedOperationException("Only spherical charges can be tabulated by radius.");
+        }
+        return EnclosedChargeTable.shell(density, inner, outer, intervals);
+    }
+
+    public ChargeType getType() {
+        return type;
+    }
+
+    @Override
+    public void evaluate(double[] x, double[] y, double[] z, double[] ex, double[] ey, double[] ez, int from, int to) {
+        ParallelLoop.forRange(pool, from, to, POINTS_PER_TASK, (start, end) -> {
+            Integrand integrand = new Integrand();
+            for (int i = start; i < end; i++) {
+                integrand.field(x[i], y[i], z[i], ex, ey, ez, i);
+            }
+        });
+    }
+
+    /**
+     * Method that computes the charge of a sphere or shell within a radius, or the charge per unit area of a slab
+     * below a height, which is the quantity Gauss's law needs.
+     * @param r double representing the radius, or the y-coordinate for a slab.
+     * @return double representing the enclosed charge in nC, or in nC/m^2 for a slab.
+     */
+    public double enclosedCharge(double r) {
+        return new Integrand().enclosed(r);
+    }
+
+    /**
+     * Integrand class holding one thread's integrator and the state of the point being evaluated.
+     */
+    private final class Integrand implements DoubleUnaryOperator {
+        private static final int SHELL = 0;
+        private static final int SLAB = 1;
+        private static final int LINE_AXIAL = 2;
+        private static final int LINE_RADIAL = 3;
+
+        private final GaussKronrod quadrature = new GaussKronrod(0, tolerance, MAX_INTERVALS);
+        private int mode;
+        private double x0;
+        private double distance;
+
+        void field(double px, double py, double pz, double[] ex, double[] ey, double[] ez, int i) {
+            switch (type) {
+                case HOLLOWSPHERE:
+                case SOLIDSPHERE: {
+                    double r = Math.sqrt(px * px + py * py + pz * pz);
+                    double radial = r > 0 ? FieldSolver.K_NANO * enclosed(r) / (r * r * r) : 0;
+                    ex[i] = radial * px;
+                    ey[i] = radial * py;
+                    ez[i] = radial * pz;
+                    break;
+                }
+                case INFINITESLAB: {
+                    // Charge below the point pushes up and charge above pushes down: E = (Q_below - Q_above) / 2e0.
+                    double below = enclosed(py);
+                    double above = integrate(SLAB, Math.max(inner, Math.min(outer, py)), outer);
+                    ex[i] = 0;
+                    ey[i] = FieldSolver.SLAB_FIELD * (below - above);
+                    ez[i] = 0;
+                    break;
+                }
+                case INFINITELINE: {
+                    x0 = px;
+                    distance = FieldSolver.distanceFormula(py, pz);
+                    double scale = FieldSolver.K_NANO / distance;
+                    double axial = scale * integrate(LINE_AXIAL, -Math.PI / 2, Math.PI / 2);
+                    double radial = scale * integrate(LINE_RADIAL, -Math.PI / 2, Math.PI / 2) / distance;
+                    ex[i] = axial;
+                    ey[i] = radial * py;
+                    ez[i] = radial * pz;
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Unsupported charge type: " + type);
+            }
+        }
+
+        double enclosed(double r) {
+            if (type == ChargeType.INFINITESLAB) {
+                return integrate(SLAB, inner, Math.max(inner, Math.min(outer, r)));
+            }
+            if (type == ChargeType.INFINITELINE) {
+                throw new UnsupportedOperationException("An infinite line encloses no finite charge.");
+            }
+            return integrate(SHELL, inner, Math.max(inner, Math.min(outer, r)));
+        }
+
+        private double integrate(int integrandMode, double a, double b) {
+            mode = integrandMode;
+            return quadrature.integrate(this, a, b);
+        }
+
+        @Override
+        public double applyAsDouble(double t) {
+            switch (mode) {
+                case SHELL:
+                    return 4 * Math.PI * t * t * density.applyAsDouble(t);
+                case SLAB:
+                    return density.applyAsDouble(t);
+                case LINE_AXIAL:
+                    // An element at x0 + d tan(t) pushes the point away from it along x: dE_x = -k lambda sin(t) / d.
+                    return -density.applyAsDouble(x0 + distance * Math.tan(t)) * Math.sin(t);
+                default:
+                    return density.applyAsDouble(x0 + distance * Math.tan(t)) * Math.cos(t);
+            }
+        }
+    }
+}
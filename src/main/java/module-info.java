@@ -1,9 +1,18 @@
 module com.example.efieldgen {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.httpserver;
+    requires java.net.http;
+    requires java.management;
 
     requires org.kordamp.bootstrapfx.core;
 
     opens com.example.efieldgen to javafx.fxml;
     exports com.example.efieldgen;
+    exports com.example.efieldgen.solver;
+    exports com.example.efieldgen.grid;
+    exports com.example.efieldgen.batch;
+    exports com.example.efieldgen.problem;
+    exports com.example.efieldgen.server;
+    exports com.example.efieldgen.session;
 }
\ No newline at end of file